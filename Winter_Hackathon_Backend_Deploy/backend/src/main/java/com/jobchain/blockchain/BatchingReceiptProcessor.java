@@ -0,0 +1,196 @@
+package com.jobchain.blockchain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.tx.response.TransactionReceiptProcessor;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Single polling loop for every pending transaction. Once per new block it fetches all
+ * outstanding receipts in batched JSON-RPC calls and completes the matching futures,
+ * instead of each {@code send()} sleeping in its own loop against the node.
+ */
+@Slf4j
+public class BatchingReceiptProcessor extends TransactionReceiptProcessor {
+
+    private final Web3j web3j;
+    private final int maxBlocksToWait;
+    private final int maxBatchSize;
+    private final Map<String, PendingReceipt> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private volatile BigInteger lastPolledBlock = BigInteger.valueOf(-1);
+
+    public BatchingReceiptProcessor(
+            Web3j web3j,
+            long pollIntervalMs,
+            int maxBlocksToWait,
+            int maxBatchSize
+    ) {
+        super(web3j);
+        this.web3j = web3j;
+        this.maxBlocksToWait = maxBlocksToWait;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chain-receipt-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public CompletableFuture<TransactionReceipt> track(String txHash) {
+        return pending.computeIfAbsent(txHash, hash -> new PendingReceipt()).future;
+    }
+
+    // Stops polling for a hash nobody waits on any more, e.g. a replaced transaction
+    public void untrack(String txHash) {
+        PendingReceipt receipt = pending.remove(txHash);
+        if (receipt != null) {
+            receipt.future.cancel(false);
+        }
+    }
+
+    @Override
+    public TransactionReceipt waitForTransactionReceipt(String txHash)
+            throws IOException, TransactionException {
+        try {
+            return track(txHash).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for receipt of " + txHash, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TransactionException te) throw te;
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new TransactionException(e.getCause());
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    void poll() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            BigInteger block = web3j.ethBlockNumber().send().getBlockNumber();
+            if (block.compareTo(lastPolledBlock) <= 0) {
+                return;
+            }
+            lastPolledBlock = block;
+
+            List<String> hashes = new ArrayList<>(pending.keySet());
+            for (int from = 0; from < hashes.size(); from += maxBatchSize) {
+                fetchReceipts(hashes.subList(from, Math.min(from + maxBatchSize, hashes.size())));
+            }
+        } catch (Exception e) {
+            log.warn("Receipt polling failed, will retry next tick: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * One-off receipt lookup for hashes nobody is waiting on, sent as batched JSON-RPC
+     * calls of at most {@code maxBatchSize}. Responses are in the order of {@code hashes}.
+     */
+    public List<EthGetTransactionReceipt> lookup(List<String> hashes) throws IOException {
+        List<EthGetTransactionReceipt> responses = new ArrayList<>(hashes.size());
+        for (int from = 0; from < hashes.size(); from += maxBatchSize) {
+            responses.addAll(fetch(hashes.subList(from, Math.min(from + maxBatchSize, hashes.size()))));
+        }
+        return responses;
+    }
+
+    // Same as lookup, but eth_getTransactionByHash: tells a pending transaction from one the node never saw
+    public List<EthTransaction> lookupTransactions(List<String> hashes) throws IOException {
+        List<EthTransaction> responses = new ArrayList<>(hashes.size());
+        for (int from = 0; from < hashes.size(); from += maxBatchSize) {
+            responses.addAll(batch(hashes.subList(from, Math.min(from + maxBatchSize, hashes.size())),
+                    web3j::ethGetTransactionByHash));
+        }
+        return responses;
+    }
+
+    private void fetchReceipts(List<String> hashes) throws IOException {
+        List<EthGetTransactionReceipt> responses = fetch(hashes);
+        for (int i = 0; i < hashes.size(); i++) {
+            complete(hashes.get(i), responses.get(i));
+        }
+    }
+
+    private List<EthGetTransactionReceipt> fetch(List<String> hashes) throws IOException {
+        return batch(hashes, web3j::ethGetTransactionReceipt);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Response<?>> List<T> batch(List<String> hashes, Function<String, Request<?, T>> call)
+            throws IOException {
+        List<T> responses = new ArrayList<>(hashes.size());
+
+        try {
+            BatchRequest batch = web3j.newBatch();
+            for (String hash : hashes) {
+                batch.add(call.apply(hash));
+            }
+            for (Response<?> response : batch.send().getResponses()) {
+                responses.add((T) response);
+            }
+        } catch (Exception e) {
+            // Not every provider accepts JSON-RPC batches; fall back to one call per hash
+            log.debug("Batch request failed, falling back to single requests: {}", e.getMessage());
+            responses.clear();
+            for (String hash : hashes) {
+                responses.add(call.apply(hash).send());
+            }
+        }
+
+        return responses;
+    }
+
+    private void complete(String txHash, EthGetTransactionReceipt response) {
+        PendingReceipt receipt = pending.get(txHash);
+        if (receipt == null) {
+            return;
+        }
+
+        if (response.hasError()) {
+            log.warn("Receipt lookup for {} failed: {}", txHash, response.getError().getMessage());
+        } else if (response.getTransactionReceipt().isPresent()) {
+            pending.remove(txHash);
+            receipt.future.complete(response.getTransactionReceipt().get());
+            return;
+        }
+
+        if (++receipt.blocksWaited > maxBlocksToWait) {
+            pending.remove(txHash);
+            receipt.future.completeExceptionally(new TransactionException(
+                    "Transaction receipt was not generated after " + maxBlocksToWait
+                            + " blocks for transaction: " + txHash, txHash));
+        }
+    }
+
+    private static final class PendingReceipt {
+        private final CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+        private int blocksWaited;
+    }
+}
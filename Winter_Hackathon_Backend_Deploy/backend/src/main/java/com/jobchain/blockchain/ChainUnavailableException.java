@@ -0,0 +1,12 @@
+package com.jobchain.blockchain;
+
+/**
+ * Thrown without touching the node when a chain call is short-circuited by an open
+ * breaker or a full bulkhead. Callers treat it as "queue and retry later".
+ */
+public class ChainUnavailableException extends RuntimeException {
+
+    public ChainUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,214 @@
+package com.jobchain.blockchain;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthEstimateGas;
+import org.web3j.protocol.core.methods.response.EthFeeHistory;
+import org.web3j.tx.gas.ContractEIP1559GasProvider;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * EIP-1559 gas provider backed by {@code eth_feeHistory}. Fees are refreshed in the
+ * background so sending never waits on a fee lookup, and the gas limit for each
+ * contract function is estimated once and cached by function name.
+ */
+@Slf4j
+public class FeeOracleGasProvider implements ContractEIP1559GasProvider, MeterBinder {
+
+    private static final BigDecimal GWEI = BigDecimal.TEN.pow(9);
+
+    private final Web3j web3j;
+    private final long chainId;
+    private final boolean eip1559Enabled;
+    private final BigInteger defaultGasLimit;
+    private final double gasLimitMultiplier;
+    private final int feeHistoryBlocks;
+    private final double rewardPercentile;
+    private final BigInteger minPriorityFee;
+
+    private final Map<String, BigInteger> gasLimits = new ConcurrentHashMap<>();
+
+    private volatile BigInteger baseFee;
+    private volatile BigInteger priorityFee;
+    private volatile BigInteger maxFee;
+
+    public FeeOracleGasProvider(
+            Web3j web3j,
+            long chainId,
+            boolean eip1559Enabled,
+            BigInteger defaultGasLimit,
+            double gasLimitMultiplier,
+            int feeHistoryBlocks,
+            double rewardPercentile,
+            BigInteger minPriorityFee,
+            BigInteger fallbackMaxFee
+    ) {
+        this.web3j = web3j;
+        this.chainId = chainId;
+        this.eip1559Enabled = eip1559Enabled;
+        this.defaultGasLimit = defaultGasLimit;
+        this.gasLimitMultiplier = gasLimitMultiplier;
+        this.feeHistoryBlocks = feeHistoryBlocks;
+        this.rewardPercentile = rewardPercentile;
+        this.minPriorityFee = minPriorityFee;
+        this.baseFee = fallbackMaxFee.subtract(minPriorityFee).max(BigInteger.ZERO);
+        this.priorityFee = minPriorityFee;
+        this.maxFee = fallbackMaxFee;
+    }
+
+    @Scheduled(fixedDelayString = "${blockchain.gas.refresh-interval-ms:15000}")
+    public void refresh() {
+        try {
+            EthFeeHistory response = web3j.ethFeeHistory(
+                    feeHistoryBlocks,
+                    DefaultBlockParameterName.LATEST,
+                    List.of(rewardPercentile)
+            ).send();
+
+            if (response.hasError() || response.getFeeHistory() == null) {
+                log.warn("eth_feeHistory failed, keeping previous fees: {}",
+                        response.hasError() ? response.getError().getMessage() : "empty response");
+                return;
+            }
+
+            EthFeeHistory.FeeHistory history = response.getFeeHistory();
+
+            // The last base fee entry is the projected base fee of the next block
+            List<BigInteger> baseFees = history.getBaseFeePerGas();
+            BigInteger nextBaseFee = baseFees.get(baseFees.size() - 1);
+
+            List<BigInteger> rewards = new ArrayList<>();
+            if (history.getReward() != null) {
+                for (List<BigInteger> blockRewards : history.getReward()) {
+                    if (!blockRewards.isEmpty()) rewards.add(blockRewards.get(0));
+                }
+            }
+            rewards.sort(BigInteger::compareTo);
+            BigInteger tip = rewards.isEmpty() ? minPriorityFee : rewards.get(rewards.size() / 2);
+            tip = tip.max(minPriorityFee);
+
+            // Two base fees of headroom keeps the tx valid through six consecutive full blocks
+            baseFee = nextBaseFee;
+            priorityFee = tip;
+            maxFee = nextBaseFee.multiply(BigInteger.TWO).add(tip);
+
+            log.debug("Gas fees refreshed: baseFee={} gwei, priorityFee={} gwei, maxFee={} gwei",
+                    toGwei(baseFee), toGwei(priorityFee), toGwei(maxFee));
+        } catch (Exception e) {
+            log.warn("Gas fee refresh failed, keeping previous fees: {}", e.getMessage());
+        }
+    }
+
+    public BigInteger estimateGasLimit(String contractFunc, String from, String to, String data) {
+        BigInteger cached = gasLimits.get(contractFunc);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            EthEstimateGas estimate = web3j.ethEstimateGas(
+                    Transaction.createEthCallTransaction(from, to, data)
+            ).send();
+
+            if (estimate.hasError()) {
+                log.warn("Gas estimation for {} failed, using default limit: {}",
+                        contractFunc, estimate.getError().getMessage());
+                return defaultGasLimit;
+            }
+
+            BigInteger limit = new BigDecimal(estimate.getAmountUsed())
+                    .multiply(BigDecimal.valueOf(gasLimitMultiplier))
+                    .toBigInteger();
+            gasLimits.put(contractFunc, limit);
+
+            log.info("Cached gas limit for {}: {}", contractFunc, limit);
+            return limit;
+        } catch (Exception e) {
+            log.warn("Gas estimation for {} failed, using default limit: {}", contractFunc, e.getMessage());
+            return defaultGasLimit;
+        }
+    }
+
+    public BigInteger estimateCost(String contractFunc, int transactions) {
+        return getMaxFeePerGas(contractFunc)
+                .multiply(getGasLimit(contractFunc))
+                .multiply(BigInteger.valueOf(transactions));
+    }
+
+    @Override
+    public BigInteger getGasPrice(String contractFunc) {
+        return maxFee;
+    }
+
+    @Override
+    @Deprecated
+    public BigInteger getGasPrice() {
+        return maxFee;
+    }
+
+    @Override
+    public BigInteger getGasLimit(String contractFunc) {
+        return gasLimits.getOrDefault(contractFunc, defaultGasLimit);
+    }
+
+    @Override
+    @Deprecated
+    public BigInteger getGasLimit() {
+        return defaultGasLimit;
+    }
+
+    @Override
+    public boolean isEIP1559Enabled() {
+        return eip1559Enabled;
+    }
+
+    @Override
+    public long getChainId() {
+        return chainId;
+    }
+
+    @Override
+    public BigInteger getMaxFeePerGas(String contractFunc) {
+        return maxFee;
+    }
+
+    @Override
+    public BigInteger getMaxPriorityFeePerGas(String contractFunc) {
+        return priorityFee;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("chain.gas.base_fee", this, p -> toGwei(p.baseFee))
+                .baseUnit("gwei").description("Projected base fee of the next block")
+                .register(registry);
+        Gauge.builder("chain.gas.priority_fee", this, p -> toGwei(p.priorityFee))
+                .baseUnit("gwei").description("maxPriorityFeePerGas used for new transactions")
+                .register(registry);
+        Gauge.builder("chain.gas.max_fee", this, p -> toGwei(p.maxFee))
+                .baseUnit("gwei").description("maxFeePerGas used for new transactions")
+                .register(registry);
+        Gauge.builder("chain.gas.cached_limits", gasLimits, Map::size)
+                .description("Contract functions with a cached gas estimate")
+                .register(registry);
+    }
+
+    private static double toGwei(BigInteger wei) {
+        return new BigDecimal(Objects.requireNonNullElse(wei, BigInteger.ZERO))
+                .divide(GWEI)
+                .doubleValue();
+    }
+}
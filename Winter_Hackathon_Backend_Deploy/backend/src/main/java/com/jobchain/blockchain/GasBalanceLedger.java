@@ -0,0 +1,144 @@
+package com.jobchain.blockchain;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.utils.Convert;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Local view of the sender's balance. The on-chain balance is re-read once per new
+ * block; in between, every outbound transaction reserves its worst-case fee
+ * (gasLimit * maxFeePerGas) and releases it when its receipt arrives, so the check
+ * before sending is a field comparison rather than an {@code eth_getBalance} call.
+ */
+@Slf4j
+public class GasBalanceLedger implements MeterBinder {
+
+    private final Web3j web3j;
+    private final String address;
+
+    private BigInteger balance;
+    private BigInteger reserved = BigInteger.ZERO;
+    private int reservationCount;
+
+    private volatile BigInteger lastRefreshedBlock = BigInteger.valueOf(-1);
+
+    public GasBalanceLedger(Web3j web3j, String address) {
+        this.web3j = web3j;
+        this.address = address;
+    }
+
+    public void refresh() {
+        try {
+            BigInteger block = web3j.ethBlockNumber().send().getBlockNumber();
+            if (block.equals(lastRefreshedBlock)) {
+                return;
+            }
+
+            BigInteger latest = web3j.ethGetBalance(address, DefaultBlockParameterName.LATEST)
+                    .send()
+                    .getBalance();
+
+            synchronized (this) {
+                balance = latest;
+            }
+            lastRefreshedBlock = block;
+        } catch (Exception e) {
+            log.warn("Gas balance refresh failed, keeping previous balance: {}", e.getMessage());
+        }
+    }
+
+    public Reservation reserve(BigInteger maxCost) {
+        if (balance == null) {
+            refresh();
+        }
+
+        synchronized (this) {
+            if (balance == null) {
+                throw new IllegalStateException("Gas balance unknown: node unreachable");
+            }
+
+            BigInteger available = balance.subtract(reserved);
+            if (available.compareTo(maxCost) < 0) {
+                throw new IllegalStateException(
+                        "Insufficient balance: need " + toPol(maxCost) + " POL, "
+                                + toPol(available) + " POL available after "
+                                + reservationCount + " in-flight transactions");
+            }
+
+            reserved = reserved.add(maxCost);
+            reservationCount++;
+            return new Reservation(maxCost);
+        }
+    }
+
+    public synchronized boolean canAfford(BigInteger cost) {
+        return balance != null && balance.subtract(reserved).compareTo(cost) >= 0;
+    }
+
+    public synchronized BigInteger getAvailable() {
+        return balance == null ? BigInteger.ZERO : balance.subtract(reserved);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("chain.ledger.balance", this, ledger -> toPol(ledger.currentBalance()))
+                .baseUnit("pol").description("Sender balance at the last refreshed block")
+                .tag("signer", address)
+                .register(registry);
+        Gauge.builder("chain.ledger.reserved", this, ledger -> toPol(ledger.currentReserved()))
+                .baseUnit("pol").description("Worst-case fees reserved by in-flight transactions")
+                .tag("signer", address)
+                .register(registry);
+        Gauge.builder("chain.ledger.reservations", this, GasBalanceLedger::currentReservationCount)
+                .description("In-flight transactions holding a reservation")
+                .tag("signer", address)
+                .register(registry);
+    }
+
+    private synchronized BigInteger currentBalance() {
+        return balance == null ? BigInteger.ZERO : balance;
+    }
+
+    private synchronized BigInteger currentReserved() {
+        return reserved;
+    }
+
+    private synchronized int currentReservationCount() {
+        return reservationCount;
+    }
+
+    private synchronized void release(BigInteger amount) {
+        reserved = reserved.subtract(amount).max(BigInteger.ZERO);
+        reservationCount = Math.max(0, reservationCount - 1);
+    }
+
+    private static double toPol(BigInteger wei) {
+        return Convert.fromWei(new BigDecimal(wei), Convert.Unit.ETHER).doubleValue();
+    }
+
+    public final class Reservation {
+
+        private final BigInteger amount;
+        private boolean released;
+
+        private Reservation(BigInteger amount) {
+            this.amount = amount;
+        }
+
+        // Idempotent, so both the send-failure path and the receipt path can call it
+        public void release() {
+            synchronized (GasBalanceLedger.this) {
+                if (released) return;
+                released = true;
+                GasBalanceLedger.this.release(amount);
+            }
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package com.jobchain.blockchain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SignedRawTransaction;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.protocol.Service;
+import org.web3j.protocol.http.HttpService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JSON-RPC transport over several providers. Each call goes to the healthiest endpoint
+ * (lowest error-weighted latency, not in cooldown) and fails over on I/O or HTTP errors.
+ * Idempotent reads still running after the primary's p95 are raced against the next
+ * endpoint. Raw transactions stay on the endpoint first used for their sender and nonce.
+ */
+@Slf4j
+public class MultiEndpointRpcService extends Service implements MeterBinder {
+
+    private static final Set<String> HEDGEABLE_METHODS = Set.of(
+            "eth_blockNumber",
+            "eth_chainId",
+            "eth_getBalance",
+            "eth_getTransactionReceipt",
+            "eth_getTransactionByHash",
+            "eth_getBlockByNumber",
+            "eth_getLogs",
+            "eth_call",
+            "eth_estimateGas",
+            "eth_feeHistory",
+            "eth_gasPrice",
+            "eth_maxPriorityFeePerGas"
+    );
+
+    private static final int MAX_WRITE_PINS = 4096;
+
+    private final List<Endpoint> endpoints;
+    private final OkHttpClient client;
+    private final boolean hedgingEnabled;
+    private final long hedgeMinDelayMs;
+    private final long cooldownMs;
+    private final int failureThreshold;
+
+    private final Map<String, Endpoint> writePins = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Endpoint> eldest) {
+                    return size() > MAX_WRITE_PINS;
+                }
+            });
+
+    private final AtomicLong hedgedRequests = new AtomicLong();
+    private final AtomicLong failovers = new AtomicLong();
+
+    public MultiEndpointRpcService(
+            List<String> urls,
+            int maxIdleConnections,
+            Duration keepAlive,
+            int maxRequestsPerHost,
+            Duration connectTimeout,
+            Duration readTimeout,
+            boolean hedgingEnabled,
+            long hedgeMinDelayMs,
+            long cooldownMs,
+            int failureThreshold
+    ) {
+        super(false);
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("At least one RPC endpoint is required");
+        }
+
+        this.endpoints = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            endpoints.add(new Endpoint(urls.get(i), i + ":" + host(urls.get(i))));
+        }
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        dispatcher.setMaxRequests(maxRequestsPerHost * urls.size());
+
+        this.client = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .callTimeout(connectTimeout.plus(readTimeout))
+                .build();
+
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
+        this.cooldownMs = cooldownMs;
+        this.failureThreshold = failureThreshold;
+
+        log.info("RPC endpoints configured: {}", endpoints.stream().map(e -> e.label).toList());
+    }
+
+    @Override
+    protected InputStream performIO(String payload) throws IOException {
+        JsonNode request = objectMapper.readTree(payload);
+        List<JsonNode> calls = request.isArray() ? toList(request) : List.of(request);
+
+        boolean write = calls.stream().anyMatch(call -> "eth_sendRawTransaction".equals(method(call)));
+        if (write) {
+            return new ByteArrayInputStream(sendPinned(payload, calls));
+        }
+
+        boolean hedgeable = calls.stream().allMatch(call -> HEDGEABLE_METHODS.contains(method(call)));
+        List<Endpoint> ranked = ranked();
+        byte[] response = hedgingEnabled && hedgeable && ranked.size() > 1
+                ? sendHedged(payload, ranked)
+                : sendWithFailover(payload, ranked);
+
+        return new ByteArrayInputStream(response);
+    }
+
+    @Override
+    public void close() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Endpoint endpoint : endpoints) {
+            Gauge.builder("chain.rpc.latency", endpoint, Endpoint::ewmaLatency)
+                    .tag("endpoint", endpoint.label).baseUnit("ms")
+                    .description("Exponentially weighted request latency")
+                    .register(registry);
+            Gauge.builder("chain.rpc.latency_p95", endpoint, Endpoint::p95)
+                    .tag("endpoint", endpoint.label).baseUnit("ms")
+                    .register(registry);
+            Gauge.builder("chain.rpc.error_rate", endpoint, Endpoint::errorRate)
+                    .tag("endpoint", endpoint.label)
+                    .register(registry);
+            Gauge.builder("chain.rpc.available", endpoint, e -> e.isAvailable(System.currentTimeMillis()) ? 1 : 0)
+                    .tag("endpoint", endpoint.label)
+                    .register(registry);
+        }
+        FunctionCounter.builder("chain.rpc.hedged", hedgedRequests, AtomicLong::get)
+                .description("Reads re-sent to a second endpoint after passing the p95 threshold")
+                .register(registry);
+        FunctionCounter.builder("chain.rpc.failovers", failovers, AtomicLong::get)
+                .register(registry);
+    }
+
+    // Same sender and nonce always go to the same node; a re-pin only happens when that node is failing
+    private byte[] sendPinned(String payload, List<JsonNode> calls) throws IOException {
+        String key = pinKey(calls);
+        List<Endpoint> ranked = ranked();
+
+        Endpoint pinned = key == null ? null : writePins.get(key);
+        if (pinned == null || !pinned.isAvailable(System.currentTimeMillis())) {
+            pinned = ranked.get(0);
+            if (key != null) writePins.put(key, pinned);
+        }
+
+        try {
+            return execute(pinned, payload);
+        } catch (IOException e) {
+            // Re-broadcasting identical signed bytes is idempotent, so moving to another node is safe
+            Endpoint current = pinned;
+            Endpoint fallback = ranked.stream().filter(endpoint -> endpoint != current).findFirst().orElse(null);
+            if (fallback == null) throw e;
+
+            failovers.incrementAndGet();
+            log.warn("Write to {} failed ({}), re-pinning to {}", pinned.label, e.getMessage(), fallback.label);
+            if (key != null) writePins.put(key, fallback);
+            return execute(fallback, payload);
+        }
+    }
+
+    private byte[] sendHedged(String payload, List<Endpoint> ranked) throws IOException {
+        Endpoint primary = ranked.get(0);
+        long hedgeAfterMs = Math.max(hedgeMinDelayMs, primary.p95());
+
+        Attempt first = sendAsync(primary, payload);
+        try {
+            return first.future.get(hedgeAfterMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException slow) {
+            hedgedRequests.incrementAndGet();
+            Attempt second = sendAsync(ranked.get(1), payload);
+            try {
+                return firstSuccessful(first, second).get();
+            } catch (ExecutionException e) {
+                return sendWithFailover(payload, ranked.subList(Math.min(2, ranked.size()), ranked.size()), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted during hedged RPC call");
+            } finally {
+                first.call.cancel();
+                second.call.cancel();
+            }
+        } catch (ExecutionException e) {
+            failovers.incrementAndGet();
+            List<Endpoint> rest = ranked.subList(1, ranked.size());
+            return rest.size() > 1 ? sendHedged(payload, rest) : sendWithFailover(payload, rest, e.getCause());
+        } catch (InterruptedException e) {
+            first.call.cancel();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during RPC call");
+        }
+    }
+
+    private byte[] sendWithFailover(String payload, List<Endpoint> candidates) throws IOException {
+        return sendWithFailover(payload, candidates, null);
+    }
+
+    private byte[] sendWithFailover(String payload, List<Endpoint> candidates, Throwable previous)
+            throws IOException {
+        IOException last = previous instanceof IOException io ? io
+                : previous != null ? new IOException(previous.getMessage(), previous) : null;
+
+        for (Endpoint endpoint : candidates) {
+            try {
+                return execute(endpoint, payload);
+            } catch (IOException e) {
+                if (last != null) failovers.incrementAndGet();
+                log.debug("RPC call to {} failed: {}", endpoint.label, e.getMessage());
+                last = e;
+            }
+        }
+        throw last != null ? last : new IOException("No RPC endpoint available");
+    }
+
+    private byte[] execute(Endpoint endpoint, String payload) throws IOException {
+        long start = System.nanoTime();
+        try (Response response = client.newCall(request(endpoint, payload)).execute()) {
+            byte[] body = readBody(endpoint, response);
+            endpoint.recordSuccess(elapsedMs(start));
+            return body;
+        } catch (IOException e) {
+            endpoint.recordFailure(cooldownMs, failureThreshold);
+            throw e;
+        }
+    }
+
+    private Attempt sendAsync(Endpoint endpoint, String payload) {
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        Call call = client.newCall(request(endpoint, payload));
+        long start = System.nanoTime();
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call c, Response response) {
+                try (response) {
+                    byte[] body = readBody(endpoint, response);
+                    endpoint.recordSuccess(elapsedMs(start));
+                    future.complete(body);
+                } catch (IOException e) {
+                    onFailure(c, e);
+                }
+            }
+
+            @Override
+            public void onFailure(Call c, IOException e) {
+                // A cancelled hedge loser is not an error, but it was at least this slow
+                if (c.isCanceled()) {
+                    endpoint.recordLatency(elapsedMs(start));
+                } else {
+                    endpoint.recordFailure(cooldownMs, failureThreshold);
+                }
+                future.completeExceptionally(e);
+            }
+        });
+
+        return new Attempt(call, future);
+    }
+
+    private static CompletableFuture<byte[]> firstSuccessful(Attempt... attempts) {
+        CompletableFuture<byte[]> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (Attempt attempt : attempts) {
+            attempt.future.whenComplete((body, error) -> {
+                if (error == null) {
+                    winner.complete(body);
+                } else if (failures.incrementAndGet() == attempts.length) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+        return winner;
+    }
+
+    private byte[] readBody(Endpoint endpoint, Response response) throws IOException {
+        if (!response.isSuccessful()) {
+            throw new IOException("HTTP " + response.code() + " from " + endpoint.label);
+        }
+        ResponseBody body = response.body();
+        if (body == null) {
+            throw new IOException("Empty response from " + endpoint.label);
+        }
+        return body.bytes();
+    }
+
+    private List<Endpoint> ranked() {
+        long now = System.currentTimeMillis();
+        List<Endpoint> ranked = new ArrayList<>(endpoints);
+        ranked.sort(Comparator
+                .comparing((Endpoint e) -> !e.isAvailable(now))
+                .thenComparingDouble(Endpoint::score));
+        return ranked;
+    }
+
+    private String pinKey(List<JsonNode> calls) {
+        try {
+            String raw = calls.get(0).path("params").get(0).asText();
+            RawTransaction decoded = TransactionDecoder.decode(raw);
+            if (decoded instanceof SignedRawTransaction signed) {
+                return signed.getFrom().toLowerCase() + ":" + decoded.getNonce();
+            }
+        } catch (Exception e) {
+            log.debug("Could not derive write pin key: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private static Request request(Endpoint endpoint, String payload) {
+        return new Request.Builder()
+                .url(endpoint.url)
+                .post(RequestBody.create(payload, HttpService.JSON_MEDIA_TYPE))
+                .build();
+    }
+
+    private static String method(JsonNode call) {
+        return call.path("method").asText();
+    }
+
+    private static List<JsonNode> toList(JsonNode array) {
+        List<JsonNode> calls = new ArrayList<>();
+        array.forEach(calls::add);
+        return calls;
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    // Provider URLs often embed API keys in the path, so only the host is logged or tagged
+    private static String host(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : "unknown";
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+
+    private record Attempt(Call call, CompletableFuture<byte[]> future) {
+    }
+
+    static final class Endpoint {
+
+        private static final double ALPHA = 0.2;
+        private static final int WINDOW = 128;
+
+        final String url;
+        final String label;
+
+        private final long[] latencies = new long[WINDOW];
+        private int samples;
+        private int next;
+        private double ewmaLatencyMs;
+        private double errorRate;
+        private int consecutiveFailures;
+        private volatile long unavailableUntil;
+
+        Endpoint(String url, String label) {
+            this.url = url;
+            this.label = label;
+        }
+
+        synchronized void recordSuccess(long latencyMs) {
+            recordLatency(latencyMs);
+            errorRate = (1 - ALPHA) * errorRate;
+            consecutiveFailures = 0;
+        }
+
+        synchronized void recordLatency(long latencyMs) {
+            latencies[next] = latencyMs;
+            next = (next + 1) % WINDOW;
+            samples = Math.min(samples + 1, WINDOW);
+            ewmaLatencyMs = samples == 1 ? latencyMs : ALPHA * latencyMs + (1 - ALPHA) * ewmaLatencyMs;
+        }
+
+        synchronized void recordFailure(long cooldownMs, int failureThreshold) {
+            errorRate = ALPHA + (1 - ALPHA) * errorRate;
+            if (++consecutiveFailures >= failureThreshold) {
+                unavailableUntil = System.currentTimeMillis() + cooldownMs;
+                log.warn("RPC endpoint {} failed {} times in a row, cooling down for {} ms",
+                        label, consecutiveFailures, cooldownMs);
+            }
+        }
+
+        synchronized long p95() {
+            if (samples == 0) return 0;
+            long[] sorted = Arrays.copyOf(latencies, samples);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(samples * 0.95) - 1];
+        }
+
+        synchronized double ewmaLatency() {
+            return ewmaLatencyMs;
+        }
+
+        synchronized double errorRate() {
+            return errorRate;
+        }
+
+        // Unmeasured endpoints score 0 so each one gets tried early
+        synchronized double score() {
+            return ewmaLatencyMs * (1 + 10 * errorRate);
+        }
+
+        boolean isAvailable(long now) {
+            return now >= unavailableUntil;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.jobchain.blockchain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.tx.RawTransactionManager;
+import org.web3j.tx.response.TransactionReceiptProcessor;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link RawTransactionManager} that hands out nonces from a local counter instead of
+ * asking the node before every transaction, so several transactions can be in flight
+ * for the same account at once. The counter is resynced from
+ * {@code eth_getTransactionCount(pending)} whenever the node reports a nonce problem
+ * or a send fails, which also closes any gap left by a rejected transaction. A resync
+ * waits until every nonce already handed out has been answered by the node, so it never
+ * reads a pending count that is missing sends still on the wire.
+ */
+@Slf4j
+public class PipelinedTransactionManager extends RawTransactionManager {
+
+    private static final long UNINITIALISED = -1;
+
+    // Longest a resync waits for in-flight sends; a nonce that was never sent would otherwise block it
+    private static final long DRAIN_TIMEOUT_MS = 30_000;
+
+    private static final List<String> NONCE_ERRORS = List.of(
+            "nonce too low",
+            "nonce too high",
+            "replacement transaction underpriced",
+            "invalid nonce"
+    );
+
+    // The node already has this exact transaction, so the send did what it was meant to
+    private static final List<String> ALREADY_KNOWN = List.of(
+            "already known",
+            "known transaction"
+    );
+
+    private final Web3j web3j;
+    private final AtomicLong resyncCount = new AtomicLong();
+
+    // Guarded by this
+    private long nextNonce = UNINITIALISED;
+    private int inFlight;
+    private boolean resyncNeeded;
+
+    public PipelinedTransactionManager(Web3j web3j, Credentials credentials, long chainId) {
+        super(web3j, credentials, chainId);
+        this.web3j = web3j;
+    }
+
+    public PipelinedTransactionManager(
+            Web3j web3j,
+            Credentials credentials,
+            long chainId,
+            TransactionReceiptProcessor receiptProcessor
+    ) {
+        super(web3j, credentials, chainId, receiptProcessor);
+        this.web3j = web3j;
+    }
+
+    @Override
+    protected synchronized BigInteger getNonce() throws IOException {
+        if (nextNonce == UNINITIALISED) {
+            fetchPendingNonce();
+        } else if (resyncNeeded) {
+            awaitDrained();
+            if (resyncNeeded) fetchPendingNonce();
+        }
+        inFlight++;
+        return BigInteger.valueOf(nextNonce++);
+    }
+
+    @Override
+    public EthSendTransaction signAndSend(RawTransaction rawTransaction) throws IOException {
+        EthSendTransaction response;
+        try {
+            response = super.signAndSend(rawTransaction);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Sending tx with nonce {} failed, resyncing nonce: {}",
+                    rawTransaction.getNonce(), e.getMessage());
+            completed(rawTransaction.getNonce(), true);
+            throw e;
+        }
+
+        if (!response.hasError()) {
+            completed(rawTransaction.getNonce(), false);
+            return response;
+        }
+
+        String message = response.getError().getMessage();
+        if (matches(message, ALREADY_KNOWN)) {
+            log.debug("Tx with nonce {} was already known to the node", rawTransaction.getNonce());
+            completed(rawTransaction.getNonce(), false);
+            return accepted(rawTransaction, response);
+        }
+
+        log.warn("Node rejected tx with nonce {}: {}", rawTransaction.getNonce(), message);
+        // Any rejection burns the locally reserved nonce; resync so the next send fills the gap
+        if (matches(message, NONCE_ERRORS)) {
+            completed(rawTransaction.getNonce(), true);
+        } else {
+            releaseNonce(rawTransaction.getNonce());
+        }
+        return response;
+    }
+
+    // Builds the next transaction on the local nonce counter without sending it,
+    // so the caller can keep the exact fields around for a same-nonce replacement
+    public RawTransaction nextTransaction(
+            BigInteger gasPrice,
+            BigInteger gasLimit,
+            String to,
+            String data,
+            BigInteger value
+    ) throws IOException {
+        return RawTransaction.createTransaction(getNonce(), gasPrice, gasLimit, to, value, data);
+    }
+
+    public RawTransaction nextEIP1559Transaction(
+            long chainId,
+            BigInteger maxPriorityFeePerGas,
+            BigInteger maxFeePerGas,
+            BigInteger gasLimit,
+            String to,
+            String data,
+            BigInteger value
+    ) throws IOException {
+        return RawTransaction.createTransaction(
+                chainId, getNonce(), gasLimit, to, value, data, maxPriorityFeePerGas, maxFeePerGas);
+    }
+
+    // The replaced nonce is already spoken for, so node errors here must not move the counter
+    public EthSendTransaction sendReplacement(RawTransaction replacement) throws IOException {
+        EthSendTransaction response = super.signAndSend(replacement);
+        if (response.hasError() && matches(response.getError().getMessage(), ALREADY_KNOWN)) {
+            return accepted(replacement, response);
+        }
+        return response;
+    }
+
+    // Resyncs now if nothing is in flight, otherwise as soon as the in-flight sends are answered
+    public synchronized void resync() throws IOException {
+        resyncNeeded = true;
+        if (inFlight == 0) {
+            fetchPendingNonce();
+        }
+    }
+
+    public synchronized long getNextNonce() {
+        return nextNonce;
+    }
+
+    public long getResyncCount() {
+        return resyncCount.get();
+    }
+
+    private synchronized void completed(BigInteger nonce, boolean resync) {
+        inFlight = Math.max(0, inFlight - 1);
+        if (resync) {
+            resyncNeeded = true;
+        }
+        if (inFlight == 0) {
+            notifyAll();
+        }
+    }
+
+    // Rolls the counter back when the rejected tx held the most recently issued nonce
+    private synchronized void releaseNonce(BigInteger nonce) {
+        long value = nonce.longValue();
+        boolean latest = nextNonce == value + 1;
+        if (latest) {
+            nextNonce = value;
+        }
+        completed(nonce, !latest);
+    }
+
+    private void awaitDrained() throws IOException {
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MS;
+        try {
+            while (resyncNeeded && inFlight > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    log.warn("{} sends for {} still unanswered, resyncing anyway", inFlight, getFromAddress());
+                    inFlight = 0;
+                    return;
+                }
+                wait(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to resync nonce", e);
+        }
+    }
+
+    // Caller holds the lock
+    private void fetchPendingNonce() throws IOException {
+        BigInteger pending = web3j.ethGetTransactionCount(
+                getFromAddress(),
+                DefaultBlockParameterName.PENDING
+        ).send().getTransactionCount();
+
+        long previous = nextNonce;
+        nextNonce = pending.longValue();
+        resyncNeeded = false;
+        resyncCount.incrementAndGet();
+
+        if (previous != UNINITIALISED && previous != nextNonce) {
+            log.info("Nonce resynced for {}: local={}, pending={}", getFromAddress(), previous, pending);
+        }
+    }
+
+    private EthSendTransaction accepted(RawTransaction transaction, EthSendTransaction response) {
+        EthSendTransaction accepted = new EthSendTransaction();
+        accepted.setId(response.getId());
+        accepted.setJsonrpc(response.getJsonrpc());
+        accepted.setResult(Hash.sha3(sign(transaction)));
+        return accepted;
+    }
+
+    private static boolean matches(String message, List<String> patterns) {
+        if (message == null) return false;
+        String lower = message.toLowerCase();
+        return patterns.stream().anyMatch(lower::contains);
+    }
+}
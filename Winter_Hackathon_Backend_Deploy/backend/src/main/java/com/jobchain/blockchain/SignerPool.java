@@ -0,0 +1,218 @@
+package com.jobchain.blockchain;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Funded admin keys that transactions are spread across. Every signer has its own
+ * nonce counter and balance ledger, so the per-account nonce sequence stops being the
+ * throughput ceiling. A signer is skipped while it is below the minimum balance or
+ * cooling down after repeated rejections.
+ */
+@Slf4j
+public class SignerPool implements MeterBinder {
+
+    public enum Routing {
+        ROUND_ROBIN,
+        VACANCY
+    }
+
+    private final Web3j web3j;
+    private final List<Signer> signers;
+    private final Routing routing;
+    private final BigInteger minBalance;
+    private final int failureThreshold;
+    private final long cooldownMs;
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public SignerPool(
+            Web3j web3j,
+            List<Credentials> credentials,
+            long chainId,
+            BatchingReceiptProcessor receiptProcessor,
+            Routing routing,
+            BigInteger minBalance,
+            int failureThreshold,
+            long cooldownMs
+    ) {
+        if (credentials.isEmpty()) {
+            throw new IllegalArgumentException("At least one signer key is required");
+        }
+        this.web3j = web3j;
+        this.signers = credentials.stream()
+                .map(c -> new Signer(
+                        new PipelinedTransactionManager(web3j, c, chainId, receiptProcessor),
+                        new GasBalanceLedger(web3j, c.getAddress())))
+                .toList();
+        this.routing = routing;
+        this.minBalance = minBalance;
+        this.failureThreshold = failureThreshold;
+        this.cooldownMs = cooldownMs;
+    }
+
+    // Comma-separated keys; a single-key deployment keeps working off the old property
+    public static List<Credentials> parseKeys(String keys, String fallbackKey) {
+        List<Credentials> credentials = Arrays.stream(keys.split(","))
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .distinct()
+                .map(Credentials::create)
+                .toList();
+        return credentials.isEmpty() ? List.of(Credentials.create(fallbackKey)) : credentials;
+    }
+
+    /**
+     * Picks the signer for the next transaction. With {@link Routing#VACANCY} every
+     * transaction of a vacancy starts from the same key, keeping them in nonce order;
+     * otherwise keys take turns. Unhealthy signers and signers that cannot cover
+     * {@code expectedCost} are passed over for the next one in the ring.
+     */
+    public Signer select(Long vacancyId, BigInteger expectedCost) {
+        int size = signers.size();
+        int start = routing == Routing.VACANCY && vacancyId != null
+                ? Math.floorMod(vacancyId.hashCode(), size)
+                : Math.floorMod(cursor.getAndIncrement(), size);
+
+        long now = System.currentTimeMillis();
+        Signer fallback = null;
+        for (int i = 0; i < size; i++) {
+            Signer signer = signers.get((start + i) % size);
+            if (!signer.isHealthy(now)) continue;
+            if (signer.ledger.canAfford(expectedCost)) return signer;
+            if (fallback == null) fallback = signer;
+        }
+
+        // Nobody can afford it; let the first healthy ledger raise the usual balance error
+        if (fallback != null) return fallback;
+        throw new ChainUnavailableException("No healthy signer in the pool");
+    }
+
+    public Signer primary() {
+        return signers.get(0);
+    }
+
+    public List<Signer> getSigners() {
+        return signers;
+    }
+
+    public boolean canAfford(BigInteger cost) {
+        long now = System.currentTimeMillis();
+        return signers.stream()
+                .filter(signer -> signer.isHealthy(now))
+                .map(signer -> signer.ledger.getAvailable())
+                .reduce(BigInteger.ZERO, BigInteger::add)
+                .compareTo(cost) >= 0;
+    }
+
+    @Scheduled(fixedDelayString = "${blockchain.ledger.refresh-interval-ms:2000}")
+    public void refreshBalances() {
+        signers.forEach(signer -> signer.ledger.refresh());
+    }
+
+    // A key used outside this process leaves our counter behind the node's pending nonce
+    @Scheduled(fixedDelayString = "${blockchain.signers.health-check-ms:30000}")
+    public void checkHealth() {
+        for (Signer signer : signers) {
+            try {
+                long pending = web3j.ethGetTransactionCount(signer.getAddress(), DefaultBlockParameterName.PENDING)
+                        .send()
+                        .getTransactionCount()
+                        .longValue();
+                long next = signer.transactionManager.getNextNonce();
+                if (next >= 0 && pending > next) {
+                    log.warn("Signer {} is at nonce {} on the node but {} locally, resyncing",
+                            signer.getAddress(), pending, next);
+                    signer.transactionManager.resync();
+                }
+
+                boolean funded = signer.ledger.getAvailable().compareTo(minBalance) >= 0;
+                if (funded != signer.funded) {
+                    signer.funded = funded;
+                    if (funded) {
+                        log.info("Signer {} is funded again", signer.getAddress());
+                    } else {
+                        log.warn("Signer {} is below the minimum balance, taking it out of rotation",
+                                signer.getAddress());
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Health check for signer {} failed: {}", signer.getAddress(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Signer signer : signers) {
+            signer.ledger.bindTo(registry);
+            Gauge.builder("chain.signer.healthy", signer, s -> s.isHealthy(System.currentTimeMillis()) ? 1 : 0)
+                    .tag("signer", signer.getAddress())
+                    .register(registry);
+            Gauge.builder("chain.signer.next_nonce", signer.transactionManager,
+                            PipelinedTransactionManager::getNextNonce)
+                    .tag("signer", signer.getAddress())
+                    .register(registry);
+        }
+    }
+
+    public final class Signer {
+
+        private final PipelinedTransactionManager transactionManager;
+        private final GasBalanceLedger ledger;
+
+        private volatile boolean funded = true;
+        private int consecutiveFailures;
+        private long coolingUntil;
+
+        private Signer(PipelinedTransactionManager transactionManager, GasBalanceLedger ledger) {
+            this.transactionManager = transactionManager;
+            this.ledger = ledger;
+        }
+
+        public String getAddress() {
+            return transactionManager.getFromAddress();
+        }
+
+        public PipelinedTransactionManager getTransactionManager() {
+            return transactionManager;
+        }
+
+        public GasBalanceLedger getLedger() {
+            return ledger;
+        }
+
+        public synchronized boolean isHealthy(long now) {
+            return funded && now >= coolingUntil;
+        }
+
+        public synchronized int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public synchronized void onSuccess() {
+            consecutiveFailures = 0;
+        }
+
+        // Only rejections that are about this key count here; an unreachable node is the breaker's job
+        public synchronized void onRejected(String reason) {
+            if (++consecutiveFailures >= failureThreshold) {
+                coolingUntil = System.currentTimeMillis() + cooldownMs;
+                consecutiveFailures = 0;
+                log.warn("Signer {} rejected {} times in a row ({}), cooling down for {} ms",
+                        getAddress(), failureThreshold, reason, cooldownMs);
+            }
+        }
+    }
+}
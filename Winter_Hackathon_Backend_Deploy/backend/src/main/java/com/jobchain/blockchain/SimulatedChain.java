@@ -0,0 +1,398 @@
+package com.jobchain.blockchain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SignedRawTransaction;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.crypto.transaction.type.Transaction1559;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Single-node chain state behind {@link SimulatedChainService}: mempool, blocks,
+ * receipts, logs, nonces and balances. Blocks are produced by {@link #mineBlock()}
+ * on the service's timer. All access is serialised on this instance.
+ */
+@Slf4j
+class SimulatedChain {
+
+    static final long BLOCK_GAS_LIMIT = 30_000_000;
+
+    // Future nonces held per account until the gap closes; geth's txpool.accountqueue default
+    static final int MAX_QUEUED_PER_ACCOUNT = 64;
+
+    static class RpcException extends RuntimeException {
+        final int code;
+
+        RpcException(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+
+    record Block(long number, String hash, String parentHash, long timestamp, BigInteger baseFee,
+                 long gasUsed, List<MinedTransaction> transactions) {
+    }
+
+    record PendingTransaction(String hash, String from, long nonce, String to, String input, BigInteger gasLimit,
+                              BigInteger maxFeePerGas, BigInteger maxPriorityFeePerGas, boolean eip1559) {
+    }
+
+    record MinedTransaction(PendingTransaction tx, boolean success, long gasUsed, BigInteger effectiveGasPrice,
+                            List<SimulatedJobChainContract.EmittedLog> logs, long blockNumber, String blockHash,
+                            int index, long cumulativeGasUsed) {
+
+        MinedTransaction moveTo(long number, String hash, int newIndex, long cumulative) {
+            return new MinedTransaction(tx, success, gasUsed, effectiveGasPrice, logs, number, hash, newIndex, cumulative);
+        }
+    }
+
+    record LogEntry(MinedTransaction transaction, SimulatedJobChainContract.EmittedLog log, int logIndex) {
+    }
+
+    private final long chainId;
+    private final String contractAddress;
+    private final SimulatedJobChainContract contract;
+    private final int maxTransactionsPerBlock;
+    private final double revertRate;
+
+    private final List<Block> blocks = new ArrayList<>();
+    private final List<PendingTransaction> mempool = new ArrayList<>();
+    private final Deque<MinedTransaction> reincluded = new ArrayDeque<>();
+    private final Map<String, TreeMap<Long, PendingTransaction>> queued = new HashMap<>();
+    private final Map<String, PendingTransaction> pendingByHash = new HashMap<>();
+    private final Map<String, MinedTransaction> minedByHash = new HashMap<>();
+    private final Map<String, Long> confirmedNonces = new HashMap<>();
+    private final Map<String, Long> pendingNonces = new HashMap<>();
+    private final Map<String, BigInteger> balances = new HashMap<>();
+
+    SimulatedChain(
+            long chainId,
+            String contractAddress,
+            List<String> admins,
+            BigInteger adminBalance,
+            BigInteger initialBaseFee,
+            int maxTransactionsPerBlock,
+            double revertRate
+    ) {
+        this.chainId = chainId;
+        this.contractAddress = contractAddress.toLowerCase();
+        this.contract = new SimulatedJobChainContract(admins);
+        this.maxTransactionsPerBlock = maxTransactionsPerBlock;
+        this.revertRate = revertRate;
+
+        admins.forEach(admin -> balances.put(admin.toLowerCase(), adminBalance));
+        blocks.add(new Block(0, blockHash(0, "0x0"), "0x" + "0".repeat(64),
+                System.currentTimeMillis() / 1000, initialBaseFee, 0, List.of()));
+    }
+
+    long chainId() {
+        return chainId;
+    }
+
+    synchronized long blockNumber() {
+        return head().number();
+    }
+
+    synchronized Optional<Block> block(long number) {
+        return number >= 0 && number < blocks.size() ? Optional.of(blocks.get((int) number)) : Optional.empty();
+    }
+
+    synchronized BigInteger balance(String address) {
+        return balances.getOrDefault(address.toLowerCase(), BigInteger.ZERO);
+    }
+
+    synchronized long nonce(String address, boolean includePending) {
+        String key = address.toLowerCase();
+        return includePending
+                ? pendingNonces.getOrDefault(key, confirmedNonces.getOrDefault(key, 0L))
+                : confirmedNonces.getOrDefault(key, 0L);
+    }
+
+    synchronized BigInteger nextBaseFee() {
+        Block head = head();
+        long target = BLOCK_GAS_LIMIT / 2;
+        BigInteger delta = head.baseFee()
+                .multiply(BigInteger.valueOf(head.gasUsed() - target))
+                .divide(BigInteger.valueOf(target))
+                .divide(BigInteger.valueOf(8));
+        return head.baseFee().add(delta).max(BigInteger.valueOf(7));
+    }
+
+    synchronized Optional<MinedTransaction> receipt(String txHash) {
+        return Optional.ofNullable(minedByHash.get(txHash.toLowerCase()));
+    }
+
+    synchronized Optional<PendingTransaction> pendingTransaction(String txHash) {
+        return Optional.ofNullable(pendingByHash.get(txHash.toLowerCase()));
+    }
+
+    synchronized int mempoolSize() {
+        return mempool.size() + reincluded.size();
+    }
+
+    long estimateGas(String to, String input) {
+        return contractAddress.equalsIgnoreCase(to) ? contract.gasFor(input) : 21_000;
+    }
+
+    synchronized String call(String from, String to, String input) {
+        if (!contractAddress.equalsIgnoreCase(to)) {
+            return "0x";
+        }
+        try {
+            return contract.call(from == null ? "0x" + "0".repeat(40) : from, input, head().timestamp());
+        } catch (SimulatedJobChainContract.Revert e) {
+            throw new RpcException(3, "execution reverted: " + e.getMessage());
+        }
+    }
+
+    synchronized String sendRawTransaction(String rawTransaction) {
+        RawTransaction decoded = TransactionDecoder.decode(rawTransaction);
+        if (!(decoded instanceof SignedRawTransaction signed)) {
+            throw new RpcException(-32000, "transaction is not signed");
+        }
+
+        String from;
+        try {
+            from = signed.getFrom().toLowerCase();
+        } catch (Exception e) {
+            throw new RpcException(-32000, "invalid sender: " + e.getMessage());
+        }
+
+        String hash = Hash.sha3(rawTransaction).toLowerCase();
+        if (pendingByHash.containsKey(hash) || minedByHash.containsKey(hash)) {
+            throw new RpcException(-32000, "already known");
+        }
+
+        boolean eip1559 = decoded.getTransaction() instanceof Transaction1559;
+        BigInteger maxFee = eip1559
+                ? ((Transaction1559) decoded.getTransaction()).getMaxFeePerGas()
+                : decoded.getGasPrice();
+        BigInteger maxPriority = eip1559
+                ? ((Transaction1559) decoded.getTransaction()).getMaxPriorityFeePerGas()
+                : decoded.getGasPrice();
+
+        PendingTransaction tx = new PendingTransaction(hash, from, decoded.getNonce().longValue(),
+                decoded.getTo(), decoded.getData() == null ? "0x" : prefixed(decoded.getData()),
+                decoded.getGasLimit(), maxFee, maxPriority, eip1559);
+
+        if (balance(from).compareTo(tx.gasLimit().multiply(tx.maxFeePerGas())) < 0) {
+            throw new RpcException(-32000, "insufficient funds for gas * price + value");
+        }
+
+        long expected = nonce(from, true);
+        if (tx.nonce() > expected) {
+            enqueueFuture(tx, expected);
+            return hash;
+        }
+        if (tx.nonce() < expected) {
+            replace(tx);
+            return hash;
+        }
+
+        mempool.add(tx);
+        pendingByHash.put(hash, tx);
+        promoteQueued(from, expected + 1);
+        return hash;
+    }
+
+    synchronized Block mineBlock() {
+        Block parent = head();
+        long number = parent.number() + 1;
+        long timestamp = Math.max(parent.timestamp() + 1, System.currentTimeMillis() / 1000);
+        BigInteger baseFee = nextBaseFee();
+        String hash = blockHash(number, parent.hash());
+
+        List<MinedTransaction> included = new ArrayList<>();
+        long gasUsed = 0;
+
+        // Transactions from orphaned blocks keep their original execution result
+        while (!reincluded.isEmpty() && included.size() < maxTransactionsPerBlock) {
+            MinedTransaction moved = reincluded.poll();
+            gasUsed += moved.gasUsed();
+            moved = moved.moveTo(number, hash, included.size(), gasUsed);
+            included.add(moved);
+            minedByHash.put(moved.tx().hash(), moved);
+        }
+
+        while (!mempool.isEmpty() && included.size() < maxTransactionsPerBlock) {
+            PendingTransaction tx = mempool.get(0);
+            // An underpriced head blocks the queue, like a stuck nonce on a real node
+            if (tx.maxFeePerGas().compareTo(baseFee) < 0
+                    || gasUsed + tx.gasLimit().longValue() > BLOCK_GAS_LIMIT) {
+                break;
+            }
+            mempool.remove(0);
+            pendingByHash.remove(tx.hash());
+
+            MinedTransaction mined = execute(tx, number, hash, timestamp, baseFee, included.size(), gasUsed);
+            gasUsed = mined.cumulativeGasUsed();
+            included.add(mined);
+            minedByHash.put(tx.hash(), mined);
+        }
+
+        Block block = new Block(number, hash, parent.hash(), timestamp, baseFee, gasUsed, List.copyOf(included));
+        blocks.add(block);
+        return block;
+    }
+
+    synchronized void reorg(int depth) {
+        int dropped = Math.min(depth, blocks.size() - 1);
+        for (int i = 0; i < dropped; i++) {
+            Block orphan = blocks.remove(blocks.size() - 1);
+            for (MinedTransaction mined : orphan.transactions().reversed()) {
+                minedByHash.remove(mined.tx().hash());
+                reincluded.addFirst(mined);
+            }
+        }
+        log.warn("Simulated reorg dropped {} blocks, head is now {}", dropped, head().number());
+    }
+
+    synchronized List<LogEntry> logs(long fromBlock, long toBlock, Set<String> addresses, List<Set<String>> topics) {
+        List<LogEntry> matches = new ArrayList<>();
+        for (long n = Math.max(0, fromBlock); n <= Math.min(toBlock, head().number()); n++) {
+            Block block = blocks.get((int) n);
+            int logIndex = 0;
+            for (MinedTransaction mined : block.transactions()) {
+                for (SimulatedJobChainContract.EmittedLog emitted : mined.logs()) {
+                    if ((addresses.isEmpty() || addresses.contains(contractAddress))
+                            && topicsMatch(emitted.topics(), topics)) {
+                        matches.add(new LogEntry(mined, emitted, logIndex));
+                    }
+                    logIndex++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    // Block-wide index of the transaction's first log, as reported in receipts
+    synchronized int firstLogIndex(MinedTransaction mined) {
+        return block(mined.blockNumber())
+                .map(block -> block.transactions().stream()
+                        .limit(mined.index())
+                        .mapToInt(tx -> tx.logs().size())
+                        .sum())
+                .orElse(0);
+    }
+
+    String contractAddress() {
+        return contractAddress;
+    }
+
+    // Pipelined sends can reach the node out of order; a real node parks them instead of rejecting
+    private void enqueueFuture(PendingTransaction tx, long expected) {
+        TreeMap<Long, PendingTransaction> account = queued.computeIfAbsent(tx.from(), from -> new TreeMap<>());
+        PendingTransaction current = account.get(tx.nonce());
+        if (current != null) {
+            checkReplacementFee(current, tx);
+            pendingByHash.remove(current.hash());
+        } else if (tx.nonce() >= expected + MAX_QUEUED_PER_ACCOUNT || account.size() >= MAX_QUEUED_PER_ACCOUNT) {
+            throw new RpcException(-32000, "nonce too high: expected " + expected + ", got " + tx.nonce());
+        }
+        account.put(tx.nonce(), tx);
+        pendingByHash.put(tx.hash(), tx);
+    }
+
+    // Moves queued transactions into the mempool for as long as their nonces follow on
+    private void promoteQueued(String from, long next) {
+        TreeMap<Long, PendingTransaction> account = queued.get(from);
+        while (account != null && !account.isEmpty() && account.firstKey() == next) {
+            mempool.add(account.pollFirstEntry().getValue());
+            next++;
+        }
+        if (account != null && account.isEmpty()) {
+            queued.remove(from);
+        }
+        pendingNonces.put(from, next);
+    }
+
+    private static void checkReplacementFee(PendingTransaction current, PendingTransaction replacement) {
+        BigInteger minFee = current.maxFeePerGas().multiply(BigInteger.valueOf(110)).divide(BigInteger.valueOf(100));
+        BigInteger minTip = current.maxPriorityFeePerGas().multiply(BigInteger.valueOf(110)).divide(BigInteger.valueOf(100));
+        if (replacement.maxFeePerGas().compareTo(minFee) < 0
+                || replacement.maxPriorityFeePerGas().compareTo(minTip) < 0) {
+            throw new RpcException(-32000, "replacement transaction underpriced");
+        }
+    }
+
+    private void replace(PendingTransaction replacement) {
+        for (int i = 0; i < mempool.size(); i++) {
+            PendingTransaction current = mempool.get(i);
+            if (current.from().equals(replacement.from()) && current.nonce() == replacement.nonce()) {
+                checkReplacementFee(current, replacement);
+                mempool.set(i, replacement);
+                pendingByHash.remove(current.hash());
+                pendingByHash.put(replacement.hash(), replacement);
+                return;
+            }
+        }
+        throw new RpcException(-32000, "nonce too low: next nonce " + nonce(replacement.from(), true)
+                + ", tx nonce " + replacement.nonce());
+    }
+
+    private MinedTransaction execute(PendingTransaction tx, long number, String hash, long timestamp,
+                                     BigInteger baseFee, int index, long cumulativeBefore) {
+        BigInteger effectiveGasPrice = tx.maxFeePerGas().min(baseFee.add(tx.maxPriorityFeePerGas()));
+        long required = estimateGas(tx.to(), tx.input());
+        long gasUsed = Math.min(required, tx.gasLimit().longValue());
+
+        boolean success;
+        List<SimulatedJobChainContract.EmittedLog> logs = List.of();
+        if (required > tx.gasLimit().longValue()) {
+            success = false;
+        } else if (ThreadLocalRandom.current().nextDouble() < revertRate) {
+            success = false;
+        } else if (!contractAddress.equalsIgnoreCase(tx.to())) {
+            success = true;
+        } else {
+            try {
+                logs = contract.execute(tx.from(), tx.input(), timestamp, false);
+                success = true;
+            } catch (SimulatedJobChainContract.Revert | IllegalArgumentException | ClassCastException e) {
+                success = false;
+            }
+        }
+
+        balances.merge(tx.from(), effectiveGasPrice.multiply(BigInteger.valueOf(gasUsed)).negate(), BigInteger::add);
+        confirmedNonces.put(tx.from(), tx.nonce() + 1);
+
+        return new MinedTransaction(tx, success, gasUsed, effectiveGasPrice, logs, number, hash, index,
+                cumulativeBefore + gasUsed);
+    }
+
+    private boolean topicsMatch(List<String> logTopics, List<Set<String>> filter) {
+        for (int i = 0; i < filter.size(); i++) {
+            Set<String> allowed = filter.get(i);
+            if (allowed.isEmpty()) continue;
+            if (i >= logTopics.size() || !allowed.contains(logTopics.get(i).toLowerCase())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Block head() {
+        return blocks.get(blocks.size() - 1);
+    }
+
+    private static String blockHash(long number, String parentHash) {
+        return Hash.sha3String(number + ":" + parentHash + ":" + UUID.randomUUID());
+    }
+
+    private static String prefixed(String hex) {
+        return hex.startsWith("0x") ? hex : "0x" + hex;
+    }
+}
@@ -0,0 +1,431 @@
+package com.jobchain.blockchain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.protocol.Service;
+import org.web3j.utils.Numeric;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process JSON-RPC node for load tests and offline runs. It plugs in underneath
+ * {@code Web3j}, so transaction signing, nonce pipelining, receipt polling, fee
+ * estimation and event indexing all exercise their real code paths.
+ * Latency, RPC failures, reverts and reorgs can be injected through the builder.
+ */
+@Slf4j
+public class SimulatedChainService extends Service implements MeterBinder {
+
+    private static final BigInteger SUGGESTED_TIP = BigInteger.valueOf(1_500_000_000L);
+    private static final String ZERO_HASH = "0x" + "0".repeat(64);
+    private static final String EMPTY_BLOOM = "0x" + "0".repeat(512);
+    private static final String ZERO_ADDRESS = "0x" + "0".repeat(40);
+
+    private final SimulatedChain chain;
+    private final long latencyMinMs;
+    private final double latencyMeanMs;
+    private final double failureRate;
+    private final double reorgRate;
+    private final int reorgDepth;
+    private final ScheduledExecutorService miner;
+
+    @Builder
+    public SimulatedChainService(
+            long chainId,
+            String contractAddress,
+            List<String> admins,
+            BigInteger adminBalance,
+            BigInteger initialBaseFee,
+            int maxTransactionsPerBlock,
+            long blockTimeMs,
+            long latencyMinMs,
+            double latencyMeanMs,
+            double failureRate,
+            double revertRate,
+            double reorgRate,
+            int reorgDepth
+    ) {
+        super(false);
+        this.chain = new SimulatedChain(chainId, contractAddress, admins, adminBalance, initialBaseFee,
+                maxTransactionsPerBlock, revertRate);
+        this.latencyMinMs = latencyMinMs;
+        this.latencyMeanMs = latencyMeanMs;
+        this.failureRate = failureRate;
+        this.reorgRate = reorgRate;
+        this.reorgDepth = reorgDepth;
+
+        this.miner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sim-chain-miner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        miner.scheduleAtFixedRate(this::produceBlock, blockTimeMs, blockTimeMs, TimeUnit.MILLISECONDS);
+
+        log.info("Simulated chain started: chainId={}, contract={}, blockTime={}ms",
+                chainId, contractAddress, blockTimeMs);
+    }
+
+    public long getBlockNumber() {
+        return chain.blockNumber();
+    }
+
+    public int getMempoolSize() {
+        return chain.mempoolSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("chain.sim.block_number", this, SimulatedChainService::getBlockNumber)
+                .description("Head of the simulated chain")
+                .register(registry);
+        Gauge.builder("chain.sim.mempool_size", this, SimulatedChainService::getMempoolSize)
+                .description("Transactions waiting to be mined on the simulated chain")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        miner.shutdownNow();
+    }
+
+    @Override
+    protected InputStream performIO(String payload) throws IOException {
+        simulateLatency();
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IOException("Simulated RPC failure");
+        }
+
+        JsonNode request = objectMapper.readTree(payload);
+        JsonNode response;
+        if (request.isArray()) {
+            ArrayNode responses = objectMapper.createArrayNode();
+            request.forEach(single -> responses.add(handle(single)));
+            response = responses;
+        } else {
+            response = handle(request);
+        }
+
+        return new ByteArrayInputStream(objectMapper.writeValueAsBytes(response));
+    }
+
+    private void produceBlock() {
+        try {
+            SimulatedChain.Block block = chain.mineBlock();
+            if (!block.transactions().isEmpty()) {
+                log.debug("Simulated block {} mined with {} transactions",
+                        block.number(), block.transactions().size());
+            }
+            if (block.number() > reorgDepth && ThreadLocalRandom.current().nextDouble() < reorgRate) {
+                chain.reorg(reorgDepth);
+            }
+        } catch (Exception e) {
+            log.error("Simulated block production failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private ObjectNode handle(JsonNode request) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+
+        try {
+            response.set("result", dispatch(request.path("method").asText(), request.path("params")));
+        } catch (SimulatedChain.RpcException e) {
+            response.set("error", error(e.code, e.getMessage()));
+        } catch (Exception e) {
+            response.set("error", error(-32603, String.valueOf(e.getMessage())));
+        }
+        return response;
+    }
+
+    private JsonNode dispatch(String method, JsonNode params) {
+        return switch (method) {
+            case "eth_chainId" -> quantity(chain.chainId());
+            case "net_version" -> text(String.valueOf(chain.chainId()));
+            case "web3_clientVersion" -> text("JobChain-Simulator");
+            case "eth_blockNumber" -> quantity(chain.blockNumber());
+            case "eth_gasPrice" -> quantity(chain.nextBaseFee().add(SUGGESTED_TIP));
+            case "eth_maxPriorityFeePerGas" -> quantity(SUGGESTED_TIP);
+            case "eth_feeHistory" -> feeHistory(params);
+            case "eth_getBalance" -> quantity(chain.balance(params.get(0).asText()));
+            case "eth_getTransactionCount" -> quantity(chain.nonce(
+                    params.get(0).asText(),
+                    "pending".equals(params.path(1).asText())));
+            case "eth_estimateGas" -> quantity(chain.estimateGas(
+                    params.get(0).path("to").asText(null),
+                    callData(params.get(0))));
+            case "eth_call" -> text(chain.call(
+                    params.get(0).path("from").asText(null),
+                    params.get(0).path("to").asText(null),
+                    callData(params.get(0))));
+            case "eth_sendRawTransaction" -> text(chain.sendRawTransaction(params.get(0).asText()));
+            case "eth_getTransactionReceipt" -> chain.receipt(params.get(0).asText())
+                    .<JsonNode>map(this::receipt)
+                    .orElse(objectMapper.nullNode());
+            case "eth_getTransactionByHash" -> transactionByHash(params.get(0).asText());
+            case "eth_getBlockByNumber" -> blockByNumber(params.get(0), params.path(1).asBoolean(false));
+            case "eth_getLogs" -> logs(params.get(0));
+            default -> throw new SimulatedChain.RpcException(-32601, "Method " + method + " not supported");
+        };
+    }
+
+    private JsonNode feeHistory(JsonNode params) {
+        synchronized (chain) {
+            long count = quantityOf(params.get(0));
+            long newest = blockTag(params.get(1));
+            long oldest = Math.max(0, newest - count + 1);
+
+            ArrayNode baseFees = objectMapper.createArrayNode();
+            ArrayNode gasUsedRatio = objectMapper.createArrayNode();
+            ArrayNode rewards = objectMapper.createArrayNode();
+
+            for (long n = oldest; n <= newest; n++) {
+                SimulatedChain.Block block = chain.block(n).orElseThrow();
+                baseFees.add(Numeric.encodeQuantity(block.baseFee()));
+                gasUsedRatio.add((double) block.gasUsed() / SimulatedChain.BLOCK_GAS_LIMIT);
+
+                List<BigInteger> tips = new ArrayList<>();
+                block.transactions().forEach(mined ->
+                        tips.add(mined.effectiveGasPrice().subtract(block.baseFee()).max(BigInteger.ZERO)));
+                tips.sort(BigInteger::compareTo);
+
+                ArrayNode blockRewards = objectMapper.createArrayNode();
+                for (JsonNode percentile : params.path(2)) {
+                    BigInteger tip = tips.isEmpty()
+                            ? BigInteger.ZERO
+                            : tips.get(Math.min(tips.size() - 1, (int) (percentile.asDouble() / 100 * tips.size())));
+                    blockRewards.add(Numeric.encodeQuantity(tip));
+                }
+                rewards.add(blockRewards);
+            }
+
+            baseFees.add(Numeric.encodeQuantity(newest == chain.blockNumber()
+                    ? chain.nextBaseFee()
+                    : chain.block(newest + 1).orElseThrow().baseFee()));
+
+            ObjectNode history = objectMapper.createObjectNode();
+            history.put("oldestBlock", Numeric.encodeQuantity(BigInteger.valueOf(oldest)));
+            history.set("baseFeePerGas", baseFees);
+            history.set("gasUsedRatio", gasUsedRatio);
+            history.set("reward", rewards);
+            return history;
+        }
+    }
+
+    private JsonNode blockByNumber(JsonNode tag, boolean fullTransactions) {
+        synchronized (chain) {
+            return chain.block(blockTag(tag))
+                    .<JsonNode>map(block -> {
+                        ObjectNode node = objectMapper.createObjectNode();
+                        node.put("number", Numeric.encodeQuantity(BigInteger.valueOf(block.number())));
+                        node.put("hash", block.hash());
+                        node.put("parentHash", block.parentHash());
+                        node.put("nonce", "0x0000000000000000");
+                        node.put("sha3Uncles", ZERO_HASH);
+                        node.put("logsBloom", EMPTY_BLOOM);
+                        node.put("transactionsRoot", ZERO_HASH);
+                        node.put("stateRoot", ZERO_HASH);
+                        node.put("receiptsRoot", ZERO_HASH);
+                        node.put("miner", ZERO_ADDRESS);
+                        node.put("difficulty", "0x0");
+                        node.put("totalDifficulty", "0x0");
+                        node.put("extraData", "0x");
+                        node.put("size", "0x0");
+                        node.put("gasLimit", Numeric.encodeQuantity(BigInteger.valueOf(SimulatedChain.BLOCK_GAS_LIMIT)));
+                        node.put("gasUsed", Numeric.encodeQuantity(BigInteger.valueOf(block.gasUsed())));
+                        node.put("timestamp", Numeric.encodeQuantity(BigInteger.valueOf(block.timestamp())));
+                        node.put("baseFeePerGas", Numeric.encodeQuantity(block.baseFee()));
+
+                        ArrayNode transactions = node.putArray("transactions");
+                        for (SimulatedChain.MinedTransaction mined : block.transactions()) {
+                            if (fullTransactions) {
+                                transactions.add(transaction(mined.tx(), mined));
+                            } else {
+                                transactions.add(mined.tx().hash());
+                            }
+                        }
+                        node.putArray("uncles");
+                        return node;
+                    })
+                    .orElse(objectMapper.nullNode());
+        }
+    }
+
+    private JsonNode transactionByHash(String hash) {
+        synchronized (chain) {
+            return chain.receipt(hash)
+                    .<JsonNode>map(mined -> transaction(mined.tx(), mined))
+                    .or(() -> chain.pendingTransaction(hash).map(pending -> transaction(pending, null)))
+                    .orElse(objectMapper.nullNode());
+        }
+    }
+
+    private ObjectNode transaction(SimulatedChain.PendingTransaction tx, SimulatedChain.MinedTransaction mined) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("hash", tx.hash());
+        node.put("nonce", Numeric.encodeQuantity(BigInteger.valueOf(tx.nonce())));
+        node.put("from", tx.from());
+        node.put("to", tx.to());
+        node.put("value", "0x0");
+        node.put("gas", Numeric.encodeQuantity(tx.gasLimit()));
+        node.put("gasPrice", Numeric.encodeQuantity(mined != null ? mined.effectiveGasPrice() : tx.maxFeePerGas()));
+        if (tx.eip1559()) {
+            node.put("maxFeePerGas", Numeric.encodeQuantity(tx.maxFeePerGas()));
+            node.put("maxPriorityFeePerGas", Numeric.encodeQuantity(tx.maxPriorityFeePerGas()));
+        }
+        node.put("input", tx.input());
+        node.put("type", tx.eip1559() ? "0x2" : "0x0");
+        node.put("chainId", Numeric.encodeQuantity(BigInteger.valueOf(chain.chainId())));
+        node.put("v", "0x0");
+        node.put("r", "0x0");
+        node.put("s", "0x0");
+        if (mined != null) {
+            node.put("blockHash", mined.blockHash());
+            node.put("blockNumber", Numeric.encodeQuantity(BigInteger.valueOf(mined.blockNumber())));
+            node.put("transactionIndex", Numeric.encodeQuantity(BigInteger.valueOf(mined.index())));
+        } else {
+            node.putNull("blockHash");
+            node.putNull("blockNumber");
+            node.putNull("transactionIndex");
+        }
+        return node;
+    }
+
+    private ObjectNode receipt(SimulatedChain.MinedTransaction mined) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("transactionHash", mined.tx().hash());
+        node.put("transactionIndex", Numeric.encodeQuantity(BigInteger.valueOf(mined.index())));
+        node.put("blockHash", mined.blockHash());
+        node.put("blockNumber", Numeric.encodeQuantity(BigInteger.valueOf(mined.blockNumber())));
+        node.put("from", mined.tx().from());
+        node.put("to", mined.tx().to());
+        node.put("cumulativeGasUsed", Numeric.encodeQuantity(BigInteger.valueOf(mined.cumulativeGasUsed())));
+        node.put("gasUsed", Numeric.encodeQuantity(BigInteger.valueOf(mined.gasUsed())));
+        node.put("effectiveGasPrice", Numeric.encodeQuantity(mined.effectiveGasPrice()));
+        node.putNull("contractAddress");
+        node.put("logsBloom", EMPTY_BLOOM);
+        node.put("status", mined.success() ? "0x1" : "0x0");
+        node.put("type", mined.tx().eip1559() ? "0x2" : "0x0");
+
+        ArrayNode logs = node.putArray("logs");
+        int logIndex = chain.firstLogIndex(mined);
+        for (SimulatedJobChainContract.EmittedLog emitted : mined.logs()) {
+            logs.add(log(mined, emitted, logIndex++));
+        }
+        return node;
+    }
+
+    private JsonNode logs(JsonNode filter) {
+        synchronized (chain) {
+            Set<String> addresses = new HashSet<>();
+            filter.path("address").forEach(address -> addresses.add(address.asText().toLowerCase()));
+            if (filter.path("address").isTextual()) {
+                addresses.add(filter.get("address").asText().toLowerCase());
+            }
+
+            List<Set<String>> topics = new ArrayList<>();
+            for (JsonNode position : filter.path("topics")) {
+                Set<String> allowed = new HashSet<>();
+                if (position.isTextual()) {
+                    allowed.add(position.asText().toLowerCase());
+                } else {
+                    position.forEach(topic -> allowed.add(topic.asText().toLowerCase()));
+                }
+                topics.add(allowed);
+            }
+
+            long from = filter.has("fromBlock") ? blockTag(filter.get("fromBlock")) : chain.blockNumber();
+            long to = filter.has("toBlock") ? blockTag(filter.get("toBlock")) : chain.blockNumber();
+
+            ArrayNode result = objectMapper.createArrayNode();
+            for (SimulatedChain.LogEntry entry : chain.logs(from, to, addresses, topics)) {
+                result.add(log(entry.transaction(), entry.log(), entry.logIndex()));
+            }
+            return result;
+        }
+    }
+
+    private ObjectNode log(SimulatedChain.MinedTransaction mined, SimulatedJobChainContract.EmittedLog emitted, int logIndex) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("removed", false);
+        node.put("logIndex", Numeric.encodeQuantity(BigInteger.valueOf(logIndex)));
+        node.put("transactionIndex", Numeric.encodeQuantity(BigInteger.valueOf(mined.index())));
+        node.put("transactionHash", mined.tx().hash());
+        node.put("blockHash", mined.blockHash());
+        node.put("blockNumber", Numeric.encodeQuantity(BigInteger.valueOf(mined.blockNumber())));
+        node.put("address", chain.contractAddress());
+        node.put("data", emitted.data());
+        ArrayNode topics = node.putArray("topics");
+        emitted.topics().forEach(topics::add);
+        return node;
+    }
+
+    private long blockTag(JsonNode tag) {
+        String value = tag == null || tag.isNull() ? "latest" : tag.asText();
+        return switch (value) {
+            case "latest", "pending", "safe", "finalized" -> chain.blockNumber();
+            case "earliest" -> 0;
+            default -> Numeric.decodeQuantity(value).longValue();
+        };
+    }
+
+    private void simulateLatency() throws InterruptedIOException {
+        long delay = latencyMinMs
+                + (long) (-latencyMeanMs * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+        if (delay <= 0) return;
+
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during simulated RPC latency");
+        }
+    }
+
+    private static String callData(JsonNode transaction) {
+        return transaction.hasNonNull("data")
+                ? transaction.get("data").asText()
+                : transaction.path("input").asText("0x");
+    }
+
+    private static long quantityOf(JsonNode node) {
+        return node.isNumber() ? node.asLong() : Numeric.decodeQuantity(node.asText()).longValue();
+    }
+
+    private JsonNode quantity(long value) {
+        return quantity(BigInteger.valueOf(value));
+    }
+
+    private JsonNode quantity(BigInteger value) {
+        return text(Numeric.encodeQuantity(value));
+    }
+
+    private JsonNode text(String value) {
+        return objectMapper.getNodeFactory().textNode(value);
+    }
+
+    private ObjectNode error(int code, String message) {
+        ObjectNode error = objectMapper.createObjectNode();
+        error.put("code", code);
+        error.put("message", message);
+        return error;
+    }
+}
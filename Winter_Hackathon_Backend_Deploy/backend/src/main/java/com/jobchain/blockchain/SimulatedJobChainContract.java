@@ -0,0 +1,301 @@
+package com.jobchain.blockchain;
+
+import com.jobchain.contract.JobChainContract;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeEncoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.Utils;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Bool;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.crypto.Hash;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory model of the deployed JobChain contract. Calldata and events use the
+ * same ABI encoding as {@link JobChainContract}, so the generated wrapper, receipt
+ * parsing and the event indexer run against it unchanged.
+ * Every function validates before it mutates, so a revert leaves no partial state.
+ */
+class SimulatedJobChainContract {
+
+    record EmittedLog(List<String> topics, String data) {
+    }
+
+    static class Revert extends RuntimeException {
+        Revert(String reason) {
+            super(reason);
+        }
+    }
+
+    private record FunctionSpec(String name, List<TypeReference<Type>> inputs, long gas) {
+    }
+
+    private record Param(String solidityType, TypeReference<?> type) {
+    }
+
+    private static final Param UINT = new Param("uint256", new TypeReference<Uint256>() {});
+    private static final Param BYTES32 = new Param("bytes32", new TypeReference<Bytes32>() {});
+    private static final Param STRING = new Param("string", new TypeReference<Utf8String>() {});
+    private static final Param BOOL = new Param("bool", new TypeReference<Bool>() {});
+    private static final Param ADDRESS = new Param("address", new TypeReference<Address>() {});
+
+    private static final Bytes32 ZERO_BYTES32 = new Bytes32(new byte[32]);
+
+    private static final Map<String, FunctionSpec> FUNCTIONS = new HashMap<>();
+
+    static {
+        // Gas figures approximate the deployed contract so fee and balance maths stay realistic
+        register(JobChainContract.FUNC_CREATEVACANCY, 180_000, STRING, UINT, BYTES32);
+        register(JobChainContract.FUNC_LOGAPPLICATION, 95_000, UINT, BYTES32);
+        register(JobChainContract.FUNC_RECORDEXAMSCORE, 120_000, UINT, UINT, BYTES32);
+        register(JobChainContract.FUNC_PUBLISHMERIT, 70_000, UINT, BYTES32);
+        register(JobChainContract.FUNC_DETECTPAPERLEAK, 110_000, UINT, UINT, BYTES32);
+        register(JobChainContract.FUNC_DISTRIBUTEPAPER, 130_000, UINT, STRING, BYTES32);
+        register(JobChainContract.FUNC_LOCKPAPER, 60_000, UINT, STRING, STRING);
+        register(JobChainContract.FUNC_RECORDANSWERKEY, 50_000, BYTES32, BOOL);
+        register(JobChainContract.FUNC_RECORDOMRSCAN, 100_000, BYTES32, BYTES32);
+
+        register(JobChainContract.FUNC_ADMIN, 0);
+        register(JobChainContract.FUNC_VACANCYCOUNTER, 0);
+        register(JobChainContract.FUNC_GETAPPLICATIONCOUNT, 0, UINT);
+        register(JobChainContract.FUNC_GETSCORECOUNT, 0, UINT);
+        register(JobChainContract.FUNC_GETFRAUDALERTCOUNT, 0);
+        register(JobChainContract.FUNC_GETPAPERSETCOUNT, 0);
+        register(JobChainContract.FUNC_VACANCIES, 0, UINT);
+        register(JobChainContract.FUNC_APPLICATIONS, 0, UINT, UINT);
+        register(JobChainContract.FUNC_SCORES, 0, UINT, UINT);
+        register(JobChainContract.FUNC_MERITS, 0, UINT);
+        register(JobChainContract.FUNC_FRAUDALERTS, 0, UINT);
+        register(JobChainContract.FUNC_PAPERSETS, 0, UINT);
+        register(JobChainContract.FUNC_OMRLOGS, 0, ADDRESS);
+    }
+
+    // The first address is the deployer reported by admin(); the rest are pooled signer keys
+    private final List<String> admins;
+
+    // Stored as ABI tuples so the public getters can be answered with a plain encode
+    private final List<List<Type>> vacancies = new ArrayList<>();
+    private final Map<BigInteger, List<List<Type>>> applications = new HashMap<>();
+    private final Map<BigInteger, List<List<Type>>> scores = new HashMap<>();
+    private final Map<BigInteger, List<Type>> merits = new HashMap<>();
+    private final List<List<Type>> fraudAlerts = new ArrayList<>();
+    private final List<List<Type>> paperSets = new ArrayList<>();
+    private final Map<String, List<Type>> omrLogs = new HashMap<>();
+
+    SimulatedJobChainContract(List<String> admins) {
+        this.admins = admins.stream().map(String::toLowerCase).toList();
+    }
+
+    long gasFor(String input) {
+        FunctionSpec spec = FUNCTIONS.get(selector(input));
+        return spec == null ? 21_000 : Math.max(21_000, spec.gas());
+    }
+
+    // With dryRun set, requirements are checked but no state is written (eth_call on a transaction function)
+    List<EmittedLog> execute(String from, String input, long timestamp, boolean dryRun) {
+        FunctionSpec spec = lookup(input);
+        List<Type> args = FunctionReturnDecoder.decode(input.substring(10), spec.inputs());
+        String sender = from.toLowerCase();
+        Uint256 now = new Uint256(timestamp);
+
+        return switch (spec.name()) {
+            case JobChainContract.FUNC_CREATEVACANCY -> {
+                onlyAdmin(sender);
+                if (dryRun) yield List.of();
+                Uint256 id = new Uint256(vacancies.size() + 1);
+                vacancies.add(List.of(id, args.get(0), args.get(1), now, args.get(2)));
+                yield List.of(emit(JobChainContract.VACANCYCREATED_EVENT,
+                        List.of(id), List.of(args.get(0), args.get(1), args.get(2), now)));
+            }
+            case JobChainContract.FUNC_LOGAPPLICATION -> {
+                Uint256 vacancyId = requireVacancy(args.get(0));
+                Address candidate = new Address(sender);
+                if (dryRun) yield List.of();
+                applications.computeIfAbsent(vacancyId.getValue(), k -> new ArrayList<>())
+                        .add(List.of(vacancyId, candidate, args.get(1), now));
+                yield List.of(emit(JobChainContract.APPLICATIONLOGGED_EVENT,
+                        List.of(vacancyId, candidate), List.of(args.get(1), now)));
+            }
+            case JobChainContract.FUNC_RECORDEXAMSCORE -> {
+                Uint256 vacancyId = requireVacancy(args.get(0));
+                Address candidate = new Address(sender);
+                if (dryRun) yield List.of();
+                scores.computeIfAbsent(vacancyId.getValue(), k -> new ArrayList<>())
+                        .add(List.of(vacancyId, candidate, args.get(1), args.get(2), now));
+                yield List.of(emit(JobChainContract.MARKSRECORDED_EVENT,
+                        List.of(vacancyId, candidate), List.of(args.get(1), args.get(2), now)));
+            }
+            case JobChainContract.FUNC_PUBLISHMERIT -> {
+                onlyAdmin(sender);
+                Uint256 vacancyId = requireVacancy(args.get(0));
+                if (dryRun) yield List.of();
+                merits.put(vacancyId.getValue(), List.of(vacancyId, args.get(1), now));
+                yield List.of(emit(JobChainContract.MERITPUBLISHED_EVENT,
+                        List.of(vacancyId), List.of(args.get(1), now)));
+            }
+            case JobChainContract.FUNC_DETECTPAPERLEAK -> {
+                onlyAdmin(sender);
+                Uint256 vacancyId = requireVacancy(args.get(0));
+                if (dryRun) yield List.of();
+                fraudAlerts.add(List.of(vacancyId, args.get(1), args.get(2), now));
+                yield List.of(emit(JobChainContract.PAPERLEAKDETECTED_EVENT,
+                        List.of(vacancyId), List.of(args.get(1), args.get(2), now)));
+            }
+            case JobChainContract.FUNC_DISTRIBUTEPAPER -> {
+                onlyAdmin(sender);
+                Uint256 vacancyId = requireVacancy(args.get(0));
+                if (dryRun) yield List.of();
+                paperSets.add(List.of(vacancyId, args.get(1), args.get(2), new Bool(false), now));
+                yield List.of(emit(JobChainContract.PAPERDISTRIBUTED_EVENT,
+                        List.of(vacancyId), List.of(args.get(1), args.get(2), now)));
+            }
+            case JobChainContract.FUNC_LOCKPAPER -> {
+                onlyAdmin(sender);
+                Uint256 vacancyId = requireVacancy(args.get(0));
+                int index = findPaperSet(vacancyId, (Utf8String) args.get(2));
+                if (dryRun) yield List.of();
+                List<Type> paperSet = paperSets.get(index);
+                paperSets.set(index, List.of(paperSet.get(0), paperSet.get(1), paperSet.get(2), new Bool(true), paperSet.get(4)));
+                yield List.of(emit(JobChainContract.PAPERLOCKED_EVENT,
+                        List.of(vacancyId), List.of(args.get(1), args.get(2), now)));
+            }
+            case JobChainContract.FUNC_RECORDANSWERKEY -> {
+                onlyAdmin(sender);
+                if (dryRun) yield List.of();
+                yield List.of(emit(JobChainContract.ANSWERKEYRECORDED_EVENT,
+                        List.of(), List.of(args.get(0), args.get(1), now)));
+            }
+            case JobChainContract.FUNC_RECORDOMRSCAN -> {
+                Address candidate = new Address(sender);
+                if (dryRun) yield List.of();
+                omrLogs.put(sender, List.of(candidate, args.get(0), args.get(1), now));
+                yield List.of(emit(JobChainContract.OMRSCANNED_EVENT,
+                        List.of(candidate), List.of(args.get(0), args.get(1), now)));
+            }
+            default -> throw new Revert(spec.name() + " is a view function");
+        };
+    }
+
+    String call(String from, String input, long timestamp) {
+        FunctionSpec spec = lookup(input);
+        if (spec.gas() > 0) {
+            execute(from, input, timestamp, true);
+            return "0x";
+        }
+
+        List<Type> args = FunctionReturnDecoder.decode(input.substring(10), spec.inputs());
+
+        List<Type> result = switch (spec.name()) {
+            case JobChainContract.FUNC_ADMIN -> List.of(new Address(admins.get(0)));
+            case JobChainContract.FUNC_VACANCYCOUNTER -> List.of(new Uint256(vacancies.size()));
+            case JobChainContract.FUNC_GETAPPLICATIONCOUNT ->
+                    List.of(new Uint256(applications.getOrDefault(uint(args.get(0)), List.of()).size()));
+            case JobChainContract.FUNC_GETSCORECOUNT ->
+                    List.of(new Uint256(scores.getOrDefault(uint(args.get(0)), List.of()).size()));
+            case JobChainContract.FUNC_GETFRAUDALERTCOUNT -> List.of(new Uint256(fraudAlerts.size()));
+            case JobChainContract.FUNC_GETPAPERSETCOUNT -> List.of(new Uint256(paperSets.size()));
+            case JobChainContract.FUNC_VACANCIES -> {
+                int index = uint(args.get(0)).intValue() - 1;
+                yield index >= 0 && index < vacancies.size()
+                        ? vacancies.get(index)
+                        : List.of(new Uint256(0), new Utf8String(""), new Uint256(0), new Uint256(0), ZERO_BYTES32);
+            }
+            case JobChainContract.FUNC_APPLICATIONS ->
+                    element(applications.getOrDefault(uint(args.get(0)), List.of()), uint(args.get(1)));
+            case JobChainContract.FUNC_SCORES ->
+                    element(scores.getOrDefault(uint(args.get(0)), List.of()), uint(args.get(1)));
+            case JobChainContract.FUNC_MERITS -> merits.getOrDefault(uint(args.get(0)),
+                    List.of(new Uint256(0), ZERO_BYTES32, new Uint256(0)));
+            case JobChainContract.FUNC_FRAUDALERTS -> element(fraudAlerts, uint(args.get(0)));
+            case JobChainContract.FUNC_PAPERSETS -> element(paperSets, uint(args.get(0)));
+            case JobChainContract.FUNC_OMRLOGS -> omrLogs.getOrDefault(
+                    ((Address) args.get(0)).getValue().toLowerCase(),
+                    List.of(Address.DEFAULT, ZERO_BYTES32, ZERO_BYTES32, new Uint256(0)));
+            default -> throw new Revert("Unknown function " + spec.name());
+        };
+
+        return "0x" + FunctionEncoder.encodeConstructor(result);
+    }
+
+    private void onlyAdmin(String sender) {
+        if (!admins.contains(sender)) {
+            throw new Revert("Only admin");
+        }
+    }
+
+    private Uint256 requireVacancy(Type vacancyId) {
+        BigInteger id = uint(vacancyId);
+        if (id.signum() <= 0 || id.compareTo(BigInteger.valueOf(vacancies.size())) > 0) {
+            throw new Revert("Vacancy does not exist");
+        }
+        return (Uint256) vacancyId;
+    }
+
+    private int findPaperSet(Uint256 vacancyId, Utf8String setId) {
+        for (int i = 0; i < paperSets.size(); i++) {
+            List<Type> paperSet = paperSets.get(i);
+            if (paperSet.get(0).equals(vacancyId) && paperSet.get(1).equals(setId)) {
+                return i;
+            }
+        }
+        throw new Revert("Paper set not distributed");
+    }
+
+    private static List<Type> element(List<List<Type>> array, BigInteger index) {
+        if (index.compareTo(BigInteger.valueOf(array.size())) >= 0) {
+            throw new Revert("Index out of bounds");
+        }
+        return array.get(index.intValue());
+    }
+
+    private static BigInteger uint(Type value) {
+        return (BigInteger) value.getValue();
+    }
+
+    private static EmittedLog emit(Event event, List<Type> indexed, List<Type> data) {
+        List<String> topics = new ArrayList<>();
+        topics.add(EventEncoder.encode(event));
+        for (Type value : indexed) {
+            topics.add("0x" + TypeEncoder.encode(value));
+        }
+        return new EmittedLog(topics, "0x" + FunctionEncoder.encodeConstructor(data));
+    }
+
+    private static FunctionSpec lookup(String input) {
+        FunctionSpec spec = FUNCTIONS.get(selector(input));
+        if (spec == null) {
+            throw new Revert("Unknown function selector");
+        }
+        return spec;
+    }
+
+    private static String selector(String input) {
+        return input == null || input.length() < 10 ? "" : input.substring(0, 10).toLowerCase();
+    }
+
+    private static void register(String name, long gas, Param... inputs) {
+        String signature = name + "(" + Arrays.stream(inputs)
+                .map(Param::solidityType)
+                .collect(Collectors.joining(",")) + ")";
+
+        List<TypeReference<?>> types = Arrays.stream(inputs).<TypeReference<?>>map(Param::type).toList();
+        FUNCTIONS.put(
+                Hash.sha3String(signature).substring(0, 10),
+                new FunctionSpec(name, Utils.convert(types), gas)
+        );
+    }
+}
@@ -0,0 +1,471 @@
+package com.jobchain.blockchain;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.transaction.type.Transaction1559;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.utils.Convert;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Follows every broadcast transaction until one transaction with its nonce is mined.
+ * A transaction that has sat unmined for longer than {@code stuckAfterMs} is replaced
+ * with a same-nonce copy at a bumped fee, up to {@code maxFeeCap}. All hashes in the
+ * replacement chain stay watched and whichever is mined completes the caller's future,
+ * so the owning row always ends up with the hash that actually landed. A nonce still
+ * open after {@code maxAgeMs} is cancelled with a same-nonce, zero-value self-transfer.
+ * The future only fails once that cancel is mined, so the outbox never re-sends a write
+ * whose nonce could still land. Until then the entry stays tracked and the outbox row SUBMITTED.
+ */
+@Slf4j
+public class StuckTransactionWatchdog implements MeterBinder {
+
+    private static final int RECENT_LIMIT = 100;
+    private static final BigInteger CANCEL_GAS_LIMIT = BigInteger.valueOf(21_000);
+
+    public record Snapshot(
+            String function,
+            String from,
+            long nonce,
+            List<String> txHashes,
+            BigInteger maxFeePerGas,
+            long ageMs,
+            String minedTxHash
+    ) {
+    }
+
+    private final Web3j web3j;
+    private final BatchingReceiptProcessor receiptProcessor;
+    private final FeeOracleGasProvider gasProvider;
+    private final long stuckAfterMs;
+    private final long maxAgeMs;
+    private final int bumpPercent;
+    private final BigInteger maxFeeCap;
+
+    private final Map<String, Tracked> tracked = new ConcurrentHashMap<>();
+    private final Deque<Snapshot> recentReplacements = new ArrayDeque<>();
+    private final AtomicLong replacements = new AtomicLong();
+    private final AtomicLong replacementsMined = new AtomicLong();
+    private final AtomicLong cancels = new AtomicLong();
+
+    public StuckTransactionWatchdog(
+            Web3j web3j,
+            BatchingReceiptProcessor receiptProcessor,
+            FeeOracleGasProvider gasProvider,
+            long stuckAfterMs,
+            long maxAgeMs,
+            int bumpPercent,
+            BigInteger maxFeeCap
+    ) {
+        this.web3j = web3j;
+        this.receiptProcessor = receiptProcessor;
+        this.gasProvider = gasProvider;
+        this.stuckAfterMs = stuckAfterMs;
+        this.maxAgeMs = maxAgeMs;
+        this.bumpPercent = bumpPercent;
+        this.maxFeeCap = maxFeeCap;
+    }
+
+    public CompletableFuture<TransactionReceipt> track(
+            String function,
+            SignerPool.Signer signer,
+            RawTransaction transaction,
+            String txHash
+    ) {
+        Tracked fresh = new Tracked(function, signer, transaction, txHash);
+        Tracked[] superseded = new Tracked[1];
+
+        // A re-issue of the same call joins the entry already watching its nonce; anything
+        // else broadcast with that nonce has pushed the earlier transaction out of the pool
+        Tracked entry = tracked.compute(fresh.key(), (key, existing) -> {
+            if (existing == null || existing.result.isDone()) {
+                return fresh;
+            }
+            if (existing.sameCall(transaction)) {
+                existing.reissued(transaction, txHash, System.currentTimeMillis());
+                return existing;
+            }
+            superseded[0] = existing;
+            return fresh;
+        });
+
+        if (superseded[0] != null) {
+            abandon(superseded[0], new TransactionException(
+                    "Nonce " + fresh.nonce() + " was reused for another transaction", superseded[0].hashes.get(0)));
+        }
+        watch(entry, txHash);
+        return entry.result;
+    }
+
+    @Scheduled(fixedDelayString = "${blockchain.watchdog.poll-interval-ms:5000}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        Map<String, Long> confirmedNonces = new HashMap<>();
+
+        for (Tracked entry : tracked.values()) {
+            if (entry.result.isDone()) {
+                continue;
+            }
+            if (now - entry.lastBroadcastAt < stuckAfterMs) {
+                continue;
+            }
+
+            try {
+                Long confirmed = confirmedNonces.get(entry.from());
+                if (confirmed == null) {
+                    confirmed = web3j.ethGetTransactionCount(entry.from(), DefaultBlockParameterName.LATEST)
+                            .send()
+                            .getTransactionCount()
+                            .longValue();
+                    confirmedNonces.put(entry.from(), confirmed);
+                }
+
+                if (confirmed > entry.nonce()) {
+                    settleConsumedNonce(entry);
+                } else {
+                    replace(entry, now);
+                }
+            } catch (Exception e) {
+                log.warn("Watchdog check for nonce {} of {} failed: {}", entry.nonce(), entry.from(), e.getMessage());
+            }
+        }
+    }
+
+    // Past max age and not mined yet: either a cancel is pending or none could be sent
+    public long getOverdueCount() {
+        long now = System.currentTimeMillis();
+        return tracked.values().stream().filter(entry -> entry.overdue(now, maxAgeMs)).count();
+    }
+
+    public List<Snapshot> getTracked() {
+        long now = System.currentTimeMillis();
+        return tracked.values().stream().map(entry -> entry.snapshot(now, null)).toList();
+    }
+
+    public List<Snapshot> getRecentReplacements() {
+        synchronized (recentReplacements) {
+            return List.copyOf(recentReplacements);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("chain.watchdog.tracked", tracked, Map::size)
+                .description("Broadcast transactions waiting for their nonce to be mined")
+                .register(registry);
+        FunctionCounter.builder("chain.watchdog.replacements", replacements, AtomicLong::get)
+                .description("Same-nonce replacements sent with a bumped fee")
+                .register(registry);
+        FunctionCounter.builder("chain.watchdog.replacements_mined", replacementsMined, AtomicLong::get)
+                .register(registry);
+        FunctionCounter.builder("chain.watchdog.cancels", cancels, AtomicLong::get)
+                .description("Zero-value self-transfers sent to free a nonce unmined past max age")
+                .register(registry);
+        Gauge.builder("chain.watchdog.overdue", this, StuckTransactionWatchdog::getOverdueCount)
+                .description("Tracked nonces older than max age; their outbox entries stay SUBMITTED")
+                .register(registry);
+    }
+
+    private void watch(Tracked entry, String txHash) {
+        receiptProcessor.track(txHash).whenComplete((receipt, error) -> {
+            if (receipt != null) {
+                resolve(entry, receipt);
+            } else if (!entry.result.isDone() && !(error instanceof CancellationException)) {
+                // The poller gave up on this hash, but its nonce is still open, so it may yet be mined
+                watch(entry, txHash);
+            }
+        });
+    }
+
+    private void resolve(Tracked entry, TransactionReceipt receipt) {
+        List<String> hashes;
+        boolean cancelled;
+        synchronized (entry) {
+            if (entry.result.isDone()) return;
+            tracked.remove(entry.key(), entry);
+            entry.releaseReservations();
+            hashes = List.copyOf(entry.hashes);
+            cancelled = entry.cancelHashes.contains(receipt.getTransactionHash().toLowerCase());
+        }
+
+        for (String hash : hashes) {
+            if (!hash.equalsIgnoreCase(receipt.getTransactionHash())) {
+                receiptProcessor.untrack(hash);
+            }
+        }
+
+        if (hashes.size() > 1) {
+            boolean replacementWon = !hashes.get(0).equalsIgnoreCase(receipt.getTransactionHash());
+            if (replacementWon) replacementsMined.incrementAndGet();
+            log.info("Nonce {} of {} mined as {} after {} broadcasts",
+                    entry.nonce(), entry.from(), receipt.getTransactionHash(), hashes.size());
+            remember(entry.snapshot(System.currentTimeMillis(), receipt.getTransactionHash()));
+        }
+
+        if (cancelled) {
+            // The nonce is spent on the cancel, so the write can safely go out again with a new one
+            log.warn("Nonce {} of {} was cancelled by {}; {} was not mined",
+                    entry.nonce(), entry.from(), receipt.getTransactionHash(), entry.function);
+            entry.result.completeExceptionally(new TransactionException(
+                    "Nonce " + entry.nonce() + " was cancelled after " + maxAgeMs / 1000 + "s unmined",
+                    receipt.getTransactionHash()));
+            return;
+        }
+        entry.result.complete(receipt);
+    }
+
+    // The nonce is confirmed; either one of our receipts is simply not polled yet or another tx took it
+    private void settleConsumedNonce(Tracked entry) throws IOException {
+        for (String hash : List.copyOf(entry.hashes)) {
+            Optional<TransactionReceipt> receipt = web3j.ethGetTransactionReceipt(hash).send().getTransactionReceipt();
+            if (receipt.isPresent()) {
+                resolve(entry, receipt.get());
+                return;
+            }
+        }
+
+        log.error("Nonce {} of {} was consumed by a transaction outside the watchdog", entry.nonce(), entry.from());
+        abandon(entry, new TransactionException(
+                "Nonce " + entry.nonce() + " was consumed by another transaction", entry.hashes.get(0)));
+    }
+
+    private void abandon(Tracked entry, TransactionException error) {
+        synchronized (entry) {
+            if (entry.result.isDone()) return;
+            tracked.remove(entry.key(), entry);
+            entry.releaseReservations();
+            entry.hashes.forEach(receiptProcessor::untrack);
+        }
+        entry.result.completeExceptionally(error);
+    }
+
+    // Past max age the replacement becomes a cancel; once one is out, later bumps copy the cancel
+    private void replace(Tracked entry, long now) throws IOException {
+        RawTransaction current = entry.current;
+        boolean cancel = entry.overdue(now, maxAgeMs);
+        String to = cancel ? entry.from() : current.getTo();
+        BigInteger gasLimit = cancel ? CANCEL_GAS_LIMIT : current.getGasLimit();
+        BigInteger value = cancel ? BigInteger.ZERO : current.getValue();
+        String data = cancel ? "" : current.getData();
+
+        RawTransaction replacement;
+        BigInteger oldMaxFee;
+        BigInteger newMaxFee;
+
+        if (current.getTransaction() instanceof Transaction1559 tx) {
+            oldMaxFee = tx.getMaxFeePerGas();
+            BigInteger tip = bump(tx.getMaxPriorityFeePerGas())
+                    .max(gasProvider.getMaxPriorityFeePerGas(entry.function));
+            newMaxFee = bump(oldMaxFee).max(gasProvider.getMaxFeePerGas(entry.function)).max(tip);
+            newMaxFee = capped(entry, oldMaxFee, newMaxFee, cancel);
+            if (newMaxFee == null) return;
+
+            replacement = RawTransaction.createTransaction(
+                    tx.getChainId(),
+                    current.getNonce(),
+                    gasLimit,
+                    to,
+                    value,
+                    data,
+                    tip.min(newMaxFee),
+                    newMaxFee);
+        } else {
+            oldMaxFee = current.getGasPrice();
+            newMaxFee = bump(oldMaxFee).max(gasProvider.getGasPrice(entry.function));
+            newMaxFee = capped(entry, oldMaxFee, newMaxFee, cancel);
+            if (newMaxFee == null) return;
+
+            replacement = RawTransaction.createTransaction(
+                    current.getNonce(),
+                    newMaxFee,
+                    gasLimit,
+                    to,
+                    value,
+                    data);
+        }
+
+        GasBalanceLedger.Reservation reservation;
+        try {
+            reservation = entry.signer.getLedger().reserve(gasLimit.multiply(newMaxFee)
+                    .subtract(current.getGasLimit().multiply(oldMaxFee))
+                    .max(BigInteger.ZERO));
+        } catch (IllegalStateException e) {
+            log.warn("Cannot bump stuck nonce {} of {}: {}", entry.nonce(), entry.from(), e.getMessage());
+            return;
+        }
+
+        EthSendTransaction sent;
+        try {
+            sent = entry.signer.getTransactionManager().sendReplacement(replacement);
+        } catch (IOException | RuntimeException e) {
+            reservation.release();
+            throw e;
+        }
+
+        if (sent.hasError()) {
+            reservation.release();
+            // "nonce too low" / "already known" usually means the previous broadcast just got mined
+            log.warn("Replacement for nonce {} of {} rejected: {}",
+                    entry.nonce(), entry.from(), sent.getError().getMessage());
+            return;
+        }
+
+        synchronized (entry) {
+            if (entry.result.isDone()) {
+                reservation.release();
+                return;
+            }
+            entry.replaced(replacement, sent.getTransactionHash(), reservation, now, cancel);
+        }
+        replacements.incrementAndGet();
+        watch(entry, sent.getTransactionHash());
+
+        if (cancel) {
+            cancels.incrementAndGet();
+            log.error("{} nonce {} of {} unmined after {}s, cancelling with {} at {} gwei",
+                    entry.function, entry.nonce(), entry.from(), (now - entry.firstBroadcastAt) / 1000,
+                    sent.getTransactionHash(), toGwei(newMaxFee));
+            return;
+        }
+
+        log.warn("{} tx {} (nonce {}) unmined for {}s, replaced by {} at {} gwei",
+                entry.function, entry.hashes.get(entry.hashes.size() - 2), entry.nonce(),
+                (now - entry.firstBroadcastAt) / 1000, sent.getTransactionHash(), toGwei(newMaxFee));
+    }
+
+    private BigInteger capped(Tracked entry, BigInteger oldFee, BigInteger newFee, boolean cancel) {
+        if (newFee.compareTo(maxFeeCap) <= 0) {
+            return newFee;
+        }
+        // Still worth capping if the cap alone clears the node's minimum replacement bump
+        if (bump(oldFee).compareTo(maxFeeCap) <= 0) {
+            return maxFeeCap;
+        }
+        if (cancel) {
+            // Nothing left to outbid it with: keep watching, the nonce may still be mined
+            log.error("Nonce {} of {} is past max age at the fee cap ({} gwei) and cannot be cancelled, still watching",
+                    entry.nonce(), entry.from(), toGwei(oldFee));
+        } else {
+            log.debug("Nonce {} of {} is at the fee cap ({} gwei), waiting", entry.nonce(), entry.from(), toGwei(oldFee));
+        }
+        return null;
+    }
+
+    private BigInteger bump(BigInteger fee) {
+        return fee.multiply(BigInteger.valueOf(100L + bumpPercent))
+                .add(BigInteger.valueOf(99))
+                .divide(BigInteger.valueOf(100));
+    }
+
+    private void remember(Snapshot snapshot) {
+        synchronized (recentReplacements) {
+            recentReplacements.addFirst(snapshot);
+            if (recentReplacements.size() > RECENT_LIMIT) {
+                recentReplacements.removeLast();
+            }
+        }
+    }
+
+    private static String toGwei(BigInteger wei) {
+        return Convert.fromWei(wei.toString(), Convert.Unit.GWEI).stripTrailingZeros().toPlainString();
+    }
+
+    private static final class Tracked {
+
+        private final String function;
+        private final SignerPool.Signer signer;
+        private final CompletableFuture<TransactionReceipt> result = new CompletableFuture<>();
+        private final List<String> hashes = new ArrayList<>();
+        private final List<GasBalanceLedger.Reservation> reservations = new ArrayList<>();
+        private final Set<String> cancelHashes = new HashSet<>();
+        private final long firstBroadcastAt = System.currentTimeMillis();
+
+        private volatile RawTransaction current;
+        private volatile long lastBroadcastAt = firstBroadcastAt;
+
+        Tracked(String function, SignerPool.Signer signer, RawTransaction transaction, String txHash) {
+            this.function = function;
+            this.signer = signer;
+            this.current = transaction;
+            this.hashes.add(txHash);
+        }
+
+        String from() {
+            return signer.getAddress();
+        }
+
+        long nonce() {
+            return current.getNonce().longValue();
+        }
+
+        String key() {
+            return from().toLowerCase() + ":" + nonce();
+        }
+
+        void replaced(RawTransaction replacement, String txHash, GasBalanceLedger.Reservation reservation, long now,
+                      boolean cancel) {
+            current = replacement;
+            hashes.add(txHash);
+            reservations.add(reservation);
+            lastBroadcastAt = now;
+            if (cancel) {
+                cancelHashes.add(txHash.toLowerCase());
+            }
+        }
+
+        boolean overdue(long now, long maxAgeMs) {
+            return now - firstBroadcastAt > maxAgeMs;
+        }
+
+        // Same target and calldata; the fee may differ
+        boolean sameCall(RawTransaction transaction) {
+            return current.getTo().equalsIgnoreCase(transaction.getTo())
+                    && current.getData().equalsIgnoreCase(transaction.getData());
+        }
+
+        synchronized void reissued(RawTransaction transaction, String txHash, long now) {
+            current = transaction;
+            if (hashes.stream().noneMatch(txHash::equalsIgnoreCase)) {
+                hashes.add(txHash);
+            }
+            lastBroadcastAt = now;
+        }
+
+        void releaseReservations() {
+            reservations.forEach(GasBalanceLedger.Reservation::release);
+            reservations.clear();
+        }
+
+        synchronized Snapshot snapshot(long now, String minedTxHash) {
+            BigInteger maxFee = current.getTransaction() instanceof Transaction1559 tx
+                    ? tx.getMaxFeePerGas()
+                    : current.getGasPrice();
+            return new Snapshot(function, from(), nonce(), List.copyOf(hashes), maxFee,
+                    now - firstBroadcastAt, minedTxHash);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.jobchain.blockchain;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.RemoteFunctionCall;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache for contract view calls, keyed by function and arguments and
+ * tagged with the head block seen when the value was read. A new head block drops
+ * every older entry; indexed events drop the entries of the vacancy they touch.
+ * Concurrent misses for the same key share one {@code eth_call}.
+ */
+@Slf4j
+public class ViewCallCache implements MeterBinder {
+
+    public record Key(String function, Long vacancyId, List<Object> args) {
+
+        public static Key of(String function, Long vacancyId, Object... args) {
+            return new Key(function, vacancyId, List.of(args));
+        }
+    }
+
+    private record Entry(long block, CompletableFuture<Object> value) {
+    }
+
+    private final Web3j web3j;
+    private final int maxEntries;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private volatile long head = -1;
+
+    public ViewCallCache(Web3j web3j, int maxEntries) {
+        this.web3j = web3j;
+        this.maxEntries = maxEntries;
+    }
+
+    @Scheduled(fixedDelayString = "${blockchain.view-cache.head-poll-ms:2000}")
+    public void refreshHead() {
+        try {
+            long block = web3j.ethBlockNumber().send().getBlockNumber().longValue();
+            if (block != head) {
+                head = block;
+                entries.values().removeIf(entry -> entry.block() != block);
+            }
+        } catch (Exception e) {
+            // Without a known head nothing can be proven fresh, so stop serving cached values
+            head = -1;
+            entries.clear();
+            log.warn("View cache head refresh failed: {}", e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, RemoteFunctionCall<T> call) throws Exception {
+        long block = head;
+        if (block < 0 || entries.size() >= maxEntries) {
+            misses.incrementAndGet();
+            return call.send();
+        }
+
+        Entry created = new Entry(block, new CompletableFuture<>());
+        Entry entry = entries.compute(key,
+                (k, existing) -> existing != null && existing.block() == block ? existing : created);
+
+        if (entry != created) {
+            hits.incrementAndGet();
+            return (T) await(entry.value());
+        }
+
+        misses.incrementAndGet();
+        try {
+            T value = call.send();
+            created.value().complete(value);
+            return value;
+        } catch (Exception e) {
+            created.value().completeExceptionally(e);
+            entries.remove(key, created);
+            throw e;
+        }
+    }
+
+    public long getHead() {
+        return head;
+    }
+
+    public void invalidateVacancy(Long vacancyId) {
+        entries.keySet().removeIf(key -> key.vacancyId() == null || key.vacancyId().equals(vacancyId));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("chain.view_cache.size", entries, Map::size)
+                .register(registry);
+        FunctionCounter.builder("chain.view_cache.hits", hits, AtomicLong::get)
+                .register(registry);
+        FunctionCounter.builder("chain.view_cache.misses", misses, AtomicLong::get)
+                .description("View calls that went to the node")
+                .register(registry);
+    }
+
+    private static Object await(CompletableFuture<Object> value) throws Exception {
+        try {
+            return value.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            throw e;
+        }
+    }
+}
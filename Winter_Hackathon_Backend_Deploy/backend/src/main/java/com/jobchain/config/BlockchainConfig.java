@@ -1,71 +1,182 @@
 package com.jobchain.config;
-package com.jobchain.config;
 
+import com.jobchain.blockchain.BatchingReceiptProcessor;
+import com.jobchain.blockchain.FeeOracleGasProvider;
+import com.jobchain.blockchain.MultiEndpointRpcService;
+import com.jobchain.blockchain.SignerPool;
+import com.jobchain.blockchain.StuckTransactionWatchdog;
+import com.jobchain.blockchain.ViewCallCache;
 import com.jobchain.contract.JobChainContract;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.web3j.crypto.Credentials;
+import org.springframework.context.annotation.Profile;
 import org.web3j.crypto.Keys;
 import org.web3j.protocol.Web3j;
-import org.web3j.protocol.http.HttpService;
-import org.web3j.tx.RawTransactionManager;
-import org.web3j.tx.TransactionManager;
-import org.web3j.tx.gas.StaticGasProvider;
+import org.web3j.tx.gas.ContractGasProvider;
 
 import java.math.BigInteger;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 public class BlockchainConfig {
 
-    private static final long AMOY_CHAIN_ID = 80002;
+    static final long AMOY_CHAIN_ID = 80002;
 
     @Value("${blockchain.rpc.url}")
     private String rpcUrl;
 
-    @Value("${blockchain.private.key}")
+    @Value("${blockchain.private.key:}")
     private String privateKey;
 
+    @Value("${blockchain.signers.private-keys:}")
+    private String signerKeys;
+
     @Value("${blockchain.contract.address}")
     private String contractAddress;
 
     @Bean
-    public Web3j web3j() {
-        return Web3j.build(new HttpService(rpcUrl));
+    @Profile("!" + SimulatedChainConfig.PROFILE)
+    public MultiEndpointRpcService rpcService(
+            @Value("${blockchain.rpc.urls:}") String rpcUrls,
+            @Value("${blockchain.rpc.max-idle-connections:10}") int maxIdleConnections,
+            @Value("${blockchain.rpc.keep-alive-ms:300000}") long keepAliveMs,
+            @Value("${blockchain.rpc.max-requests-per-host:32}") int maxRequestsPerHost,
+            @Value("${blockchain.rpc.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${blockchain.rpc.read-timeout-ms:20000}") long readTimeoutMs,
+            @Value("${blockchain.rpc.hedge.enabled:true}") boolean hedgingEnabled,
+            @Value("${blockchain.rpc.hedge.min-delay-ms:250}") long hedgeMinDelayMs,
+            @Value("${blockchain.rpc.cooldown-ms:30000}") long cooldownMs,
+            @Value("${blockchain.rpc.failure-threshold:3}") int failureThreshold
+    ) {
+        List<String> urls = Arrays.stream(rpcUrls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+
+        return new MultiEndpointRpcService(
+                urls.isEmpty() ? List.of(rpcUrl) : urls,
+                maxIdleConnections,
+                Duration.ofMillis(keepAliveMs),
+                maxRequestsPerHost,
+                Duration.ofMillis(connectTimeoutMs),
+                Duration.ofMillis(readTimeoutMs),
+                hedgingEnabled,
+                hedgeMinDelayMs,
+                cooldownMs,
+                failureThreshold
+        );
     }
 
     @Bean
-    public Credentials credentials() {
-        return Credentials.create(privateKey);
+    @Profile("!" + SimulatedChainConfig.PROFILE)
+    public Web3j web3j(MultiEndpointRpcService rpcService) {
+        return Web3j.build(rpcService);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public BatchingReceiptProcessor receiptProcessor(
+            Web3j web3j,
+            @Value("${blockchain.receipt.poll-interval-ms:2000}") long pollIntervalMs,
+            @Value("${blockchain.receipt.max-blocks:150}") int maxBlocksToWait,
+            @Value("${blockchain.receipt.batch-size:100}") int batchSize
+    ) {
+        return new BatchingReceiptProcessor(web3j, pollIntervalMs, maxBlocksToWait, batchSize);
     }
 
     @Bean
-    public TransactionManager web3TransactionManager(
+    public SignerPool signerPool(
             Web3j web3j,
-            Credentials credentials
+            BatchingReceiptProcessor receiptProcessor,
+            @Value("${blockchain.signers.routing:ROUND_ROBIN}") SignerPool.Routing routing,
+            @Value("${blockchain.signers.min-balance-wei:100000000000000000}") BigInteger minBalance,
+            @Value("${blockchain.signers.failure-threshold:3}") int failureThreshold,
+            @Value("${blockchain.signers.cooldown-ms:60000}") long cooldownMs
     ) {
-        return new RawTransactionManager(
+        SignerPool pool = new SignerPool(
                 web3j,
-                credentials,
-                AMOY_CHAIN_ID
+                SignerPool.parseKeys(signerKeys, privateKey),
+                AMOY_CHAIN_ID,
+                receiptProcessor,
+                routing,
+                minBalance,
+                failureThreshold,
+                cooldownMs
         );
+        pool.refreshBalances();
+        return pool;
     }
 
     @Bean
-    public JobChainContract jobChainContract(
+    public FeeOracleGasProvider contractGasProvider(
             Web3j web3j,
-            TransactionManager web3TransactionManager
+            @Value("${blockchain.gas.eip1559-enabled:true}") boolean eip1559Enabled,
+            @Value("${blockchain.gas.default-limit:1500000}") long defaultGasLimit,
+            @Value("${blockchain.gas.limit-multiplier:1.2}") double gasLimitMultiplier,
+            @Value("${blockchain.gas.fee-history-blocks:10}") int feeHistoryBlocks,
+            @Value("${blockchain.gas.reward-percentile:50}") double rewardPercentile,
+            @Value("${blockchain.gas.min-priority-fee-wei:30000000000}") long minPriorityFee,
+            @Value("${blockchain.gas.fallback-max-fee-wei:60000000000}") long fallbackMaxFee
     ) {
-        StaticGasProvider gasProvider =
-                new StaticGasProvider(
-                        BigInteger.valueOf(30_000_000_000L),
-                        BigInteger.valueOf(1_500_000)
-                );
+        FeeOracleGasProvider gasProvider = new FeeOracleGasProvider(
+                web3j,
+                AMOY_CHAIN_ID,
+                eip1559Enabled,
+                BigInteger.valueOf(defaultGasLimit),
+                gasLimitMultiplier,
+                feeHistoryBlocks,
+                rewardPercentile,
+                BigInteger.valueOf(minPriorityFee),
+                BigInteger.valueOf(fallbackMaxFee)
+        );
+        gasProvider.refresh();
+        return gasProvider;
+    }
 
+    @Bean
+    public StuckTransactionWatchdog stuckTransactionWatchdog(
+            Web3j web3j,
+            BatchingReceiptProcessor receiptProcessor,
+            FeeOracleGasProvider gasProvider,
+            @Value("${blockchain.watchdog.stuck-after-ms:60000}") long stuckAfterMs,
+            @Value("${blockchain.watchdog.max-age-ms:480000}") long maxAgeMs,
+            @Value("${blockchain.watchdog.bump-percent:15}") int bumpPercent,
+            @Value("${blockchain.watchdog.max-fee-wei:500000000000}") long maxFeeCap
+    ) {
+        return new StuckTransactionWatchdog(
+                web3j,
+                receiptProcessor,
+                gasProvider,
+                stuckAfterMs,
+                maxAgeMs,
+                bumpPercent,
+                BigInteger.valueOf(maxFeeCap)
+        );
+    }
+
+    @Bean
+    public ViewCallCache viewCallCache(
+            Web3j web3j,
+            @Value("${blockchain.view-cache.max-entries:10000}") int maxEntries
+    ) {
+        ViewCallCache cache = new ViewCallCache(web3j, maxEntries);
+        cache.refreshHead();
+        return cache;
+    }
+
+    @Bean
+    public JobChainContract jobChainContract(
+            Web3j web3j,
+            SignerPool signerPool,
+            ContractGasProvider gasProvider
+    ) {
+        // Writes are signed per call by BlockchainService; the contract wrapper only encodes and reads
         return JobChainContract.load(
                 Keys.toChecksumAddress(contractAddress),
                 web3j,
-                web3TransactionManager,
+                signerPool.primary().getTransactionManager(),
                 gasProvider
         );
     }
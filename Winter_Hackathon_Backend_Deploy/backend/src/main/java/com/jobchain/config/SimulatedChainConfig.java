@@ -0,0 +1,66 @@
+package com.jobchain.config;
+
+import com.jobchain.blockchain.SignerPool;
+import com.jobchain.blockchain.SimulatedChainService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.utils.Convert;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Swaps the RPC endpoint for an in-process chain when the {@code simulated-chain}
+ * profile is active. Only the Web3j transport changes; every bean built on top of it
+ * is the same one used against Amoy.
+ */
+@Configuration
+@Profile(SimulatedChainConfig.PROFILE)
+public class SimulatedChainConfig {
+
+    public static final String PROFILE = "simulated-chain";
+
+    @Bean(destroyMethod = "close")
+    public SimulatedChainService simulatedChainService(
+            @Value("${blockchain.signers.private-keys:}") String signerKeys,
+            @Value("${blockchain.private.key:}") String privateKey,
+            @Value("${blockchain.contract.address}") String contractAddress,
+            @Value("${blockchain.sim.admin-balance-pol:1000000}") BigDecimal adminBalance,
+            @Value("${blockchain.sim.initial-base-fee-wei:1000000000}") long initialBaseFee,
+            @Value("${blockchain.sim.max-transactions-per-block:1000}") int maxTransactionsPerBlock,
+            @Value("${blockchain.sim.block-time-ms:2000}") long blockTimeMs,
+            @Value("${blockchain.sim.latency-min-ms:5}") long latencyMinMs,
+            @Value("${blockchain.sim.latency-mean-ms:20}") double latencyMeanMs,
+            @Value("${blockchain.sim.failure-rate:0}") double failureRate,
+            @Value("${blockchain.sim.revert-rate:0}") double revertRate,
+            @Value("${blockchain.sim.reorg-rate:0}") double reorgRate,
+            @Value("${blockchain.sim.reorg-depth:3}") int reorgDepth
+    ) {
+        return SimulatedChainService.builder()
+                .chainId(BlockchainConfig.AMOY_CHAIN_ID)
+                .contractAddress(contractAddress)
+                .admins(SignerPool.parseKeys(signerKeys, privateKey).stream()
+                        .map(Credentials::getAddress)
+                        .toList())
+                .adminBalance(Convert.toWei(adminBalance, Convert.Unit.ETHER).toBigInteger())
+                .initialBaseFee(BigInteger.valueOf(initialBaseFee))
+                .maxTransactionsPerBlock(maxTransactionsPerBlock)
+                .blockTimeMs(blockTimeMs)
+                .latencyMinMs(latencyMinMs)
+                .latencyMeanMs(latencyMeanMs)
+                .failureRate(failureRate)
+                .revertRate(revertRate)
+                .reorgRate(reorgRate)
+                .reorgDepth(reorgDepth)
+                .build();
+    }
+
+    @Bean
+    public Web3j web3j(SimulatedChainService simulatedChainService) {
+        return Web3j.build(simulatedChainService);
+    }
+}
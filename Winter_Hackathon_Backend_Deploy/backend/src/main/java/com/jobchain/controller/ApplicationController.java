@@ -1,20 +1,45 @@
 package com.jobchain.controller;
 
+import com.jobchain.dto.AdmissionStatusResponse;
+import com.jobchain.dto.AdmissionTicketResponse;
+import com.jobchain.dto.ApplicationImportResponse;
+import com.jobchain.dto.ApplicationPageResponse;
 import com.jobchain.dto.ApplicationResponse;
+import com.jobchain.dto.ApplicationStatusResponse;
 import com.jobchain.dto.CreateApplicationRequest;
-import com.jobchain.entity.ExamScoreEntity;
-import com.jobchain.repository.ExamScoreRepository;
+import com.jobchain.dto.MerkleProofResponse;
+import com.jobchain.service.AdmissionRejectedException;
+import com.jobchain.service.ApplicationAdmissionService;
+import com.jobchain.service.ApplicationImportService;
 import com.jobchain.service.ApplicationService;
+import com.jobchain.service.ApplicationStatusService;
+import com.jobchain.service.DuplicateApplicationException;
+import com.jobchain.service.HashingService;
+import com.jobchain.service.IdempotencyStore;
+import com.jobchain.service.MerkleAnchoringService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
-import java.time.LocalDateTime;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.security.Principal;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -26,22 +51,72 @@ public class ApplicationController {
     private ApplicationService applicationService;
 
     @Autowired
-    private ExamScoreRepository examScoreRepository;
+    private MerkleAnchoringService merkleAnchoringService;
 
+    @Autowired
+    private ApplicationImportService applicationImportService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private HashingService hashingService;
+
+    @Autowired
+    private ApplicationAdmissionService applicationAdmissionService;
+
+    @Autowired
+    private ApplicationStatusService applicationStatusService;
+
+    // The same mapper the regular endpoints serialize with
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Value("${applications.list.max-rows:1000}")
+    private int listMaxRows;
+
+    // With Prefer: respond-async the id comes back at once and hashing and storing happen in the background
     @PreAuthorize("hasAuthority('STUDENT')")
     @PostMapping
-    public ResponseEntity<ApplicationResponse> submitApplication(
-            @Valid @RequestBody CreateApplicationRequest request) {
+    public ResponseEntity<?> submitApplication(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @Valid @RequestBody CreateApplicationRequest request,
+            Principal principal) {
         try {
             log.info("POST /api/applications - Submitting application for vacancy: {}",
                     request.getVacancyId());
 
-            var application = applicationService.submitApplication(request);
-            var response = mapToResponse(application);
+            boolean async = prefer != null && prefer.toLowerCase(Locale.ROOT).contains("respond-async");
+            Supplier<ApplicationAdmissionService.Admission> admit = async
+                    ? () -> submitAsync(request, principal)
+                    : () -> applicationAdmissionService.admit(
+                            request.getVacancyId(),
+                            principal.getName(),
+                            () -> mapToResponse(applicationService.submitApplication(request, principal.getName())));
+
+            if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                return toSubmissionResponse(admit.get(), null, principal);
+            }
 
-            log.info("Application submitted successfully: id={}", application.getId());
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            // Keys are scoped to the caller so one account can never replay another's response
+            IdempotencyStore.Result<ApplicationAdmissionService.Admission> result = idempotencyStore.execute(
+                    principal.getName() + ":" + idempotencyKey,
+                    hashingService.canonicalJson(request).hash(),
+                    admit);
+            return toSubmissionResponse(result.value(), result.replayed(), principal);
 
+        } catch (AdmissionRejectedException e) {
+            log.warn("Submission turned away: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfterSeconds())))
+                    .build();
+        } catch (IdempotencyStore.ConflictException e) {
+            log.warn("Idempotency conflict: {}", e.getMessage());
+            return ResponseEntity.status(e.isInProgress() ? HttpStatus.CONFLICT : HttpStatus.UNPROCESSABLE_CONTENT)
+                    .build();
+        } catch (DuplicateApplicationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (IllegalArgumentException e) {
             log.error("Validation error: {}", e.getMessage());
             throw new RuntimeException("Validation failed: " + e.getMessage());
@@ -51,6 +126,81 @@ public class ApplicationController {
         }
     }
 
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'STUDENT')")
+    @GetMapping("/{id}/status")
+    public ResponseEntity<ApplicationStatusResponse> getApplicationStatus(
+            @PathVariable UUID id,
+            Authentication authentication) {
+        try {
+            log.info("GET /api/applications/{}/status - Fetching submission status", id);
+
+            return applicationStatusService.getStatus(id, authentication.getName(), isAdmin(authentication))
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+
+        } catch (Exception e) {
+            log.error("Failed to fetch submission status: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch submission status: " + e.getMessage());
+        }
+    }
+
+    // Server-sent "status" events until the application is anchored or fails
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'STUDENT')")
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamApplicationStatus(@PathVariable UUID id, Authentication authentication) {
+        log.info("GET /api/applications/{}/events - Streaming submission status", id);
+
+        return applicationStatusService.subscribe(id, authentication.getName(), isAdmin(authentication))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'STUDENT')")
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<AdmissionTicketResponse> getTicket(@PathVariable UUID ticketId, Principal principal) {
+        log.info("GET /api/applications/tickets/{} - Fetching admission ticket", ticketId);
+
+        return applicationAdmissionService.getTicket(ticketId, principal.getName())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/admission")
+    public ResponseEntity<AdmissionStatusResponse> getAdmissionStatus() {
+        log.info("GET /api/applications/admission - Fetching waiting room status");
+
+        return ResponseEntity.ok(applicationAdmissionService.getStatus());
+    }
+
+    // The body is read as it arrives; rows may omit vacancyId when it is given as a parameter
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApplicationImportResponse> importApplications(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(required = false) UUID vacancyId,
+            InputStream body) {
+        try {
+            log.info("POST /api/applications/import - Importing applications ({})", contentType);
+
+            ApplicationImportService.Format format = contentType.startsWith("text/csv")
+                    ? ApplicationImportService.Format.CSV
+                    : ApplicationImportService.Format.NDJSON;
+
+            return ResponseEntity.ok(applicationImportService.importApplications(body, format, vacancyId));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected import: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Failed to import applications: {}", e.getMessage());
+            throw new RuntimeException("Failed to import applications: " + e.getMessage());
+        }
+    }
+
+    // Kept for existing clients: returns the first list-max-rows applications; a Link header points to
+    // the keyset page that continues where this list stops
+    @Deprecated
     @PreAuthorize("hasAuthority('ADMIN')")
     @GetMapping("/vacancy/{vacancyId}")
     public ResponseEntity<List<ApplicationResponse>> getApplicationsByVacancy(
@@ -58,54 +208,17 @@ public class ApplicationController {
         try {
             log.info("GET /api/applications/vacancy/{} - Fetching applications", vacancyId);
 
-            List<Object[]> applicationData = applicationService.getApplicationsByVacancyWithoutLob(vacancyId);
-            List<ApplicationResponse> responses = new ArrayList<>();
-
-            for (Object[] row : applicationData) {
-                if (row.length < 10) {
-                    log.error("Row length is {} but expected 10", row.length);
-                    continue;
-                }
-
-                UUID id = (UUID) row[0];
-                UUID vacancyIdFromRow = (UUID) row[1];
-                String candidateName = (String) row[2];
-                String email = (String) row[3];
-                String category = (String) row[4];
-                String appHash = (String) row[5];
-                String status = (String) row[6];
-                String blockchainTxHash = (String) row[7];
-                LocalDateTime createdAt = (LocalDateTime) row[8];
-                boolean testAttempted = (Boolean) row[9];
-
-                // Get marks from ExamScoreRepository
-                Double marks = null;
-                try {
-                    Optional<ExamScoreEntity> scoreOpt = examScoreRepository.findByApplicationId(id);
-                    marks = scoreOpt.map(ExamScoreEntity::getMarks).orElse(null);
-                } catch (Exception e) {
-                    log.warn("Could not fetch marks for application {}: {}", id, e.getMessage());
-                }
+            ApplicationPageResponse page = applicationService.getApplicationPage(vacancyId, null, null, null,
+                    null, listMaxRows);
 
-                ApplicationResponse response = ApplicationResponse.builder()
-                        .id(id)
-                        .vacancyId(vacancyIdFromRow)
-                        .candidateName(candidateName)
-                        .email(email)
-                        .category(category)
-                        .appHash(appHash)
-                        .status(status)
-                        .blockchainTxHash(blockchainTxHash)
-                        .createdAt(createdAt)
-                        .testAttempted(testAttempted)
-                        .marks(marks)
-                        .build();
-
-                responses.add(response);
+            log.info("Retrieved {} applications for vacancy (truncated={})", page.getItems().size(), page.isHasMore());
+            if (!page.isHasMore()) {
+                return ResponseEntity.ok(page.getItems());
             }
-
-            log.info("Retrieved {} applications for vacancy", responses.size());
-            return ResponseEntity.ok(responses);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.LINK, "</api/applications/vacancy/" + vacancyId + "/page?cursor="
+                            + page.getNextCursor() + "&limit=" + listMaxRows + ">; rel=\"next\"")
+                    .body(page.getItems());
 
         } catch (Exception e) {
             log.error("Failed to fetch applications: {}", e.getMessage(), e);
@@ -113,21 +226,73 @@ public class ApplicationController {
         }
     }
 
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/vacancy/{vacancyId}/page")
+    public ResponseEntity<ApplicationPageResponse> getApplicationPage(
+            @PathVariable UUID vacancyId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Boolean testAttempted,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            log.info("GET /api/applications/vacancy/{}/page - Fetching applications page (limit={})",
+                    vacancyId, limit);
+
+            return ResponseEntity.ok(applicationService.getApplicationPage(vacancyId, status, category,
+                    testAttempted, cursor, Math.max(1, Math.min(limit, 1000))));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Bad page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Failed to fetch applications page: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch applications page: " + e.getMessage());
+        }
+    }
+
+    // Newline-delimited JSON, one application per line, written as rows are read
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping(value = "/vacancy/{vacancyId}/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamApplications(
+            @PathVariable UUID vacancyId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Boolean testAttempted) {
+        log.info("GET /api/applications/vacancy/{}/stream - Streaming applications", vacancyId);
+
+        StreamingResponseBody body = outputStream -> {
+            BufferedOutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+            applicationService.forEachApplication(vacancyId, status, category, testAttempted, application -> {
+                try {
+                    out.write(jsonMapper.writeValueAsBytes(application));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @PreAuthorize("hasAuthority('ADMIN')")
     @GetMapping("/{id}")
     public ResponseEntity<ApplicationResponse> getApplicationById(@PathVariable UUID id) {
         try {
             log.info("GET /api/applications/{} - Fetching application", id);
 
-            var applicationOpt = applicationService.getApplicationById(id);
+            Optional<ApplicationResponse> response = applicationService.getApplicationResponseById(id);
 
-            if (applicationOpt.isEmpty()) {
+            if (response.isEmpty()) {
                 log.warn("Application not found: {}", id);
                 return ResponseEntity.notFound().build();
             }
 
-            var response = mapToResponse(applicationOpt.get());
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response.get());
 
         } catch (Exception e) {
             log.error("Failed to fetch application: {}", e.getMessage());
@@ -135,10 +300,89 @@ public class ApplicationController {
         }
     }
 
-    private ApplicationResponse mapToResponse(com.jobchain.entity.ApplicationEntity entity) {
-        Optional<ExamScoreEntity> scoreOpt = examScoreRepository.findByApplicationId(entity.getId());
-        Double marks = scoreOpt.map(ExamScoreEntity::getMarks).orElse(null);
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'STUDENT')")
+    @GetMapping("/{id}/proof")
+    public ResponseEntity<MerkleProofResponse> getInclusionProof(
+            @PathVariable UUID id,
+            Authentication authentication) {
+        try {
+            log.info("GET /api/applications/{}/proof - Fetching Merkle inclusion proof", id);
 
+            // Someone else's application is reported as missing rather than forbidden
+            if (!isAdmin(authentication) && !applicationService.isSubmittedBy(id, authentication.getName())) {
+                return ResponseEntity.notFound().build();
+            }
+
+            Optional<MerkleProofResponse> proof = merkleAnchoringService.getInclusionProof(id);
+
+            if (proof.isEmpty()) {
+                log.warn("Application {} is not part of a Merkle batch yet", id);
+                return ResponseEntity.notFound().build();
+            }
+
+            return ResponseEntity.ok(proof.get());
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Application not found: {}", id);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Failed to fetch inclusion proof: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch inclusion proof: " + e.getMessage());
+        }
+    }
+
+    private ApplicationAdmissionService.Admission submitAsync(CreateApplicationRequest request, Principal principal) {
+        UUID id = UUID.randomUUID();
+        return applicationAdmissionService.enqueue(id, request.getVacancyId(), principal.getName(),
+                () -> mapToResponse(applicationService.submitApplication(id, request, principal.getName())));
+    }
+
+    // 201 when the submission ran straight away, 202 with a ticket when it is waiting its turn,
+    // 202 with the application's status when the client asked not to wait
+    private ResponseEntity<?> toSubmissionResponse(
+            ApplicationAdmissionService.Admission admission,
+            Boolean replayed,
+            Principal principal) {
+        ResponseEntity.BodyBuilder builder;
+        Object body;
+
+        if (admission.async()) {
+            // The ticket id is the application id; a replay reports the current status
+            UUID id = admission.ticket().getTicketId();
+            log.info("Application accepted for background processing: id={}", id);
+            builder = ResponseEntity.accepted()
+                    .location(URI.create("/api/applications/" + id + "/status"));
+            body = applicationStatusService.getStatus(id, principal.getName(), false).orElse(null);
+        } else if (admission.application() != null) {
+            log.info("Application {}: id={}", Boolean.TRUE.equals(replayed) ? "replayed" : "submitted successfully",
+                    admission.application().getId());
+            builder = ResponseEntity.status(HttpStatus.CREATED);
+            body = admission.application();
+        } else {
+            // A replay reports where the original ticket is now, not where it was
+            AdmissionTicketResponse ticket = Boolean.TRUE.equals(replayed)
+                    ? applicationAdmissionService.getTicket(admission.ticket().getTicketId(), principal.getName())
+                            .orElse(admission.ticket())
+                    : admission.ticket();
+            log.info("Application queued: ticket={}, position={}", ticket.getTicketId(), ticket.getPosition());
+            builder = ResponseEntity.accepted()
+                    .location(URI.create("/api/applications/tickets/" + ticket.getTicketId()));
+            body = ticket;
+        }
+
+        if (replayed != null) {
+            builder.header("Idempotent-Replayed", String.valueOf(replayed));
+        }
+        return builder.body(body);
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ADMIN".equals(authority.getAuthority()));
+    }
+
+    // Only used for freshly submitted applications, which have no exam score yet
+    private ApplicationResponse mapToResponse(com.jobchain.entity.ApplicationEntity entity) {
         return ApplicationResponse.builder()
                 .id(entity.getId())
                 .vacancyId(entity.getVacancyId())
@@ -148,8 +392,8 @@ public class ApplicationController {
                 .appHash(entity.getAppHash())
                 .status(entity.getStatus())
                 .blockchainTxHash(entity.getBlockchainTxHash())
+                .chainStatus(entity.getChainStatus())
                 .createdAt(entity.getCreatedAt())
-                .marks(marks)
                 .testAttempted(entity.isTestAttempted())
                 .build();
     }
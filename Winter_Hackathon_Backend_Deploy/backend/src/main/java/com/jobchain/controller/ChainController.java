@@ -0,0 +1,247 @@
+package com.jobchain.controller;
+
+import com.jobchain.blockchain.StuckTransactionWatchdog;
+import com.jobchain.dto.AuditHeadResponse;
+import com.jobchain.dto.AuditProofResponse;
+import com.jobchain.dto.ChainEventResponse;
+import com.jobchain.dto.ChainFunctionTelemetryResponse;
+import com.jobchain.dto.ChainHealthResponse;
+import com.jobchain.dto.ChainIndexerStatusResponse;
+import com.jobchain.dto.ChainReconciliationReportResponse;
+import com.jobchain.dto.ChainStatusResponse;
+import com.jobchain.dto.ChainVerificationResponse;
+import com.jobchain.dto.OnChainVacancyResponse;
+import com.jobchain.dto.TrackedTransactionResponse;
+import com.jobchain.entity.enums.AnchorType;
+import com.jobchain.entity.enums.ChainEventType;
+import com.jobchain.service.AuditJournalService;
+import com.jobchain.service.ChainCallGuard;
+import com.jobchain.service.ChainEventService;
+import com.jobchain.service.ChainOutboxDispatcher;
+import com.jobchain.service.ChainOutboxService;
+import com.jobchain.service.ChainReconciliationService;
+import com.jobchain.service.ChainTelemetry;
+import com.jobchain.service.ChainViewService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.web3j.utils.Convert;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/chain")
+@Slf4j
+public class ChainController {
+
+    @Autowired
+    private ChainOutboxService chainOutboxService;
+
+    @Autowired
+    private ChainEventService chainEventService;
+
+    @Autowired
+    private ChainCallGuard chainCallGuard;
+
+    @Autowired
+    private ChainOutboxDispatcher chainOutboxDispatcher;
+
+    @Autowired
+    private ChainViewService chainViewService;
+
+    @Autowired
+    private ChainTelemetry chainTelemetry;
+
+    @Autowired
+    private StuckTransactionWatchdog stuckTransactionWatchdog;
+
+    @Autowired
+    private ChainReconciliationService chainReconciliationService;
+
+    @Autowired
+    private AuditJournalService auditJournalService;
+
+    @GetMapping("/status/{aggregateType}/{aggregateId}")
+    public ResponseEntity<ChainStatusResponse> getAnchoringStatus(
+            @PathVariable AnchorType aggregateType,
+            @PathVariable UUID aggregateId) {
+        try {
+            log.info("GET /api/chain/status/{}/{} - Fetching anchoring status",
+                    aggregateType, aggregateId);
+
+            Optional<ChainStatusResponse> status =
+                    chainOutboxService.getStatus(aggregateType, aggregateId);
+
+            if (status.isEmpty()) {
+                log.warn("No anchoring record for {} {}", aggregateType, aggregateId);
+                return ResponseEntity.notFound().build();
+            }
+
+            return ResponseEntity.ok(status.get());
+
+        } catch (Exception e) {
+            log.error("Failed to fetch anchoring status: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch anchoring status: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/verify/{hash}")
+    public ResponseEntity<ChainVerificationResponse> verifyHash(@PathVariable String hash) {
+        try {
+            log.info("GET /api/chain/verify/{} - Looking up indexed events", hash);
+
+            return ResponseEntity.ok(chainEventService.verifyHash(hash));
+
+        } catch (Exception e) {
+            log.error("Failed to verify hash: {}", e.getMessage());
+            throw new RuntimeException("Failed to verify hash: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/events/vacancy/{chainVacancyId}")
+    public ResponseEntity<List<ChainEventResponse>> getVacancyEvents(
+            @PathVariable Long chainVacancyId,
+            @RequestParam(required = false) ChainEventType type) {
+        try {
+            log.info("GET /api/chain/events/vacancy/{} - Fetching indexed events (type={})",
+                    chainVacancyId, type);
+
+            return ResponseEntity.ok(chainEventService.getVacancyEvents(chainVacancyId, type));
+
+        } catch (Exception e) {
+            log.error("Failed to fetch indexed events: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch indexed events: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/onchain/vacancy/{chainVacancyId}")
+    public ResponseEntity<OnChainVacancyResponse> getOnChainVacancy(@PathVariable Long chainVacancyId) {
+        try {
+            log.info("GET /api/chain/onchain/vacancy/{} - Reading contract state", chainVacancyId);
+
+            return ResponseEntity.ok(chainViewService.getVacancy(chainVacancyId));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("On-chain vacancy not found: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Failed to read on-chain vacancy: {}", e.getMessage());
+            throw new RuntimeException("Failed to read on-chain vacancy: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/indexer")
+    public ResponseEntity<ChainIndexerStatusResponse> getIndexerStatus() {
+        log.info("GET /api/chain/indexer - Fetching indexer checkpoint");
+
+        return chainEventService.getIndexerStatus()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/health")
+    public ResponseEntity<ChainHealthResponse> getChainHealth() {
+        log.info("GET /api/chain/health - Fetching breaker and queue status");
+
+        return ResponseEntity.ok(ChainHealthResponse.builder()
+                .degraded(chainCallGuard.isDegraded())
+                .breakers(chainCallGuard.getBreakers())
+                .bulkheadActive(chainCallGuard.getActiveCalls())
+                .bulkheadQueued(chainCallGuard.getQueuedCalls())
+                .bulkheadCapacity(chainCallGuard.getCapacity())
+                .rejectedCalls(chainCallGuard.getRejectedCalls())
+                .queuedWrites(chainOutboxService.countQueued())
+                .inFlightWrites(chainOutboxDispatcher.getInFlightCount())
+                .build());
+    }
+
+    // Per-function summary; the raw histograms are under /actuator/metrics/chain.tx.*
+    @GetMapping("/telemetry")
+    public ResponseEntity<List<ChainFunctionTelemetryResponse>> getTelemetry() {
+        log.info("GET /api/chain/telemetry - Fetching per-function transaction telemetry");
+
+        return ResponseEntity.ok(chainTelemetry.getSummary());
+    }
+
+    // recent=true lists the last replacement chains that were mined, otherwise the ones still open
+    @GetMapping("/watchdog")
+    public ResponseEntity<List<TrackedTransactionResponse>> getWatchdog(
+            @RequestParam(defaultValue = "false") boolean recent) {
+        log.info("GET /api/chain/watchdog - Fetching tracked transactions (recent={})", recent);
+
+        List<StuckTransactionWatchdog.Snapshot> snapshots = recent
+                ? stuckTransactionWatchdog.getRecentReplacements()
+                : stuckTransactionWatchdog.getTracked();
+
+        return ResponseEntity.ok(snapshots.stream()
+                .map(snapshot -> TrackedTransactionResponse.builder()
+                        .function(snapshot.function())
+                        .from(snapshot.from())
+                        .nonce(snapshot.nonce())
+                        .txHashes(snapshot.txHashes())
+                        .maxFeePerGasGwei(Convert.fromWei(snapshot.maxFeePerGas().toString(), Convert.Unit.GWEI))
+                        .ageSeconds(snapshot.ageMs() / 1000)
+                        .minedTxHash(snapshot.minedTxHash())
+                        .build())
+                .toList());
+    }
+
+    // Runs in the background; the report shows up under /reconcile/runs
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/reconcile")
+    public ResponseEntity<Void> runReconciliation() {
+        try {
+            log.info("POST /api/chain/reconcile - Starting chain reconciliation");
+
+            chainReconciliationService.startRun();
+            return ResponseEntity.accepted().location(URI.create("/api/chain/reconcile/runs")).build();
+
+        } catch (IllegalStateException e) {
+            log.warn("Reconciliation not started: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            log.error("Failed to run chain reconciliation: {}", e.getMessage());
+            throw new RuntimeException("Failed to run chain reconciliation: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/reconcile/runs")
+    public ResponseEntity<List<ChainReconciliationReportResponse>> getReconciliationRuns(
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("GET /api/chain/reconcile/runs - Fetching last {} reconciliation runs", limit);
+
+        return ResponseEntity.ok(chainReconciliationService.getRecentRuns(Math.max(1, Math.min(limit, 100))));
+    }
+
+    @GetMapping("/audit/head")
+    public ResponseEntity<AuditHeadResponse> getAuditHead() {
+        log.info("GET /api/chain/audit/head - Fetching audit journal head");
+
+        return ResponseEntity.ok(auditJournalService.getHead());
+    }
+
+    @GetMapping("/audit/{sequence}")
+    public ResponseEntity<AuditProofResponse> getAuditProof(@PathVariable long sequence) {
+        try {
+            log.info("GET /api/chain/audit/{} - Building audit inclusion proof", sequence);
+
+            Optional<AuditProofResponse> proof = auditJournalService.getInclusionProof(sequence);
+            if (proof.isEmpty()) {
+                log.warn("No audit journal entry at sequence {}", sequence);
+                return ResponseEntity.notFound().build();
+            }
+
+            return ResponseEntity.ok(proof.get());
+
+        } catch (Exception e) {
+            log.error("Failed to build audit proof: {}", e.getMessage());
+            throw new RuntimeException("Failed to build audit proof: " + e.getMessage());
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.jobchain.controller;
 
+import com.jobchain.blockchain.ChainUnavailableException;
 import com.jobchain.dto.*;
 import com.jobchain.entity.ApplicationEntity;
 import com.jobchain.entity.ExamScoreEntity;
 import com.jobchain.entity.MeritListEntity;
+import com.jobchain.entity.enums.AnchorType;
 import com.jobchain.repository.ApplicationRepository;
 import com.jobchain.service.ApplicationService;
 import com.jobchain.service.BlockchainService;
+import com.jobchain.service.ChainOutboxService;
 import com.jobchain.service.ExamService;
+import com.jobchain.service.HashingService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
@@ -17,10 +21,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import org.bouncycastle.util.encoders.Hex;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -41,6 +42,12 @@ public class ExamController {
     @Autowired
     private BlockchainService blockchainService;
 
+    @Autowired
+    private ChainOutboxService chainOutboxService;
+
+    @Autowired
+    private HashingService hashingService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -84,6 +91,7 @@ public class ExamController {
         response.setMarks(examScore.getMarks());
         response.setMarkingHash(examScore.getMarkingHash());
         response.setBlockchainTxHash(examScore.getBlockchainTxHash());
+        response.setChainStatus(examScore.getChainStatus());
 
         log.info(
                 "Exam score recorded successfully: id={}",
@@ -136,6 +144,7 @@ public class ExamController {
             response.setMeritList(meritItems);
             response.setMeritHash(meritList.getMeritHash());
             response.setBlockchainTxHash(meritList.getBlockchainTxHash());
+            response.setChainStatus(meritList.getChainStatus());
 
             log.info("Merit list published successfully with {} candidates", meritItems.size());
             return ResponseEntity.ok(response);
@@ -257,7 +266,26 @@ public class ExamController {
 
             String qrHash = generateHash(request.getQrData());
 
-            String txHash = blockchainService.recordOmrScanOnChain(omrHash, qrHash);
+            application.setOmrHash(omrHash);
+            application.setOmrQrHash(qrHash);
+            applicationRepository.save(application);
+
+            String txHash;
+            try {
+                txHash = blockchainService.recordOmrScanOnChain(omrHash, qrHash);
+            } catch (ChainUnavailableException e) {
+                chainOutboxService.enqueue(AnchorType.OMR_SCAN, application.getId());
+                log.warn("Chain unavailable, OMR for application {} queued for anchoring: {}",
+                        request.getApplicationId(), e.getMessage());
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("queued", true);
+                response.put("message", "Blockchain unavailable, OMR queued for anchoring");
+                response.put("applicationId", request.getApplicationId());
+
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+            }
 
             application.setOmrVerified(true);
             application.setOmrBlockchainTxHash(txHash);
@@ -288,13 +316,6 @@ public class ExamController {
     }
 
     private String generateHash(String data) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = digest.digest(data.getBytes(StandardCharsets.UTF_8));
-            return "0x" + Hex.toHexString(hashBytes);
-        } catch (Exception e) {
-            log.error("Failed to generate hash, using fallback: {}", e.getMessage());
-            return "0x" + Integer.toHexString(data.hashCode());
-        }
+        return "0x" + hashingService.sha256Hex(data);
     }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.jobchain.controller;
 
+import com.jobchain.dto.BulkLockPaperRequest;
 import com.jobchain.entity.PaperSetEntity;
 import com.jobchain.service.PaperService;
+import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -69,6 +71,29 @@ public class PaperController {
         }
     }
 
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/lock/bulk")
+    public ResponseEntity<String> lockPapersBulk(@Valid @RequestBody BulkLockPaperRequest request) {
+        try {
+            log.info("POST /api/paper/lock/bulk - Locking paper for vacancy: {}, {} centers",
+                    request.getVacancyId(), request.getCenterIds().size());
+
+            int transactions = paperService.lockPapers(request.getVacancyId(), request.getCenterIds());
+
+            String message = "Paper sets locked on chain for " + request.getCenterIds().size()
+                    + " centers (" + transactions + " transactions)";
+            log.info(message);
+            return ResponseEntity.ok(message);
+
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error: {}", e.getMessage());
+            throw new RuntimeException("Validation failed: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to lock paper: {}", e.getMessage());
+            throw new RuntimeException("Failed to lock paper: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{vacancyId}")
     public ResponseEntity<List<PaperSetEntity>> getPaperSets(@PathVariable UUID vacancyId) {
         try {
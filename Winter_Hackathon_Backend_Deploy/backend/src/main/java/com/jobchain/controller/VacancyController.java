@@ -102,6 +102,7 @@ public class VacancyController {
         response.setTotalPosts(entity.getTotalPosts());
         response.setCreatedAt(entity.getCreatedAt());
         response.setBlockchainTxHash(entity.getBlockchainTxHash());
+        response.setChainStatus(entity.getChainStatus());
         return response;
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdmissionLaneResponse {
+
+    private UUID vacancyId;
+    private int queueDepth;
+    private double drainRatePerSecond;
+    private long admitted;
+}
@@ -0,0 +1,19 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdmissionStatusResponse {
+
+    private boolean enabled;
+    private double ratePerSecond;
+    private int totalQueued;
+    private int processing;
+    private int workers;
+    private List<AdmissionLaneResponse> lanes;
+}
@@ -0,0 +1,22 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdmissionTicketResponse {
+
+    private UUID ticketId;
+    private UUID vacancyId;
+    private String status;
+    private long position;
+    private long estimatedWaitSeconds;
+    private LocalDateTime createdAt;
+    private ApplicationResponse application;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ApplicationImportResponse {
+
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private List<ImportRowErrorResponse> errors;
+    private boolean errorsTruncated;
+    private long durationMs;
+}
@@ -0,0 +1,16 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ApplicationPageResponse {
+
+    private List<ApplicationResponse> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
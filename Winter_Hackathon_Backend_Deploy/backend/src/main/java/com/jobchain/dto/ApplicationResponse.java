@@ -1,5 +1,6 @@
 package com.jobchain.dto;
 
+import com.jobchain.entity.enums.ChainStatus;
 import lombok.*;
 
 import java.time.LocalDateTime;
@@ -19,6 +20,7 @@ public class ApplicationResponse {
     private String appHash;
     private String status;
     private String blockchainTxHash;
+    private ChainStatus chainStatus;
     private LocalDateTime createdAt;
     private Double marks;
     private boolean testAttempted;
@@ -0,0 +1,26 @@
+package com.jobchain.dto;
+
+import com.jobchain.entity.enums.ChainStatus;
+import lombok.*;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ApplicationStatusResponse {
+
+    private UUID applicationId;
+    private UUID vacancyId;
+    // QUEUED, PROCESSING or REJECTED before the application is stored, its chain status after;
+    // UNTRACKED for old rows that were never anchored
+    private String state;
+    private boolean terminal;
+    private long position;
+    private long estimatedWaitSeconds;
+    private String status;
+    private ChainStatus chainStatus;
+    private String blockchainTxHash;
+    private String error;
+}
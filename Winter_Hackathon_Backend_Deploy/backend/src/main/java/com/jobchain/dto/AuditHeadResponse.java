@@ -0,0 +1,19 @@
+package com.jobchain.dto;
+
+import com.jobchain.entity.enums.ChainStatus;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditHeadResponse {
+
+    private String journalId;
+    private long sequence;
+    private String headHash;
+    private long anchoredSequence;
+    private String anchoredHash;
+    private String blockchainTxHash;
+    private ChainStatus chainStatus;
+}
@@ -0,0 +1,14 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditLinkResponse {
+
+    private long sequence;
+    private long timestamp;
+    private String payloadHash;
+}
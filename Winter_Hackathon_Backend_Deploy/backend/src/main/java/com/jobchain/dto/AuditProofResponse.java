@@ -0,0 +1,26 @@
+package com.jobchain.dto;
+
+import com.jobchain.entity.enums.ChainStatus;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditProofResponse {
+
+    private String journalId;
+    private long sequence;
+    private long timestamp;
+    private String payload;
+    private String previousHash;
+    private String entryHash;
+    private List<AuditLinkResponse> links;
+    private long anchorSequence;
+    private String anchorHash;
+    private String blockchainTxHash;
+    private ChainStatus chainStatus;
+    private boolean verified;
+}
@@ -0,0 +1,18 @@
+package com.jobchain.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BulkLockPaperRequest {
+
+    @NotNull(message = "Vacancy ID is required")
+    private UUID vacancyId;
+
+    @NotEmpty(message = "At least one center ID is required")
+    private List<String> centerIds;
+}
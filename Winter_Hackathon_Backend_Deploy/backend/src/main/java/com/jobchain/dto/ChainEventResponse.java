@@ -0,0 +1,25 @@
+package com.jobchain.dto;
+
+import com.jobchain.entity.enums.ChainEventType;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChainEventResponse {
+
+    private ChainEventType eventType;
+    private Long chainVacancyId;
+    private String dataHash;
+    private String secondaryHash;
+    private String candidate;
+    private String setId;
+    private String centerId;
+    private String title;
+    private Long amount;
+    private Long eventTimestamp;
+    private Long blockNumber;
+    private String txHash;
+    private Integer logIndex;
+}
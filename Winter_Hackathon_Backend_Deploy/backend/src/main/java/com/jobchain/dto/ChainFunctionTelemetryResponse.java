@@ -0,0 +1,27 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChainFunctionTelemetryResponse {
+
+    private String function;
+    private long broadcastCount;
+    private long minedCount;
+    private Double broadcastP50Ms;
+    private Double broadcastP95Ms;
+    private Double minedP50Ms;
+    private Double minedP95Ms;
+    private double avgGasUsed;
+    private double maxGasUsed;
+    private double avgGasUtilization;
+    private double maxGasUtilization;
+    private double avgEffectiveGasPriceGwei;
+    private long reverted;
+    private long rejected;
+    private long failed;
+    private int pending;
+}
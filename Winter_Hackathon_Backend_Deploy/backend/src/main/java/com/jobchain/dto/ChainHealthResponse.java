@@ -0,0 +1,21 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChainHealthResponse {
+
+    private boolean degraded;
+    private List<CircuitBreakerResponse> breakers;
+    private int bulkheadActive;
+    private int bulkheadQueued;
+    private int bulkheadCapacity;
+    private long rejectedCalls;
+    private long queuedWrites;
+    private int inFlightWrites;
+}
@@ -0,0 +1,17 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChainIndexerStatusResponse {
+
+    private String contractAddress;
+    private Long lastProcessedBlock;
+    private String lastProcessedBlockHash;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,27 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChainReconciliationReportResponse {
+
+    private UUID runId;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private int scanned;
+    private int confirmed;
+    private int statusRepaired;
+    private int missingHash;
+    private int dropped;
+    private int reverted;
+    private int requeued;
+    private int skipped;
+    private boolean truncated;
+    private String error;
+}
@@ -0,0 +1,23 @@
+package com.jobchain.dto;
+
+import com.jobchain.entity.enums.AnchorType;
+import com.jobchain.entity.enums.ChainStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChainStatusResponse {
+
+    private AnchorType aggregateType;
+    private UUID aggregateId;
+    private ChainStatus chainStatus;
+    private String blockchainTxHash;
+    private int attempts;
+    private String lastError;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,17 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChainVerificationResponse {
+
+    private String hash;
+    private boolean anchored;
+    private List<ChainEventResponse> events;
+    private Long indexedThroughBlock;
+}
@@ -0,0 +1,17 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CircuitBreakerResponse {
+
+    private String function;
+    private String state;
+    private int consecutiveFailures;
+    private LocalDateTime openedAt;
+}
@@ -1,5 +1,6 @@
 package com.jobchain.dto;
 
+import com.jobchain.entity.enums.ChainStatus;
 import lombok.*;
 
 import java.util.UUID;
@@ -15,4 +16,5 @@ public class ExamScoreResponse {
     private double marks;
     private String markingHash;
     private String blockchainTxHash;
+    private ChainStatus chainStatus;
 }
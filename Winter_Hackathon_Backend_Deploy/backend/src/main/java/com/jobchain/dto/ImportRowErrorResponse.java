@@ -0,0 +1,13 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportRowErrorResponse {
+
+    private long line;
+    private String message;
+}
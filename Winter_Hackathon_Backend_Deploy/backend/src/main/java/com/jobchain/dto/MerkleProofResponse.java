@@ -0,0 +1,25 @@
+package com.jobchain.dto;
+
+import com.jobchain.entity.enums.ChainStatus;
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MerkleProofResponse {
+
+    private UUID applicationId;
+    private UUID vacancyId;
+    private UUID batchId;
+    private String appHash;
+    private int leafIndex;
+    private List<String> proof;
+    private String merkleRoot;
+    private String blockchainTxHash;
+    private ChainStatus chainStatus;
+    private boolean verified;
+}
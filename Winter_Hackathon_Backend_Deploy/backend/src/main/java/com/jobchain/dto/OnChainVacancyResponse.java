@@ -0,0 +1,23 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OnChainVacancyResponse {
+
+    private Long chainVacancyId;
+    private String title;
+    private Long totalPosts;
+    private String paperHash;
+    private LocalDateTime createdAt;
+    private Long applicationCount;
+    private Long scoreCount;
+    private String meritHash;
+    private LocalDateTime meritPublishedAt;
+    private Long readAtBlock;
+}
@@ -1,5 +1,6 @@
 package com.jobchain.dto;
 
+import com.jobchain.entity.enums.ChainStatus;
 import lombok.*;
 
 import java.util.List;
@@ -15,4 +16,5 @@ public class PublishMeritResponse {
     private List<MeritItemResponse> meritList;
     private String meritHash;
     private String blockchainTxHash;
+    private ChainStatus chainStatus;
 }
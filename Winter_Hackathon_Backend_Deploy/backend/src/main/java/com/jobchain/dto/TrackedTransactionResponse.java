@@ -0,0 +1,21 @@
+package com.jobchain.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrackedTransactionResponse {
+
+    private String function;
+    private String from;
+    private long nonce;
+    private List<String> txHashes;
+    private BigDecimal maxFeePerGasGwei;
+    private long ageSeconds;
+    private String minedTxHash;
+}
@@ -1,5 +1,6 @@
 package com.jobchain.dto;
 
+import com.jobchain.entity.enums.ChainStatus;
 import lombok.*;
 
 import java.time.LocalDateTime;
@@ -15,4 +16,5 @@ public class VacancyResponse {
     private int totalPosts;
     private LocalDateTime createdAt;
     private String blockchainTxHash;
+    private ChainStatus chainStatus;
 }
@@ -1,8 +1,10 @@
 package com.jobchain.entity;
 
+import com.jobchain.entity.enums.ChainStatus;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
 import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.UUID;
@@ -14,13 +16,19 @@ import java.util.UUID;
 @Entity
 @Table(name = "applications", indexes = {
         @Index(name = "idx_applications_vacancy_id", columnList = "vacancy_id"),
+        @Index(name = "idx_applications_vacancy_created", columnList = "vacancy_id, created_at, id"),
         @Index(name = "idx_email", columnList = "email"),
-        @Index(name = "idx_status", columnList = "status")
+        @Index(name = "idx_status", columnList = "status"),
+        @Index(name = "idx_applications_merkle_batch_id", columnList = "merkle_batch_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = ApplicationEntity.UK_VACANCY_EMAIL, columnNames = {"vacancy_id", "email"})
 })
-public class ApplicationEntity {
+public class ApplicationEntity implements Persistable<UUID> {
 
+    public static final String UK_VACANCY_EMAIL = "uk_applications_vacancy_email";
+
+    // Assigned rather than generated so an async submission can hand out its id before the row exists
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -33,6 +41,10 @@ public class ApplicationEntity {
     @Column(name = "email", nullable = false, length = 100)
     private String email;
 
+    // Username of the account that submitted it; null for imported and older rows
+    @Column(name = "submitted_by", length = 100)
+    private String submittedBy;
+
     @Column(name = "category", nullable = false, length = 10)
     private String category; // UR, OBC, SC, ST
 
@@ -56,6 +68,20 @@ public class ApplicationEntity {
     @Column(name = "blockchain_tx_hash", length = 66)
     private String blockchainTxHash;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "chain_status", length = 20)
+    private ChainStatus chainStatus;
+
+    @Column(name = "merkle_batch_id")
+    private UUID merkleBatchId;
+
+    @Column(name = "merkle_leaf_index")
+    private Integer merkleLeafIndex;
+
+    // Comma-separated sibling hashes from leaf to root
+    @Column(name = "merkle_proof", columnDefinition = "TEXT")
+    private String merkleProof;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -77,4 +103,38 @@ public class ApplicationEntity {
     @Column(name = "omr_verified_at")
     private Date omrVerifiedAt;
 
-}
\ No newline at end of file
+    // Kept so a scan recorded while the chain is down can be anchored later
+    @Column(name = "omr_hash", length = 66)
+    private String omrHash;
+
+    @Column(name = "omr_qr_hash", length = 66)
+    private String omrQrHash;
+
+    // The id is assigned, so Spring Data cannot tell a new row from a detached one; without
+    // this every save of a new application would merge (SELECT, then INSERT) instead of persist
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted = false;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PrePersist
+    void assignId() {
+        if (id == null) {
+            id = UUID.randomUUID();
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
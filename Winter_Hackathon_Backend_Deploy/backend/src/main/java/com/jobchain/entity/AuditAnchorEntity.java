@@ -0,0 +1,45 @@
+package com.jobchain.entity;
+
+import com.jobchain.entity.enums.ChainStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "audit_anchors", indexes = {
+        @Index(name = "idx_audit_anchors_journal_sequence", columnList = "journal_id, sequence")
+})
+public class AuditAnchorEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    // Hash of the journal's first entry; each instance keeps its own journal
+    @Column(name = "journal_id", length = 64)
+    private String journalId;
+
+    @Column(name = "sequence", nullable = false)
+    private long sequence;
+
+    @Column(name = "head_hash", length = 64, nullable = false)
+    private String headHash;
+
+    @Column(name = "blockchain_tx_hash", length = 66)
+    private String blockchainTxHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "chain_status", length = 20)
+    private ChainStatus chainStatus;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
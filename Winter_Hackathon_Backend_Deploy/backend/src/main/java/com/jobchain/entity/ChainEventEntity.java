@@ -0,0 +1,84 @@
+package com.jobchain.entity;
+
+import com.jobchain.entity.enums.ChainEventType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Contract event copied from {@code eth_getLogs} by {@code ChainIndexerService}.
+ * {@code dataHash} holds the event's primary bytes32 (app, mark, merit, paper,
+ * pattern or OMR hash) so verification is a single indexed lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "chain_events",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_chain_events_tx_log", columnNames = {"tx_hash", "log_index"})
+        },
+        indexes = {
+                @Index(name = "idx_chain_events_data_hash", columnList = "data_hash"),
+                @Index(name = "idx_chain_events_type_vacancy", columnList = "event_type, chain_vacancy_id"),
+                @Index(name = "idx_chain_events_block_number", columnList = "block_number")
+        })
+public class ChainEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private ChainEventType eventType;
+
+    @Column(name = "chain_vacancy_id")
+    private Long chainVacancyId;
+
+    @Column(name = "data_hash", length = 64)
+    private String dataHash;
+
+    @Column(name = "secondary_hash", length = 64)
+    private String secondaryHash;
+
+    @Column(name = "candidate", length = 42)
+    private String candidate;
+
+    @Column(name = "set_id", length = 50)
+    private String setId;
+
+    @Column(name = "center_id", length = 100)
+    private String centerId;
+
+    @Column(name = "title")
+    private String title;
+
+    // totalPosts, marks or suspectCount depending on the event
+    @Column(name = "amount")
+    private Long amount;
+
+    @Column(name = "event_timestamp")
+    private Long eventTimestamp;
+
+    @Column(name = "block_number", nullable = false)
+    private Long blockNumber;
+
+    @Column(name = "block_hash", length = 66, nullable = false)
+    private String blockHash;
+
+    @Column(name = "tx_hash", length = 66, nullable = false)
+    private String txHash;
+
+    @Column(name = "log_index", nullable = false)
+    private Integer logIndex;
+
+    @CreationTimestamp
+    @Column(name = "indexed_at", nullable = false, updatable = false)
+    private LocalDateTime indexedAt;
+}
@@ -0,0 +1,31 @@
+package com.jobchain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "chain_indexer_checkpoints")
+public class ChainIndexerCheckpointEntity {
+
+    // Contract address the checkpoint belongs to
+    @Id
+    @Column(name = "contract_address", length = 42, updatable = false, nullable = false)
+    private String contractAddress;
+
+    @Column(name = "last_processed_block", nullable = false)
+    private Long lastProcessedBlock;
+
+    @Column(name = "last_processed_block_hash", length = 66)
+    private String lastProcessedBlockHash;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
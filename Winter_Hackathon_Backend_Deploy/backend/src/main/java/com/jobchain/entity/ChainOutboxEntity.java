@@ -0,0 +1,66 @@
+package com.jobchain.entity;
+
+import com.jobchain.entity.enums.AnchorType;
+import com.jobchain.entity.enums.ChainStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Pending on-chain write. Rows are inserted in the same transaction as the
+ * entity they anchor and drained by {@code ChainOutboxDispatcher}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "chain_outbox", indexes = {
+        @Index(name = "idx_chain_outbox_status_next", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_chain_outbox_aggregate", columnList = "aggregate_type, aggregate_id"),
+        @Index(name = "idx_chain_outbox_status_updated", columnList = "status, updated_at")
+})
+public class ChainOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate_type", nullable = false, length = 20)
+    private AnchorType aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private UUID aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private ChainStatus status = ChainStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "blockchain_tx_hash", length = 66)
+    private String blockchainTxHash;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
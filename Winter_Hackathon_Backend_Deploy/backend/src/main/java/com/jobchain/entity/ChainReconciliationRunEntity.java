@@ -0,0 +1,68 @@
+package com.jobchain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Summary of one {@code ChainReconciliationService} run: how many rows were looked
+ * at, how many receipts checked out, and how many were sent back to the outbox.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "chain_reconciliation_runs", indexes = {
+        @Index(name = "idx_chain_reconciliation_runs_started_at", columnList = "started_at")
+})
+public class ChainReconciliationRunEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "scanned", nullable = false)
+    private int scanned;
+
+    // Receipt found with status 1
+    @Column(name = "confirmed", nullable = false)
+    private int confirmed;
+
+    // Confirmed rows whose chain status was not ANCHORED yet
+    @Column(name = "status_repaired", nullable = false)
+    private int statusRepaired;
+
+    @Column(name = "missing_hash", nullable = false)
+    private int missingHash;
+
+    // Hash stored but no receipt on chain
+    @Column(name = "dropped", nullable = false)
+    private int dropped;
+
+    @Column(name = "reverted", nullable = false)
+    private int reverted;
+
+    @Column(name = "requeued", nullable = false)
+    private int requeued;
+
+    // Receipt lookups that returned an RPC error, or hashes the watchdog is still following
+    @Column(name = "skipped", nullable = false)
+    private int skipped;
+
+    // The run stopped at the requeue limit; the rest is picked up next time
+    @Column(name = "truncated", nullable = false)
+    private boolean truncated;
+
+    @Column(name = "error", length = 500)
+    private String error;
+}
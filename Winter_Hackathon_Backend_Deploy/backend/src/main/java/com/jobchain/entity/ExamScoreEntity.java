@@ -1,5 +1,6 @@
 package com.jobchain.entity;
 
+import com.jobchain.entity.enums.ChainStatus;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -43,6 +44,10 @@ public class ExamScoreEntity {
     @Column(name = "blockchain_tx_hash", length = 66)
     private String blockchainTxHash;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "chain_status", length = 20)
+    private ChainStatus chainStatus;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -1,5 +1,6 @@
 package com.jobchain.entity;
 
+import com.jobchain.entity.enums.ChainStatus;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -38,6 +39,13 @@ public class FraudAlertEntity {
     @Column(name = "evidence_hash", length = 64)
     private String evidenceHash;
 
+    @Column(name = "blockchain_tx_hash", length = 66)
+    private String blockchainTxHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "chain_status", length = 20)
+    private ChainStatus chainStatus;
+
     @CreationTimestamp
     @Column(name = "timestamp", nullable = false, updatable = false)
     private LocalDateTime timestamp;
@@ -1,5 +1,6 @@
 package com.jobchain.entity;
 
+import com.jobchain.entity.enums.ChainStatus;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -35,6 +36,10 @@ public class MeritListEntity {
     @Column(name = "blockchain_tx_hash", length = 66)
     private String blockchainTxHash;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "chain_status", length = 20)
+    private ChainStatus chainStatus;
+
     @Column(name = "verified", nullable = false)
     @Builder.Default
     private boolean verified = false;
@@ -0,0 +1,44 @@
+package com.jobchain.entity;
+
+import com.jobchain.entity.enums.ChainStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "merkle_batches", indexes = {
+        @Index(name = "idx_merkle_batches_vacancy_id", columnList = "vacancy_id")
+})
+public class MerkleBatchEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "vacancy_id", nullable = false)
+    private UUID vacancyId;
+
+    @Column(name = "root_hash", length = 64, nullable = false)
+    private String rootHash;
+
+    @Column(name = "leaf_count", nullable = false)
+    private int leafCount;
+
+    @Column(name = "blockchain_tx_hash", length = 66)
+    private String blockchainTxHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "chain_status", length = 20)
+    private ChainStatus chainStatus;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,5 +1,6 @@
 package com.jobchain.entity;
 
+import com.jobchain.entity.enums.ChainStatus;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -41,5 +42,9 @@ public class PaperSetEntity {
     @Column(name = "blockchain_tx_hash", length = 66)
     private String blockchainTxHash;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "chain_status", length = 20)
+    private ChainStatus chainStatus;
+
     private String centerId;
 }
\ No newline at end of file
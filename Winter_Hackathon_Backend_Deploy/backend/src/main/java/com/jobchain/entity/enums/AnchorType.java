@@ -0,0 +1,13 @@
+package com.jobchain.entity.enums;
+
+public enum AnchorType {
+    VACANCY,
+    APPLICATION,
+    EXAM_SCORE,
+    MERIT_LIST,
+    PAPER_SET,
+    FRAUD_ALERT,
+    MERKLE_BATCH,
+    OMR_SCAN,
+    AUDIT_HEAD
+}
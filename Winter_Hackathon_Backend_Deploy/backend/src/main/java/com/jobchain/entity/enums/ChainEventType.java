@@ -0,0 +1,13 @@
+package com.jobchain.entity.enums;
+
+public enum ChainEventType {
+    VACANCY_CREATED,
+    APPLICATION_LOGGED,
+    MARKS_RECORDED,
+    MERIT_PUBLISHED,
+    OMR_SCANNED,
+    PAPER_DISTRIBUTED,
+    PAPER_LEAK_DETECTED,
+    PAPER_LOCKED,
+    ANSWER_KEY_RECORDED
+}
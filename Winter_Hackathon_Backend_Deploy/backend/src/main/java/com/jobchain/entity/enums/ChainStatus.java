@@ -0,0 +1,8 @@
+package com.jobchain.entity.enums;
+
+public enum ChainStatus {
+    PENDING,
+    SUBMITTED,
+    ANCHORED,
+    FAILED
+}
@@ -1,23 +1,186 @@
 package com.jobchain.repository;
 
+import com.jobchain.dto.ApplicationResponse;
 import com.jobchain.entity.ApplicationEntity;
+import com.jobchain.entity.enums.ChainStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ApplicationRepository extends JpaRepository<ApplicationEntity, UUID> {
 
     List<ApplicationEntity> findByVacancyId(UUID vacancyId);
+
+    boolean existsByVacancyIdAndEmail(UUID vacancyId, String email);
+
+    boolean existsByIdAndSubmittedBy(UUID id, String submittedBy);
     @Query("SELECT a.id, a.vacancyId, a.candidateName, a.email, a.category, a.appHash, " +
             "a.status, a.blockchainTxHash, a.createdAt, a.testAttempted " +
             "FROM ApplicationEntity a WHERE a.vacancyId = :vacancyId")
     List<Object[]> findApplicationsByVacancyIdWithoutLob(@Param("vacancyId") UUID vacancyId);
+
+    // Marks are joined in rather than looked up per row; an application has at most one exam score
+    @Query("SELECT new com.jobchain.dto.ApplicationResponse(a.id, a.vacancyId, a.candidateName, a.email, " +
+            "a.category, a.appHash, a.status, a.blockchainTxHash, a.chainStatus, a.createdAt, s.marks, " +
+            "a.testAttempted) " +
+            "FROM ApplicationEntity a LEFT JOIN ExamScoreEntity s ON s.applicationId = a.id " +
+            "WHERE a.id = :id")
+    Optional<ApplicationResponse> findResponseById(@Param("id") UUID id);
+
+    @Query("SELECT new com.jobchain.dto.ApplicationResponse(a.id, a.vacancyId, a.candidateName, a.email, " +
+            "a.category, a.appHash, a.status, a.blockchainTxHash, a.chainStatus, a.createdAt, s.marks, " +
+            "a.testAttempted) " +
+            "FROM ApplicationEntity a LEFT JOIN ExamScoreEntity s ON s.applicationId = a.id " +
+            "WHERE a.id = :id AND a.submittedBy = :submittedBy")
+    Optional<ApplicationResponse> findResponseByIdAndSubmittedBy(@Param("id") UUID id,
+                                                                 @Param("submittedBy") String submittedBy);
+
+    @Query("SELECT new com.jobchain.dto.ApplicationResponse(a.id, a.vacancyId, a.candidateName, a.email, " +
+            "a.category, a.appHash, a.status, a.blockchainTxHash, a.chainStatus, a.createdAt, s.marks, " +
+            "a.testAttempted) " +
+            "FROM ApplicationEntity a LEFT JOIN ExamScoreEntity s ON s.applicationId = a.id " +
+            "WHERE a.id IN :ids")
+    List<ApplicationResponse> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Keyset page on (createdAt, id); null filters match everything. The leading createdAt >= bound
+    // gives the planner a range start on (vacancy_id, created_at, id), which the OR alone does not
+    @Query("SELECT new com.jobchain.dto.ApplicationResponse(a.id, a.vacancyId, a.candidateName, a.email, " +
+            "a.category, a.appHash, a.status, a.blockchainTxHash, a.chainStatus, a.createdAt, s.marks, " +
+            "a.testAttempted) " +
+            "FROM ApplicationEntity a LEFT JOIN ExamScoreEntity s ON s.applicationId = a.id " +
+            "WHERE a.vacancyId = :vacancyId " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:category IS NULL OR a.category = :category) " +
+            "AND (:testAttempted IS NULL OR a.testAttempted = :testAttempted) " +
+            "AND a.createdAt >= :afterCreatedAt " +
+            "AND (a.createdAt > :afterCreatedAt OR a.id > :afterId) " +
+            "ORDER BY a.createdAt, a.id")
+    List<ApplicationResponse> findResponsePage(
+            @Param("vacancyId") UUID vacancyId,
+            @Param("status") String status,
+            @Param("category") String category,
+            @Param("testAttempted") Boolean testAttempted,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") UUID afterId,
+            Pageable pageable);
+
+    // Read through a server-side cursor; the caller must consume it inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.jobchain.dto.ApplicationResponse(a.id, a.vacancyId, a.candidateName, a.email, " +
+            "a.category, a.appHash, a.status, a.blockchainTxHash, a.chainStatus, a.createdAt, s.marks, " +
+            "a.testAttempted) " +
+            "FROM ApplicationEntity a LEFT JOIN ExamScoreEntity s ON s.applicationId = a.id " +
+            "WHERE a.vacancyId = :vacancyId " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:category IS NULL OR a.category = :category) " +
+            "AND (:testAttempted IS NULL OR a.testAttempted = :testAttempted) " +
+            "ORDER BY a.createdAt, a.id")
+    Stream<ApplicationResponse> streamResponses(
+            @Param("vacancyId") UUID vacancyId,
+            @Param("status") String status,
+            @Param("category") String category,
+            @Param("testAttempted") Boolean testAttempted);
     Optional<ApplicationEntity> findById(UUID applicationId);
 
-}
\ No newline at end of file
+    @Query("""
+        SELECT a.vacancyId, COUNT(a), MIN(a.createdAt)
+        FROM ApplicationEntity a
+        WHERE a.chainStatus = com.jobchain.entity.enums.ChainStatus.PENDING
+          AND a.merkleBatchId IS NULL
+          AND NOT EXISTS (
+              SELECT 1 FROM ChainOutboxEntity o
+              WHERE o.aggregateType = com.jobchain.entity.enums.AnchorType.APPLICATION
+                AND o.aggregateId = a.id
+          )
+        GROUP BY a.vacancyId
+    """)
+    List<Object[]> findUnbatchedSummaryByVacancy();
+
+    @Query(value = """
+        SELECT a.id, a.app_hash
+        FROM applications a
+        WHERE a.vacancy_id = :vacancyId
+          AND a.chain_status = 'PENDING'
+          AND a.merkle_batch_id IS NULL
+          AND NOT EXISTS (
+              SELECT 1 FROM chain_outbox o
+              WHERE o.aggregate_type = 'APPLICATION' AND o.aggregate_id = a.id
+          )
+        ORDER BY a.created_at, a.id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<Object[]> lockUnbatchedByVacancyId(
+            @Param("vacancyId") UUID vacancyId,
+            @Param("limit") int limit
+    );
+
+    @Modifying
+    @Query("""
+        UPDATE ApplicationEntity a
+        SET a.chainStatus = :status
+        WHERE a.merkleBatchId = :batchId
+    """)
+    int updateChainStatusByMerkleBatchId(
+            @Param("batchId") UUID batchId,
+            @Param("status") ChainStatus status
+    );
+
+    @Modifying
+    @Query("""
+        UPDATE ApplicationEntity a
+        SET a.chainStatus = com.jobchain.entity.enums.ChainStatus.ANCHORED,
+            a.blockchainTxHash = :txHash
+        WHERE a.merkleBatchId = :batchId
+    """)
+    int markAnchoredByMerkleBatchId(
+            @Param("batchId") UUID batchId,
+            @Param("txHash") String txHash
+    );
+
+    // Keyset page for the reconciler: rows with no hash and nothing queued, or with a hash the indexer
+    // has never seen. Rows the outbox touched after :cutoff, or still has PENDING, are left to the outbox;
+    // a SUBMITTED entry older than that is one a crash stranded. PENDING rows without a batch are still
+    // waiting for MerkleAnchoringService, which the status filter already skips.
+    @Query(value = """
+        SELECT a.id, a.blockchain_tx_hash, a.chain_status, a.merkle_batch_id
+        FROM applications a
+        WHERE a.id > :after
+          AND a.created_at < :cutoff
+          AND (
+              (a.blockchain_tx_hash IS NULL
+                  AND (a.chain_status IS NULL OR a.chain_status IN ('SUBMITTED', 'FAILED', 'ANCHORED')))
+              OR (a.blockchain_tx_hash IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM chain_events c WHERE c.tx_hash = a.blockchain_tx_hash))
+          )
+          AND NOT EXISTS (
+              SELECT 1 FROM chain_outbox o
+              WHERE o.aggregate_type IN ('APPLICATION', 'MERKLE_BATCH') AND o.aggregate_id IN (a.id, a.merkle_batch_id)
+                AND (o.status = 'PENDING' OR o.updated_at > :cutoff)
+          )
+        ORDER BY a.id
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Object[]> findReconcileCandidates(
+            @Param("after") UUID after,
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("limit") int limit
+    );
+}
@@ -0,0 +1,22 @@
+package com.jobchain.repository;
+
+import com.jobchain.entity.AuditAnchorEntity;
+import com.jobchain.entity.enums.ChainStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface AuditAnchorRepository extends JpaRepository<AuditAnchorEntity, UUID> {
+
+    Optional<AuditAnchorEntity> findFirstByJournalIdOrderBySequenceDesc(String journalId);
+
+    Optional<AuditAnchorEntity> findFirstByJournalIdAndChainStatusOrderBySequenceDesc(
+            String journalId, ChainStatus chainStatus);
+
+    // The earliest mined anchor that covers the given journal entry
+    Optional<AuditAnchorEntity> findFirstByJournalIdAndSequenceGreaterThanEqualAndChainStatusOrderBySequenceAsc(
+            String journalId, long sequence, ChainStatus chainStatus);
+}
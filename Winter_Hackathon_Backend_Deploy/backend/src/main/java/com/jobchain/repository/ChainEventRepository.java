@@ -0,0 +1,29 @@
+package com.jobchain.repository;
+
+import com.jobchain.entity.ChainEventEntity;
+import com.jobchain.entity.enums.ChainEventType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ChainEventRepository extends JpaRepository<ChainEventEntity, UUID> {
+
+    List<ChainEventEntity> findByDataHashOrderByBlockNumberAsc(String dataHash);
+
+    List<ChainEventEntity> findByChainVacancyIdOrderByBlockNumberAscLogIndexAsc(Long chainVacancyId);
+
+    List<ChainEventEntity> findByEventTypeAndChainVacancyIdOrderByBlockNumberAscLogIndexAsc(
+            ChainEventType eventType,
+            Long chainVacancyId
+    );
+
+    @Modifying
+    @Query("DELETE FROM ChainEventEntity e WHERE e.blockNumber > :blockNumber")
+    int deleteAfterBlock(@Param("blockNumber") Long blockNumber);
+}
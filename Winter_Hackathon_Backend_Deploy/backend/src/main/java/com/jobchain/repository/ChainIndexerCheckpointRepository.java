@@ -0,0 +1,9 @@
+package com.jobchain.repository;
+
+import com.jobchain.entity.ChainIndexerCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChainIndexerCheckpointRepository extends JpaRepository<ChainIndexerCheckpointEntity, String> {
+}
@@ -0,0 +1,81 @@
+package com.jobchain.repository;
+
+import com.jobchain.entity.ChainOutboxEntity;
+import com.jobchain.entity.enums.AnchorType;
+import com.jobchain.entity.enums.ChainStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ChainOutboxRepository extends JpaRepository<ChainOutboxEntity, UUID> {
+
+    // SUBMITTED entries not touched since :leaseExpiry belong to an instance that died mid-flight.
+    // Entries whose vacancy has no chain id yet are left where they are until it does.
+    @Query(value = """
+        SELECT * FROM chain_outbox o
+        WHERE ((o.status = 'PENDING' AND o.next_attempt_at <= :now)
+               OR (o.status = 'SUBMITTED' AND o.updated_at < :leaseExpiry))
+          AND NOT EXISTS (
+              SELECT 1 FROM vacancies v
+              WHERE v.blockchain_vacancy_id IS NULL
+                AND v.id = CASE o.aggregate_type
+                    WHEN 'APPLICATION' THEN (SELECT a.vacancy_id FROM applications a WHERE a.id = o.aggregate_id)
+                    WHEN 'EXAM_SCORE' THEN (SELECT e.vacancy_id FROM exam_scores e WHERE e.id = o.aggregate_id)
+                    WHEN 'MERIT_LIST' THEN (SELECT m.vacancy_id FROM merit_lists m WHERE m.id = o.aggregate_id)
+                    WHEN 'PAPER_SET' THEN (SELECT p.vacancy_id FROM paper_sets p WHERE p.id = o.aggregate_id)
+                    WHEN 'FRAUD_ALERT' THEN (SELECT f.vacancy_id FROM fraud_alerts f WHERE f.id = o.aggregate_id)
+                    WHEN 'MERKLE_BATCH' THEN (SELECT b.vacancy_id FROM merkle_batches b WHERE b.id = o.aggregate_id)
+                END)
+        ORDER BY o.created_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<ChainOutboxEntity> lockDueEntries(
+            @Param("now") LocalDateTime now,
+            @Param("leaseExpiry") LocalDateTime leaseExpiry,
+            @Param("limit") int limit
+    );
+
+    long countByStatus(ChainStatus status);
+
+    // Retires claims a crash left behind so they cannot be resumed next to a fresh entry
+    @Modifying
+    @Query("""
+        UPDATE ChainOutboxEntity o
+        SET o.status = com.jobchain.entity.enums.ChainStatus.FAILED,
+            o.lastError = :reason,
+            o.updatedAt = CURRENT_TIMESTAMP
+        WHERE o.aggregateType = :aggregateType
+          AND o.aggregateId = :aggregateId
+          AND o.status = com.jobchain.entity.enums.ChainStatus.SUBMITTED
+    """)
+    int failSubmitted(
+            @Param("aggregateType") AnchorType aggregateType,
+            @Param("aggregateId") UUID aggregateId,
+            @Param("reason") String reason
+    );
+
+    // Heartbeat for claims this instance is still waiting on, so their lease does not expire
+    @Modifying
+    @Query("""
+        UPDATE ChainOutboxEntity o
+        SET o.updatedAt = CURRENT_TIMESTAMP
+        WHERE o.id IN :ids
+          AND o.status = com.jobchain.entity.enums.ChainStatus.SUBMITTED
+    """)
+    int renewLeases(@Param("ids") Collection<UUID> ids);
+
+    Optional<ChainOutboxEntity> findFirstByAggregateTypeAndAggregateIdOrderByCreatedAtDesc(
+            AnchorType aggregateType,
+            UUID aggregateId
+    );
+}
@@ -0,0 +1,15 @@
+package com.jobchain.repository;
+
+import com.jobchain.entity.ChainReconciliationRunEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ChainReconciliationRunRepository extends JpaRepository<ChainReconciliationRunEntity, UUID> {
+
+    List<ChainReconciliationRunEntity> findAllByOrderByStartedAtDesc(Pageable pageable);
+}
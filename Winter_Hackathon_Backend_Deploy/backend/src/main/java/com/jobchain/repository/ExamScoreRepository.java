@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -40,4 +41,29 @@ public interface ExamScoreRepository extends JpaRepository<ExamScoreEntity, UUID
 
     boolean existsByApplicationId(UUID applicationId);
 
+    // Same candidate rules as ApplicationRepository#findReconcileCandidates
+    @Query(value = """
+        SELECT e.id, e.blockchain_tx_hash, e.chain_status
+        FROM exam_scores e
+        WHERE e.id > :after
+          AND e.created_at < :cutoff
+          AND (
+              (e.blockchain_tx_hash IS NULL
+                  AND (e.chain_status IS NULL OR e.chain_status IN ('SUBMITTED', 'FAILED', 'ANCHORED')))
+              OR (e.blockchain_tx_hash IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM chain_events c WHERE c.tx_hash = e.blockchain_tx_hash))
+          )
+          AND NOT EXISTS (
+              SELECT 1 FROM chain_outbox o
+              WHERE o.aggregate_type = 'EXAM_SCORE' AND o.aggregate_id = e.id
+                AND (o.status = 'PENDING' OR o.updated_at > :cutoff)
+          )
+        ORDER BY e.id
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Object[]> findReconcileCandidates(
+            @Param("after") UUID after,
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("limit") int limit
+    );
 }
\ No newline at end of file
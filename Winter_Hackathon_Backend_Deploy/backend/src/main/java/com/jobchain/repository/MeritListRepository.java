@@ -2,8 +2,12 @@ package com.jobchain.repository;
 
 import com.jobchain.entity.MeritListEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,4 +16,30 @@ public interface MeritListRepository extends JpaRepository<MeritListEntity, UUID
 
     Optional<MeritListEntity> findByVacancyId(UUID vacancyId);
     boolean existsByVacancyId(UUID vacancyId);
+
+    // Same candidate rules as ApplicationRepository#findReconcileCandidates
+    @Query(value = """
+        SELECT m.id, m.blockchain_tx_hash, m.chain_status
+        FROM merit_lists m
+        WHERE m.id > :after
+          AND m.created_at < :cutoff
+          AND (
+              (m.blockchain_tx_hash IS NULL
+                  AND (m.chain_status IS NULL OR m.chain_status IN ('SUBMITTED', 'FAILED', 'ANCHORED')))
+              OR (m.blockchain_tx_hash IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM chain_events c WHERE c.tx_hash = m.blockchain_tx_hash))
+          )
+          AND NOT EXISTS (
+              SELECT 1 FROM chain_outbox o
+              WHERE o.aggregate_type = 'MERIT_LIST' AND o.aggregate_id = m.id
+                AND (o.status = 'PENDING' OR o.updated_at > :cutoff)
+          )
+        ORDER BY m.id
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Object[]> findReconcileCandidates(
+            @Param("after") UUID after,
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("limit") int limit
+    );
 }
\ No newline at end of file
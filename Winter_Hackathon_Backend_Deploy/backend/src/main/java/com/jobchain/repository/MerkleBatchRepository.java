@@ -0,0 +1,14 @@
+package com.jobchain.repository;
+
+import com.jobchain.entity.MerkleBatchEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MerkleBatchRepository extends JpaRepository<MerkleBatchEntity, UUID> {
+
+    List<MerkleBatchEntity> findByVacancyId(UUID vacancyId);
+}
@@ -2,8 +2,13 @@ package com.jobchain.repository;
 
 import com.jobchain.entity.PaperSetEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +16,40 @@ import java.util.UUID;
 public interface PaperSetRepository extends JpaRepository<PaperSetEntity, UUID> {
 
     List<PaperSetEntity> findByVacancyId(UUID vacancyId);
-}
\ No newline at end of file
+
+    // centerId is only overwritten when a single center was locked
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE PaperSetEntity p
+        SET p.isLocked = true, p.centerId = COALESCE(:centerId, p.centerId)
+        WHERE p.vacancyId = :vacancyId
+    """)
+    int lockAllByVacancyId(@Param("vacancyId") UUID vacancyId, @Param("centerId") String centerId);
+
+    // Same candidate rules as ApplicationRepository#findReconcileCandidates
+    @Query(value = """
+        SELECT p.id, p.blockchain_tx_hash, p.chain_status
+        FROM paper_sets p
+        WHERE p.id > :after
+          AND p.timestamp < :cutoff
+          AND (
+              (p.blockchain_tx_hash IS NULL
+                  AND (p.chain_status IS NULL OR p.chain_status IN ('SUBMITTED', 'FAILED', 'ANCHORED')))
+              OR (p.blockchain_tx_hash IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM chain_events c WHERE c.tx_hash = p.blockchain_tx_hash))
+          )
+          AND NOT EXISTS (
+              SELECT 1 FROM chain_outbox o
+              WHERE o.aggregate_type = 'PAPER_SET' AND o.aggregate_id = p.id
+                AND (o.status = 'PENDING' OR o.updated_at > :cutoff)
+          )
+        ORDER BY p.id
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Object[]> findReconcileCandidates(
+            @Param("after") UUID after,
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("limit") int limit
+    );
+}
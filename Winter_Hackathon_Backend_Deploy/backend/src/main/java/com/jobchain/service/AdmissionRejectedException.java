@@ -0,0 +1,18 @@
+package com.jobchain.service;
+
+/**
+ * The vacancy's waiting room is full; the client should come back after {@code retryAfterSeconds}.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,504 @@
+package com.jobchain.service;
+
+import com.jobchain.dto.AdmissionLaneResponse;
+import com.jobchain.dto.AdmissionStatusResponse;
+import com.jobchain.dto.AdmissionTicketResponse;
+import com.jobchain.dto.ApplicationResponse;
+import com.jobchain.repository.VacancyRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Waiting room in front of application submission. Each vacancy admits up to
+ * {@code rate-per-second} submissions (with {@code burst} headroom) and all vacancies
+ * together run at most {@code workers} at a time. A submission that fits runs straight
+ * away; otherwise it gets a ticket and waits in its vacancy's FIFO queue until the drainer
+ * hands it to the worker pool. A full queue is rejected outright, and a ticket still
+ * queued after {@code max-wait-ms} fails. Lanes are only created for vacancies that exist
+ * and are dropped again once idle.
+ * <p>
+ * Queued submissions live only in memory, so shutdown stops taking new ones and works
+ * through the queues, ignoring the rate limits, for up to {@code shutdown-drain-timeout-ms}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApplicationAdmissionService implements MeterBinder, SmartLifecycle {
+
+    public enum TicketStatus {
+        QUEUED,
+        PROCESSING,
+        COMPLETED,
+        FAILED
+    }
+
+    // Exactly one of the two is set: the result when admitted at once, the ticket when queued.
+    // async marks a ticket the caller asked for rather than one the waiting room imposed
+    public record Admission(ApplicationResponse application, AdmissionTicketResponse ticket, boolean async) {
+    }
+
+    private final VacancyRepository vacancyRepository;
+
+    @Value("${admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${admission.rate-per-second:50}")
+    private double ratePerSecond;
+
+    @Value("${admission.burst:100}")
+    private int burst;
+
+    @Value("${admission.max-queue-depth:20000}")
+    private int maxQueueDepth;
+
+    @Value("${admission.workers:16}")
+    private int workers;
+
+    @Value("${admission.ticket-ttl-ms:600000}")
+    private long ticketTtlMs;
+
+    @Value("${admission.shutdown-drain-timeout-ms:30000}")
+    private long shutdownDrainTimeoutMs;
+
+    @Value("${admission.max-wait-ms:300000}")
+    private long maxWaitMs;
+
+    @Value("${admission.lane-idle-ms:600000}")
+    private long laneIdleMs;
+
+    private final Map<UUID, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<UUID, Ticket> tickets = new ConcurrentHashMap<>();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicInteger drainCursor = new AtomicInteger();
+
+    private Semaphore slots;
+    private ExecutorService workerPool;
+
+    private volatile boolean running;
+    private volatile boolean accepting = true;
+    private volatile boolean flushing;
+
+    @PostConstruct
+    void startWorkers() {
+        slots = new Semaphore(workers);
+        AtomicInteger threadCount = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "admission-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        workerPool.shutdown();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        flushing = true;
+        long deadline = System.currentTimeMillis() + shutdownDrainTimeoutMs;
+
+        log.info("Draining {} queued submissions before shutdown (up to {} ms)", totalQueued(), shutdownDrainTimeoutMs);
+        try {
+            while ((totalQueued() > 0 || slots.availablePermits() < workers)
+                    && System.currentTimeMillis() < deadline) {
+                drain();
+                Thread.sleep(5);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workerPool.shutdown();
+        running = false;
+
+        List<UUID> unfinished = tickets.values().stream()
+                .filter(ticket -> ticket.status == TicketStatus.QUEUED || ticket.status == TicketStatus.PROCESSING)
+                .map(ticket -> ticket.id)
+                .toList();
+        if (unfinished.isEmpty()) {
+            log.info("All queued submissions processed");
+        } else {
+            log.error("{} accepted submissions were not stored before shutdown: {}", unfinished.size(), unfinished);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // After the web server's graceful shutdown (DEFAULT_PHASE - 1024) and before the chain
+    // shutdown coordinator (DEFAULT_PHASE - 1536), so drained submissions reach the outbox first
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1280;
+    }
+
+    public Admission admit(UUID vacancyId, String owner, Supplier<ApplicationResponse> submit) {
+        rejectIfStopping();
+        if (!enabled) {
+            return new Admission(submit.get(), null, false);
+        }
+
+        Lane lane = lane(vacancyId);
+        synchronized (lane) {
+            if (lane.evicted) {
+                return admit(vacancyId, owner, submit);
+            }
+            lane.touch();
+            // Nobody may overtake a queued ticket, so the fast path needs an empty queue
+            boolean fast = lane.queue.isEmpty() && lane.tryAcquire();
+            if (fast && !slots.tryAcquire()) {
+                lane.refund();
+                fast = false;
+            }
+
+            if (!fast) {
+                return new Admission(null, queue(lane, UUID.randomUUID(), owner, submit), false);
+            }
+        }
+
+        lane.admitted.incrementAndGet();
+        admitted.incrementAndGet();
+        try {
+            return new Admission(submit.get(), null, false);
+        } finally {
+            slots.release();
+        }
+    }
+
+    /**
+     * Always queues, even when the submission could run at once, so the caller returns
+     * straight away. The ticket id is chosen by the caller; async submissions use the
+     * application id they have already handed out. Runs even when the waiting room is
+     * disabled, since the queue is what does the work in the background.
+     */
+    public Admission enqueue(UUID ticketId, UUID vacancyId, String owner, Supplier<ApplicationResponse> submit) {
+        rejectIfStopping();
+        Lane lane = lane(vacancyId);
+        synchronized (lane) {
+            if (lane.evicted) {
+                return enqueue(ticketId, vacancyId, owner, submit);
+            }
+            return new Admission(null, queue(lane, ticketId, owner, submit), true);
+        }
+    }
+
+    public Optional<AdmissionTicketResponse> getTicket(UUID ticketId, String owner) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null || !ticket.owner.equals(owner)) {
+            return Optional.empty();
+        }
+        return Optional.of(toResponse(ticket, lanes.get(ticket.vacancyId)));
+    }
+
+    @Scheduled(fixedDelayString = "${admission.drain-interval-ms:50}")
+    public void drain() {
+        List<Lane> snapshot = List.copyOf(lanes.values());
+        if (snapshot.isEmpty() || workerPool.isShutdown()) return;
+
+        // Rotate the starting lane so a saturated pool does not always favour the same vacancy
+        int start = Math.floorMod(drainCursor.getAndIncrement(), snapshot.size());
+        drainLanes:
+        for (int i = 0; i < snapshot.size(); i++) {
+            Lane lane = snapshot.get((start + i) % snapshot.size());
+            while (true) {
+                Ticket ticket;
+                synchronized (lane) {
+                    // stop() gave up draining; whatever is left stays queued and is reported there
+                    if (workerPool.isShutdown()) break drainLanes;
+                    if (!flushing) expireWaiting(lane);
+                    // While shutting down only the worker pool limits the drain
+                    boolean limited = !flushing;
+                    if (lane.queue.isEmpty() || (limited && !lane.tryAcquire())) break;
+                    if (!slots.tryAcquire()) {
+                        if (limited) lane.refund();
+                        break drainLanes;
+                    }
+                    ticket = lane.queue.poll();
+                    lane.lastDequeued = ticket.sequence;
+                }
+
+                ticket.status = TicketStatus.PROCESSING;
+                try {
+                    workerPool.execute(() -> process(ticket));
+                } catch (RejectedExecutionException e) {
+                    // Shut down between the check and the hand-off: put the ticket back where it was
+                    synchronized (lane) {
+                        lane.queue.addFirst(ticket);
+                        lane.lastDequeued = ticket.sequence - 1;
+                        if (!flushing) lane.refund();
+                    }
+                    ticket.status = TicketStatus.QUEUED;
+                    slots.release();
+                    break drainLanes;
+                }
+                lane.admitted.incrementAndGet();
+                admitted.incrementAndGet();
+            }
+        }
+
+        long now = System.nanoTime();
+        snapshot.forEach(lane -> lane.sampleRate(now));
+    }
+
+    @Scheduled(fixedDelayString = "${admission.eviction-interval-ms:60000}")
+    public void evictTickets() {
+        long now = System.currentTimeMillis();
+        long cutoff = now - ticketTtlMs;
+        tickets.values().removeIf(ticket -> ticket.finishedAt > 0 && ticket.finishedAt < cutoff);
+
+        // An evicted lane is marked under its monitor, so a caller still holding it starts over
+        for (Lane lane : lanes.values()) {
+            synchronized (lane) {
+                if (lane.queue.isEmpty() && now - lane.lastActiveAt > laneIdleMs) {
+                    lane.evicted = true;
+                    lanes.remove(lane.vacancyId, lane);
+                }
+            }
+        }
+    }
+
+    public AdmissionStatusResponse getStatus() {
+        List<AdmissionLaneResponse> laneResponses = lanes.values().stream()
+                .map(lane -> AdmissionLaneResponse.builder()
+                        .vacancyId(lane.vacancyId)
+                        .queueDepth(lane.depth())
+                        .drainRatePerSecond(lane.drainRate)
+                        .admitted(lane.admitted.get())
+                        .build())
+                .sorted(Comparator.comparingInt(AdmissionLaneResponse::getQueueDepth).reversed())
+                .toList();
+
+        return AdmissionStatusResponse.builder()
+                .enabled(enabled)
+                .ratePerSecond(ratePerSecond)
+                .totalQueued(totalQueued())
+                .processing(workers - slots.availablePermits())
+                .workers(workers)
+                .lanes(laneResponses)
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("admission.queue.depth", this, ApplicationAdmissionService::totalQueued)
+                .description("Submissions waiting in a vacancy queue")
+                .register(registry);
+        Gauge.builder("admission.processing", this, service -> workers - slots.availablePermits())
+                .description("Submissions currently being processed")
+                .register(registry);
+        Gauge.builder("admission.drain_rate", this,
+                        service -> service.lanes.values().stream().mapToDouble(lane -> lane.drainRate).sum())
+                .description("Submissions admitted per second across all vacancies")
+                .register(registry);
+        FunctionCounter.builder("admission.admitted", admitted, AtomicLong::get)
+                .register(registry);
+        FunctionCounter.builder("admission.rejected", rejected, AtomicLong::get)
+                .description("Submissions turned away because the waiting room was full")
+                .register(registry);
+    }
+
+    private void process(Ticket ticket) {
+        try {
+            ticket.result = ticket.work.get();
+            ticket.status = TicketStatus.COMPLETED;
+        } catch (RuntimeException e) {
+            ticket.error = e.getMessage();
+            ticket.status = TicketStatus.FAILED;
+            log.warn("Queued submission {} for vacancy {} failed: {}", ticket.id, ticket.vacancyId, e.getMessage());
+        } finally {
+            ticket.work = null;
+            ticket.finishedAt = System.currentTimeMillis();
+            slots.release();
+        }
+    }
+
+    // Lanes are only created for vacancies that exist, so random ids cannot grow the map
+    private Lane lane(UUID vacancyId) {
+        Lane lane = lanes.get(vacancyId);
+        if (lane != null) {
+            return lane;
+        }
+        if (!vacancyRepository.existsById(vacancyId)) {
+            throw new IllegalArgumentException("Vacancy not found: " + vacancyId);
+        }
+        return lanes.computeIfAbsent(vacancyId, Lane::new);
+    }
+
+    // Caller holds the lane's monitor; the queue is FIFO, so only its head needs checking
+    private void expireWaiting(Lane lane) {
+        long cutoff = System.currentTimeMillis() - maxWaitMs;
+        while (!lane.queue.isEmpty() && lane.queue.peek().enqueuedAt < cutoff) {
+            Ticket ticket = lane.queue.poll();
+            lane.lastDequeued = ticket.sequence;
+            ticket.work = null;
+            ticket.error = "Waited longer than " + maxWaitMs / 1000 + "s in the queue";
+            ticket.status = TicketStatus.FAILED;
+            ticket.finishedAt = System.currentTimeMillis();
+            rejected.incrementAndGet();
+            log.warn("Queued submission {} for vacancy {} timed out", ticket.id, ticket.vacancyId);
+        }
+    }
+
+    private void rejectIfStopping() {
+        if (!accepting) {
+            rejected.incrementAndGet();
+            throw new AdmissionRejectedException("Shutting down, not accepting submissions", 5);
+        }
+    }
+
+    // Caller holds the lane's monitor
+    private AdmissionTicketResponse queue(Lane lane, UUID ticketId, String owner, Supplier<ApplicationResponse> submit) {
+        if (lane.queue.size() >= maxQueueDepth) {
+            rejected.incrementAndGet();
+            throw new AdmissionRejectedException("Waiting room for vacancy " + lane.vacancyId + " is full",
+                    (long) Math.ceil(lane.queue.size() / effectiveRate(lane)));
+        }
+
+        Ticket ticket = new Ticket(ticketId, lane.vacancyId, owner, ++lane.lastIssued, submit);
+        lane.queue.add(ticket);
+        lane.touch();
+        tickets.put(ticket.id, ticket);
+        return toResponse(ticket, lane);
+    }
+
+    private int totalQueued() {
+        return lanes.values().stream().mapToInt(Lane::depth).sum();
+    }
+
+    private double effectiveRate(Lane lane) {
+        return lane.drainRate > 0 ? Math.min(lane.drainRate, ratePerSecond) : ratePerSecond;
+    }
+
+    private AdmissionTicketResponse toResponse(Ticket ticket, Lane lane) {
+        long position = ticket.status == TicketStatus.QUEUED && lane != null
+                ? Math.max(1, ticket.sequence - lane.lastDequeued)
+                : 0;
+
+        return AdmissionTicketResponse.builder()
+                .ticketId(ticket.id)
+                .vacancyId(ticket.vacancyId)
+                .status(ticket.status.name())
+                .position(position)
+                .estimatedWaitSeconds(position == 0 ? 0 : (long) Math.ceil(position / effectiveRate(lane)))
+                .createdAt(ticket.createdAt)
+                .application(ticket.result)
+                .error(ticket.error)
+                .build();
+    }
+
+    private static final class Ticket {
+
+        private final UUID id;
+        private final UUID vacancyId;
+        private final String owner;
+        private final long sequence;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final long enqueuedAt = System.currentTimeMillis();
+
+        private volatile Supplier<ApplicationResponse> work;
+        private volatile TicketStatus status = TicketStatus.QUEUED;
+        private volatile ApplicationResponse result;
+        private volatile String error;
+        private volatile long finishedAt;
+
+        private Ticket(UUID id, UUID vacancyId, String owner, long sequence, Supplier<ApplicationResponse> work) {
+            this.id = id;
+            this.vacancyId = vacancyId;
+            this.owner = owner;
+            this.sequence = sequence;
+            this.work = work;
+        }
+    }
+
+    // Token bucket plus FIFO queue for one vacancy; queue and bucket are guarded by the lane's monitor
+    private final class Lane {
+
+        private final UUID vacancyId;
+        private final ArrayDeque<Ticket> queue = new ArrayDeque<>();
+        private final AtomicLong admitted = new AtomicLong();
+
+        private double tokens = burst;
+        private long refilledAt = System.nanoTime();
+        private long lastIssued;
+        private volatile long lastDequeued;
+
+        private volatile double drainRate;
+        private long sampledAdmitted;
+        private long sampledAt = System.nanoTime();
+
+        private long lastActiveAt = System.currentTimeMillis();
+        private boolean evicted;
+
+        private Lane(UUID vacancyId) {
+            this.vacancyId = vacancyId;
+        }
+
+        private boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) / 1e9 * ratePerSecond);
+            refilledAt = now;
+            if (tokens < 1) return false;
+            tokens -= 1;
+            return true;
+        }
+
+        private void refund() {
+            tokens = Math.min(burst, tokens + 1);
+        }
+
+        private void touch() {
+            lastActiveAt = System.currentTimeMillis();
+        }
+
+        private synchronized int depth() {
+            return queue.size();
+        }
+
+        // Exponentially smoothed admissions per second, sampled at most once a second
+        private void sampleRate(long now) {
+            double elapsed = (now - sampledAt) / 1e9;
+            if (elapsed < 1) return;
+            long count = admitted.get();
+            double current = (count - sampledAdmitted) / elapsed;
+            drainRate = drainRate == 0 ? current : 0.3 * current + 0.7 * drainRate;
+            sampledAdmitted = count;
+            sampledAt = now;
+        }
+    }
+}
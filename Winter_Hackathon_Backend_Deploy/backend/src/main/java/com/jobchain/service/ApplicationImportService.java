@@ -0,0 +1,447 @@
+package com.jobchain.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobchain.dto.ApplicationImportResponse;
+import com.jobchain.dto.CreateApplicationRequest;
+import com.jobchain.dto.ImportRowErrorResponse;
+import com.jobchain.entity.enums.AnchorType;
+import com.jobchain.entity.enums.ChainStatus;
+import com.jobchain.repository.VacancyRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk intake for offline registration drives and portal migrations. The upload is read
+ * line by line; chunks of {@code chunk-size} rows are parsed, validated and hashed on a
+ * worker pool while earlier chunks are written, in order, as JDBC batch inserts. A chunk
+ * whose batch fails is retried row by row so only the offending rows are rejected.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApplicationImportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final String INSERT_APPLICATION = "INSERT INTO applications (id, vacancy_id, candidate_name, "
+            + "email, category, marks_10, marks_12, app_json, app_hash, status, chain_status, created_at, "
+            + "test_attempted, omr_verified) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, false)";
+
+    private static final String INSERT_OUTBOX = "INSERT INTO chain_outbox (id, aggregate_type, aggregate_id, "
+            + "status, attempts, next_attempt_at, created_at, updated_at) VALUES (?, ?, ?, ?, 0, ?, ?, ?)";
+
+    private static final List<String> CSV_COLUMNS =
+            List.of("vacancyid", "candidatename", "email", "category", "marks10", "marks12");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final VacancyRepository vacancyRepository;
+    private final MerkleAnchoringService merkleAnchoringService;
+    private final HashingService hashingService;
+    private final AuditJournalService auditJournalService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${applications.import.chunk-size:2000}")
+    private int chunkSize;
+
+    @Value("${applications.import.workers:0}")
+    private int workers;
+
+    @Value("${applications.import.max-reported-errors:10000}")
+    private int maxReportedErrors;
+
+    private ExecutorService workerPool;
+    private int maxPendingChunks;
+
+    private record RawRow(long line, String text) {
+    }
+
+    private record PreparedRow(long line, UUID id, CreateApplicationRequest request, String appJson, String appHash) {
+    }
+
+    private record Chunk(List<PreparedRow> rows, List<ImportRowErrorResponse> errors) {
+    }
+
+    @PostConstruct
+    void startWorkers() {
+        int size = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        maxPendingChunks = size * 2;
+        AtomicInteger threadCount = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, "application-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        workerPool.shutdown();
+    }
+
+    /**
+     * Imports every row of the upload. CSV needs a header naming the
+     * {@link CreateApplicationRequest} fields; NDJSON has one request object per line.
+     * {@code defaultVacancyId} fills rows that do not name a vacancy.
+     */
+    public ApplicationImportResponse importApplications(InputStream input, Format format, UUID defaultVacancyId)
+            throws IOException {
+        long started = System.currentTimeMillis();
+        log.info("Importing {} applications (default vacancy: {})", format, defaultVacancyId);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        Map<UUID, Boolean> knownVacancies = new ConcurrentHashMap<>();
+        Report report = new Report();
+
+        long lineNumber = 0;
+        int[] columns = null;
+        if (format == Format.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null) {
+                throw new IllegalArgumentException("CSV upload is empty");
+            }
+            columns = csvColumns(header);
+        }
+
+        Deque<Future<Chunk>> pending = new ArrayDeque<>();
+        List<RawRow> batch = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+
+            batch.add(new RawRow(lineNumber, line));
+            if (batch.size() == chunkSize) {
+                submit(batch, format, columns, defaultVacancyId, knownVacancies, pending);
+                batch = new ArrayList<>(chunkSize);
+                // Bounds memory: parsing never runs more than a few chunks ahead of the inserts
+                if (pending.size() >= maxPendingChunks) {
+                    write(await(pending.poll()), report);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            submit(batch, format, columns, defaultVacancyId, knownVacancies, pending);
+        }
+        while (!pending.isEmpty()) {
+            write(await(pending.poll()), report);
+        }
+
+        long durationMs = System.currentTimeMillis() - started;
+        log.info("Application import finished: {} rows, {} imported, {} failed in {} ms",
+                report.total, report.imported, report.failed, durationMs);
+
+        return ApplicationImportResponse.builder()
+                .totalRows(report.total)
+                .imported(report.imported)
+                .failed(report.failed)
+                .errors(report.errors)
+                .errorsTruncated(report.failed > report.errors.size())
+                .durationMs(durationMs)
+                .build();
+    }
+
+    private void submit(
+            List<RawRow> rows,
+            Format format,
+            int[] columns,
+            UUID defaultVacancyId,
+            Map<UUID, Boolean> knownVacancies,
+            Deque<Future<Chunk>> pending
+    ) {
+        pending.add(workerPool.submit(() -> prepare(rows, format, columns, defaultVacancyId, knownVacancies)));
+    }
+
+    private Chunk prepare(
+            List<RawRow> rows,
+            Format format,
+            int[] columns,
+            UUID defaultVacancyId,
+            Map<UUID, Boolean> knownVacancies
+    ) {
+        List<RawRow> accepted = new ArrayList<>(rows.size());
+        List<CreateApplicationRequest> requests = new ArrayList<>(rows.size());
+        List<Map<String, Object>> documents = new ArrayList<>(rows.size());
+        List<ImportRowErrorResponse> errors = new ArrayList<>();
+        // A repeated (vacancy, email) would fail the whole batch on the unique constraint
+        Map<String, Long> seen = new HashMap<>();
+
+        for (RawRow row : rows) {
+            try {
+                CreateApplicationRequest request = format == Format.CSV
+                        ? fromCsv(row.text(), columns)
+                        : fromJson(row.text());
+                if (request == null) {
+                    errors.add(new ImportRowErrorResponse(row.line(), "marks10 and marks12 are required"));
+                    continue;
+                }
+                if (request.getVacancyId() == null) {
+                    request.setVacancyId(defaultVacancyId);
+                }
+
+                String problem = validate(request);
+                if (problem == null
+                        && !knownVacancies.computeIfAbsent(request.getVacancyId(), vacancyRepository::existsById)) {
+                    problem = "Vacancy not found: " + request.getVacancyId();
+                }
+                if (problem == null) {
+                    Long earlier = seen.putIfAbsent(request.getVacancyId() + "|" + request.getEmail(), row.line());
+                    if (earlier != null) {
+                        problem = "Duplicate of line " + earlier + " for vacancy " + request.getVacancyId();
+                    }
+                }
+                if (problem != null) {
+                    errors.add(new ImportRowErrorResponse(row.line(), problem));
+                    continue;
+                }
+
+                // Same hashed document as a single submission
+                Map<String, Object> appData = new HashMap<>();
+                appData.put("candidateName", request.getCandidateName());
+                appData.put("email", request.getEmail());
+                appData.put("category", request.getCategory());
+                appData.put("marks10", request.getMarks10());
+                appData.put("marks12", request.getMarks12());
+                appData.put("timestamp", new Date().toString());
+
+                accepted.add(row);
+                requests.add(request);
+                documents.add(appData);
+            } catch (Exception e) {
+                errors.add(new ImportRowErrorResponse(row.line(), "Unreadable row: " + e.getMessage()));
+            }
+        }
+
+        List<HashingService.HashedJson> hashed;
+        try {
+            hashed = hashingService.canonicalJsonBatch(documents);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to hash import chunk: " + e.getMessage(), e);
+        }
+
+        List<PreparedRow> prepared = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            prepared.add(new PreparedRow(accepted.get(i).line(), UUID.randomUUID(), requests.get(i),
+                    hashed.get(i).json(), hashed.get(i).hash()));
+        }
+        return new Chunk(prepared, errors);
+    }
+
+    // Bean validation plus the column limits the applications table enforces
+    private String validate(CreateApplicationRequest request) {
+        Set<ConstraintViolation<CreateApplicationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (request.getEmail() == null || request.getEmail().isBlank()) return "email must not be blank";
+        if (request.getCandidateName().length() > 200) return "candidateName is longer than 200 characters";
+        if (request.getEmail().length() > 100) return "email is longer than 100 characters";
+        if (request.getCategory().length() > 10) return "category is longer than 10 characters";
+        return null;
+    }
+
+    private void write(Chunk chunk, Report report) {
+        report.total += chunk.rows().size() + chunk.errors().size();
+        chunk.errors().forEach(report::reject);
+        if (chunk.rows().isEmpty()) return;
+
+        try {
+            insert(chunk.rows());
+            report.imported += chunk.rows().size();
+        } catch (DataAccessException e) {
+            log.warn("Batch insert of {} rows failed ({}), retrying row by row",
+                    chunk.rows().size(), e.getMostSpecificCause().getMessage());
+            for (PreparedRow row : chunk.rows()) {
+                try {
+                    insert(List.of(row));
+                    report.imported++;
+                } catch (DataAccessException rowError) {
+                    report.reject(new ImportRowErrorResponse(row.line(),
+                            "Insert failed: " + rowError.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+    }
+
+    private void insert(List<PreparedRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        // Merkle mode picks up PENDING applications without an outbox entry on its own
+        boolean enqueue = !merkleAnchoringService.isEnabled();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_APPLICATION, rows, rows.size(), (ps, row) -> bindApplication(ps, row, now));
+            if (enqueue) {
+                jdbcTemplate.batchUpdate(INSERT_OUTBOX, rows, rows.size(), (ps, row) -> {
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setString(2, AnchorType.APPLICATION.name());
+                    ps.setObject(3, row.id());
+                    ps.setString(4, ChainStatus.PENDING.name());
+                    ps.setTimestamp(5, now);
+                    ps.setTimestamp(6, now);
+                    ps.setTimestamp(7, now);
+                });
+            }
+            rows.forEach(row -> auditJournalService.record("APPLICATION_IMPORTED", row.id(), row.appHash()));
+        });
+    }
+
+    private static void bindApplication(PreparedStatement ps, PreparedRow row, Timestamp now) throws SQLException {
+        CreateApplicationRequest request = row.request();
+        ps.setObject(1, row.id());
+        ps.setObject(2, request.getVacancyId());
+        ps.setString(3, request.getCandidateName());
+        ps.setString(4, request.getEmail());
+        ps.setString(5, request.getCategory());
+        ps.setDouble(6, request.getMarks10());
+        ps.setDouble(7, request.getMarks12());
+        ps.setString(8, row.appJson());
+        ps.setString(9, row.appHash());
+        ps.setString(10, "SUBMITTED");
+        ps.setString(11, ChainStatus.PENDING.name());
+        ps.setTimestamp(12, now);
+    }
+
+    private static int[] csvColumns(String header) {
+        List<String> names = parseCsvLine(header).stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT).replace("_", ""))
+                .toList();
+
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+            // vacancyId may come from the request instead
+            if (columns[i] < 0 && i > 0) {
+                throw new IllegalArgumentException("CSV header is missing column: " + CSV_COLUMNS.get(i));
+            }
+        }
+        return columns;
+    }
+
+    // Null when either mark is missing: the primitive fields would otherwise read as 0
+    private CreateApplicationRequest fromJson(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        if (!hasValue(node, "marks10") || !hasValue(node, "marks12")) {
+            return null;
+        }
+        return objectMapper.treeToValue(node, CreateApplicationRequest.class);
+    }
+
+    private static boolean hasValue(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && !value.isNull() && !(value.isTextual() && value.asText().isBlank());
+    }
+
+    private static CreateApplicationRequest fromCsv(String line, int[] columns) {
+        List<String> fields = parseCsvLine(line);
+        if (field(fields, columns[4]).isEmpty() || field(fields, columns[5]).isEmpty()) {
+            return null;
+        }
+        return CreateApplicationRequest.builder()
+                .vacancyId(columns[0] < 0 || field(fields, columns[0]).isEmpty()
+                        ? null
+                        : UUID.fromString(field(fields, columns[0])))
+                .candidateName(field(fields, columns[1]))
+                .email(field(fields, columns[2]))
+                .category(field(fields, columns[3]))
+                .marks10(Double.parseDouble(field(fields, columns[4])))
+                .marks12(Double.parseDouble(field(fields, columns[5])))
+                .build();
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index).trim() : "";
+    }
+
+    // RFC 4180 quoting within a single line; quoted line breaks are not supported
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static Chunk await(Future<Chunk> chunk) {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Import worker failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private final class Report {
+
+        private int total;
+        private int imported;
+        private int failed;
+        private final List<ImportRowErrorResponse> errors = new ArrayList<>();
+
+        private void reject(ImportRowErrorResponse error) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            }
+        }
+    }
+}
@@ -1,20 +1,27 @@
 package com.jobchain.service;
 
+import com.jobchain.dto.ApplicationPageResponse;
+import com.jobchain.dto.ApplicationResponse;
 import com.jobchain.dto.CreateApplicationRequest;
 import com.jobchain.entity.ApplicationEntity;
-import com.jobchain.entity.VacancyEntity;
+import com.jobchain.entity.enums.AnchorType;
+import com.jobchain.entity.enums.ChainStatus;
 import com.jobchain.repository.ApplicationRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jobchain.repository.ExamScoreRepository;
 import com.jobchain.repository.VacancyRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -31,11 +38,26 @@ public class ApplicationService {
     private ExamScoreRepository examScoreRepository;
 
     @Autowired
-    private BlockchainService blockchainService;
+    private ChainOutboxService chainOutboxService;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Autowired
+    private MerkleAnchoringService merkleAnchoringService;
+
+    @Autowired
+    private AuditJournalService auditJournalService;
+
+    @Autowired
+    private HashingService hashingService;
 
-    public ApplicationEntity submitApplication(CreateApplicationRequest request) {
+    private static final LocalDateTime FIRST_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    public ApplicationEntity submitApplication(CreateApplicationRequest request, String submittedBy) {
+        return submitApplication(null, request, submittedBy);
+    }
+
+    // id is the one already handed to the client by an async submission; null lets the entity pick one
+    public ApplicationEntity submitApplication(UUID id, CreateApplicationRequest request, String submittedBy) {
         try {
             log.info("Submitting application for vacancy: {}, candidate: {}",
                     request.getVacancyId(), request.getCandidateName());
@@ -56,36 +78,56 @@ public class ApplicationService {
             appData.put("marks12", request.getMarks12());
             appData.put("timestamp", new Date().toString());
 
-            String appJson = objectMapper.writeValueAsString(appData);
-            String appHash = sha256(appJson);
+            HashingService.HashedJson hashed = hashingService.canonicalJson(appData);
+            String appJson = hashed.json();
+            String appHash = hashed.hash();
 
-            VacancyEntity vacancy = vacancyRepository.findById(request.getVacancyId())
-                    .orElseThrow(() -> new RuntimeException("Vacancy not found"));
-
-            String txHash = blockchainService.logApplicationOnChain(
-                    vacancy.getBlockchainVacancyId(),
-                    appHash
-            );
+            if (!vacancyRepository.existsById(request.getVacancyId())) {
+                throw new RuntimeException("Vacancy not found");
+            }
+            if (applicationRepository.existsByVacancyIdAndEmail(request.getVacancyId(), request.getEmail())) {
+                throw new DuplicateApplicationException("An application from " + request.getEmail()
+                        + " already exists for this vacancy");
+            }
 
             ApplicationEntity application = ApplicationEntity.builder()
+                    .id(id)
                     .vacancyId(request.getVacancyId())
                     .candidateName(request.getCandidateName())
                     .email(request.getEmail())
+                    .submittedBy(submittedBy)
                     .category(request.getCategory())
                     .marks10(request.getMarks10())
                     .marks12(request.getMarks12())
                     .appJson(appJson)
                     .appHash(appHash)
                     .status("SUBMITTED")
-                    .blockchainTxHash(txHash)
+                    .chainStatus(ChainStatus.PENDING)
                     .build();
 
-            ApplicationEntity savedApplication = applicationRepository.save(application);
-            log.info("Application submitted successfully: id={}, txHash={}",
-                    savedApplication.getId(), txHash);
+            // Flushed here so a concurrent duplicate hits the unique constraint before anything is queued
+            ApplicationEntity savedApplication;
+            try {
+                savedApplication = applicationRepository.saveAndFlush(application);
+            } catch (DataIntegrityViolationException e) {
+                if (!violates(e, ApplicationEntity.UK_VACANCY_EMAIL)) {
+                    throw e;
+                }
+                throw new DuplicateApplicationException("An application from " + request.getEmail()
+                        + " already exists for this vacancy");
+            }
+            if (!merkleAnchoringService.isEnabled()) {
+                chainOutboxService.enqueue(AnchorType.APPLICATION, savedApplication.getId());
+            }
+            auditJournalService.record("APPLICATION_SUBMITTED", savedApplication.getId(), appHash);
+            log.info("Application submitted successfully: id={}, chainStatus={}",
+                    savedApplication.getId(), savedApplication.getChainStatus());
 
             return savedApplication;
 
+        } catch (DuplicateApplicationException e) {
+            log.warn("Duplicate application rejected: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Failed to submit application: {}", e.getMessage());
             throw new RuntimeException("Application submission failed", e);
@@ -105,6 +147,77 @@ public class ApplicationService {
         }
     }
 
+    @Transactional(readOnly = true)
+    public Optional<ApplicationResponse> getApplicationResponseById(UUID id) {
+        try {
+            log.info("Fetching application with marks by id: {}", id);
+            return applicationRepository.findResponseById(id);
+        } catch (Exception e) {
+            log.error("Failed to fetch application: {}", e.getMessage());
+            throw new RuntimeException("Failed to retrieve application", e);
+        }
+    }
+
+    /**
+     * One page in (createdAt, id) order. The cursor is the opaque position of the last row
+     * of the previous page, so deep pages cost the same as the first one.
+     */
+    @Transactional(readOnly = true)
+    public ApplicationPageResponse getApplicationPage(
+            UUID vacancyId,
+            String status,
+            String category,
+            Boolean testAttempted,
+            String cursor,
+            int limit
+    ) {
+        LocalDateTime afterCreatedAt = FIRST_CREATED_AT;
+        UUID afterId = FIRST_ID;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = decoded.split("\\|");
+                afterCreatedAt = LocalDateTime.parse(parts[0]);
+                afterId = UUID.fromString(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        List<ApplicationResponse> rows = applicationRepository.findResponsePage(vacancyId, status, category,
+                testAttempted, afterCreatedAt, afterId, PageRequest.of(0, limit + 1));
+
+        boolean hasMore = rows.size() > limit;
+        List<ApplicationResponse> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ApplicationResponse last = items.get(items.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getCreatedAt() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return ApplicationPageResponse.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // Rows come off a JDBC cursor one at a time; nothing holds the full result
+    @Transactional(readOnly = true)
+    public void forEachApplication(
+            UUID vacancyId,
+            String status,
+            String category,
+            Boolean testAttempted,
+            Consumer<ApplicationResponse> action
+    ) {
+        try (Stream<ApplicationResponse> rows =
+                     applicationRepository.streamResponses(vacancyId, status, category, testAttempted)) {
+            rows.forEach(action);
+        }
+    }
+
     // NEW: Get applications as a map for quick lookup
     public Map<String, Map<String, String>> getApplicationsMapByVacancy(UUID vacancyId) {
         try {
@@ -163,6 +276,11 @@ public class ApplicationService {
         }
     }
 
+    @Transactional(readOnly = true)
+    public boolean isSubmittedBy(UUID applicationId, String username) {
+        return applicationRepository.existsByIdAndSubmittedBy(applicationId, username);
+    }
+
     public void updateApplicationStatus(UUID applicationId, String status) {
         try {
             log.info("Updating application status: id={}, status={}", applicationId, status);
@@ -175,6 +293,7 @@ public class ApplicationService {
             ApplicationEntity application = applicationOpt.get();
             application.setStatus(status);
             applicationRepository.save(application);
+            auditJournalService.record("APPLICATION_STATUS", applicationId, status);
 
             log.info("Application status updated successfully");
 
@@ -195,7 +314,7 @@ public class ApplicationService {
             }
 
             ApplicationEntity application = applicationOpt.get();
-            String recalculatedHash = sha256(application.getAppJson());
+            String recalculatedHash = hashingService.sha256Hex(application.getAppJson());
             boolean isValid = recalculatedHash.equals(application.getAppHash());
 
             if (isValid) {
@@ -212,19 +331,12 @@ public class ApplicationService {
         }
     }
 
-    private String sha256(String input) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return constraint.equalsIgnoreCase(violation.getConstraintName());
             }
-            return hexString.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("Hash calculation failed", e);
         }
+        return false;
     }
-}
\ No newline at end of file
+}
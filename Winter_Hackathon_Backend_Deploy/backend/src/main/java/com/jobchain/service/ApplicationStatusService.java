@@ -0,0 +1,222 @@
+package com.jobchain.service;
+
+import com.jobchain.dto.AdmissionTicketResponse;
+import com.jobchain.dto.ApplicationResponse;
+import com.jobchain.dto.ApplicationStatusResponse;
+import com.jobchain.entity.enums.ChainStatus;
+import com.jobchain.repository.ApplicationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Where an application submitted with {@code Prefer: respond-async} is: waiting in the
+ * admission queue, being stored, or stored and working its way through the chain outbox.
+ * Server-sent event subscribers are polled together, one query per tick for every
+ * application that is past the queue, and only get an event when their status changes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApplicationStatusService implements MeterBinder {
+
+    public static final String EVENT_NAME = "status";
+    public static final String UNTRACKED = "UNTRACKED";
+
+    private final ApplicationAdmissionService applicationAdmissionService;
+    private final ApplicationRepository applicationRepository;
+
+    @Value("${applications.status.sse-timeout-ms:600000}")
+    private long sseTimeoutMs;
+
+    private final Map<UUID, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    // Callers only see their own submissions; admins see any stored application
+    @Transactional(readOnly = true)
+    public Optional<ApplicationStatusResponse> getStatus(UUID applicationId, String owner, boolean admin) {
+        Optional<AdmissionTicketResponse> ticket = applicationAdmissionService.getTicket(applicationId, owner);
+        if (ticket.isPresent() && !isStored(ticket.get())) {
+            return ticket.map(this::fromTicket);
+        }
+
+        Optional<ApplicationResponse> application = admin
+                ? applicationRepository.findResponseById(applicationId)
+                : applicationRepository.findResponseByIdAndSubmittedBy(applicationId, owner);
+        return application.map(this::fromApplication);
+    }
+
+    /**
+     * Sends the current status at once, then every change until the application
+     * reaches a terminal state, at which point the stream is completed. Access is checked
+     * here once; the poller then looks subscribed ids up without an owner.
+     */
+    public Optional<SseEmitter> subscribe(UUID applicationId, String owner, boolean admin) {
+        Optional<ApplicationStatusResponse> current = getStatus(applicationId, owner, admin);
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        Subscription subscription = new Subscription(applicationId, owner, emitter);
+        if (!subscription.send(current.get())) {
+            return Optional.of(emitter);
+        }
+        if (current.get().isTerminal()) {
+            emitter.complete();
+            return Optional.of(emitter);
+        }
+
+        subscriptions.computeIfAbsent(applicationId, id -> new CopyOnWriteArrayList<>()).add(subscription);
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+        return Optional.of(emitter);
+    }
+
+    @Scheduled(fixedDelayString = "${applications.status.poll-interval-ms:1000}")
+    @Transactional(readOnly = true)
+    public void publish() {
+        if (subscriptions.isEmpty()) return;
+
+        // Queued submissions are answered from memory; everything else is looked up in one go
+        Map<Subscription, ApplicationStatusResponse> updates = new HashMap<>();
+        Set<UUID> pending = new HashSet<>();
+
+        for (List<Subscription> list : subscriptions.values()) {
+            for (Subscription subscription : list) {
+                applicationAdmissionService.getTicket(subscription.applicationId, subscription.owner)
+                        .filter(ticket -> !isStored(ticket))
+                        .ifPresentOrElse(
+                                ticket -> updates.put(subscription, fromTicket(ticket)),
+                                () -> pending.add(subscription.applicationId));
+            }
+        }
+
+        Map<UUID, ApplicationResponse> stored = Map.of();
+        if (!pending.isEmpty()) {
+            stored = applicationRepository.findResponsesByIdIn(pending).stream()
+                    .collect(Collectors.toMap(ApplicationResponse::getId, Function.identity()));
+        }
+
+        for (List<Subscription> list : subscriptions.values()) {
+            for (Subscription subscription : list) {
+                ApplicationStatusResponse status = updates.get(subscription);
+                if (status == null) {
+                    ApplicationResponse application = stored.get(subscription.applicationId);
+                    if (application == null) continue;
+                    status = fromApplication(application);
+                }
+                if (status.equals(subscription.lastSent)) continue;
+
+                if (subscription.send(status) && status.isTerminal()) {
+                    subscription.emitter.complete();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("applications.status.subscribers", subscriptions,
+                        map -> map.values().stream().mapToInt(List::size).sum())
+                .description("Open server-sent event streams for application status")
+                .register(registry);
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.applicationId, (id, list) -> {
+            list.remove(subscription);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private static boolean isStored(AdmissionTicketResponse ticket) {
+        return ApplicationAdmissionService.TicketStatus.COMPLETED.name().equals(ticket.getStatus());
+    }
+
+    private ApplicationStatusResponse fromTicket(AdmissionTicketResponse ticket) {
+        boolean failed = ApplicationAdmissionService.TicketStatus.FAILED.name().equals(ticket.getStatus());
+        return ApplicationStatusResponse.builder()
+                .applicationId(ticket.getTicketId())
+                .vacancyId(ticket.getVacancyId())
+                .state(failed ? "REJECTED" : ticket.getStatus())
+                .terminal(failed)
+                .position(ticket.getPosition())
+                .estimatedWaitSeconds(ticket.getEstimatedWaitSeconds())
+                .error(ticket.getError())
+                .build();
+    }
+
+    private ApplicationStatusResponse fromApplication(ApplicationResponse application) {
+        ChainStatus chainStatus = application.getChainStatus();
+
+        // Rows from before the outbox have no chain status and nothing will move them on
+        String state;
+        boolean terminal;
+        if (chainStatus == null) {
+            state = application.getBlockchainTxHash() != null ? ChainStatus.ANCHORED.name() : UNTRACKED;
+            terminal = true;
+        } else {
+            state = chainStatus.name();
+            terminal = chainStatus == ChainStatus.ANCHORED || chainStatus == ChainStatus.FAILED;
+        }
+
+        return ApplicationStatusResponse.builder()
+                .applicationId(application.getId())
+                .vacancyId(application.getVacancyId())
+                .state(state)
+                .terminal(terminal)
+                .status(application.getStatus())
+                .chainStatus(chainStatus)
+                .blockchainTxHash(application.getBlockchainTxHash())
+                .build();
+    }
+
+    private final class Subscription {
+
+        private final UUID applicationId;
+        private final String owner;
+        private final SseEmitter emitter;
+        private volatile ApplicationStatusResponse lastSent;
+
+        private Subscription(UUID applicationId, String owner, SseEmitter emitter) {
+            this.applicationId = applicationId;
+            this.owner = owner;
+            this.emitter = emitter;
+        }
+
+        // A failed send means the client went away; the emitter's callbacks drop the subscription
+        private boolean send(ApplicationStatusResponse status) {
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(status));
+                lastSent = status;
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Status stream for {} closed: {}", applicationId, e.getMessage());
+                emitter.completeWithError(e);
+                unsubscribe(this);
+                return false;
+            }
+        }
+    }
+}
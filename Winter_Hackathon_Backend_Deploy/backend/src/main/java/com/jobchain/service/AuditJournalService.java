@@ -0,0 +1,214 @@
+package com.jobchain.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobchain.dto.AuditHeadResponse;
+import com.jobchain.dto.AuditLinkResponse;
+import com.jobchain.dto.AuditProofResponse;
+import com.jobchain.entity.AuditAnchorEntity;
+import com.jobchain.entity.enums.AnchorType;
+import com.jobchain.entity.enums.ChainStatus;
+import com.jobchain.repository.AuditAnchorRepository;
+import com.jobchain.utils.HashChainJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Tamper-evident trail for mutations that are too frequent to anchor one by one.
+ * Each mutation is appended to a local {@link HashChainJournal}; every
+ * {@code anchor-interval-ms} the journal head goes on-chain in a single transaction,
+ * which vouches for every entry before it. The journal file is local to the instance,
+ * so anchors are stored and looked up under the journal's id, the hash of its first entry.
+ * <p>
+ * On chain a head is the calldata of a transaction from the signer to itself:
+ * {@code "JCAUDIT1" || journal id (32) || sequence (8) || head hash (32)}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditJournalService {
+
+    private final AuditAnchorRepository auditAnchorRepository;
+    private final ChainOutboxService chainOutboxService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final String ANCHOR_TAG = Numeric.toHexStringNoPrefix("JCAUDIT1".getBytes(StandardCharsets.US_ASCII));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${audit.journal.path:./data/audit-journal.bin}")
+    private Path path;
+
+    @Value("${audit.journal.initial-capacity-bytes:16777216}")
+    private int initialCapacity;
+
+    private HashChainJournal journal;
+
+    @PostConstruct
+    public void open() throws IOException {
+        journal = HashChainJournal.open(path, initialCapacity);
+        log.info("Audit journal {} opened at sequence {}", path, journal.getHeadSequence());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    public record Mutation(String type, UUID aggregateId, String detail) {
+    }
+
+    // Published rather than appended, so the entry is only written once the caller's transaction commits
+    public void record(String type, UUID aggregateId, String detail) {
+        eventPublisher.publishEvent(new Mutation(type, aggregateId, detail));
+    }
+
+    // Rolled-back changes never reach the journal; outside a transaction there is nothing to wait for
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMutation(Mutation mutation) {
+        append(mutation.type(), mutation.aggregateId(), mutation.detail());
+    }
+
+    // The mapped pages are written back by the OS anyway; this bounds how much a power loss can take
+    @Scheduled(fixedDelayString = "${audit.journal.flush-interval-ms:1000}")
+    public void flush() {
+        journal.force();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${audit.journal.anchor-interval-ms:60000}",
+            initialDelayString = "${audit.journal.anchor-interval-ms:60000}"
+    )
+    @Transactional
+    public void anchorHead() {
+        long sequence = journal.getHeadSequence();
+        if (sequence == 0) return;
+
+        String journalId = journalId();
+        Optional<AuditAnchorEntity> latest = auditAnchorRepository.findFirstByJournalIdOrderBySequenceDesc(journalId);
+        if (latest.isPresent() && latest.get().getSequence() >= sequence
+                && latest.get().getChainStatus() != ChainStatus.FAILED) {
+            return;
+        }
+
+        flush();
+        AuditAnchorEntity anchor = auditAnchorRepository.save(AuditAnchorEntity.builder()
+                .journalId(journalId)
+                .sequence(sequence)
+                .headHash(Numeric.toHexStringNoPrefix(journal.getHeadHash()))
+                .chainStatus(ChainStatus.PENDING)
+                .build());
+        chainOutboxService.enqueue(AnchorType.AUDIT_HEAD, anchor.getId());
+
+        log.info("Audit journal head {} queued for anchoring", sequence);
+    }
+
+    @Transactional(readOnly = true)
+    public AuditHeadResponse getHead() {
+        String journalId = journalId();
+        AuditHeadResponse.AuditHeadResponseBuilder head = AuditHeadResponse.builder()
+                .journalId(journalId)
+                .sequence(journal.getHeadSequence())
+                .headHash(Numeric.toHexStringNoPrefix(journal.getHeadHash()));
+        if (journalId == null) {
+            return head.build();
+        }
+
+        auditAnchorRepository.findFirstByJournalIdAndChainStatusOrderBySequenceDesc(journalId, ChainStatus.ANCHORED)
+                .ifPresent(anchor -> head
+                        .anchoredSequence(anchor.getSequence())
+                        .anchoredHash(anchor.getHeadHash())
+                        .blockchainTxHash(anchor.getBlockchainTxHash())
+                        .chainStatus(anchor.getChainStatus()));
+        return head.build();
+    }
+
+    /**
+     * Links the entry to the first anchored head at or after it. Until such an anchor
+     * is mined the proof runs to the local head and carries no chain status.
+     */
+    @Transactional(readOnly = true)
+    public Optional<AuditProofResponse> getInclusionProof(long sequence) {
+        Optional<HashChainJournal.Entry> found = journal.get(sequence);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        HashChainJournal.Entry entry = found.get();
+        String journalId = journalId();
+
+        Optional<AuditAnchorEntity> anchor = auditAnchorRepository
+                .findFirstByJournalIdAndSequenceGreaterThanEqualAndChainStatusOrderBySequenceAsc(
+                        journalId, sequence, ChainStatus.ANCHORED)
+                .filter(a -> a.getSequence() <= journal.getHeadSequence());
+
+        long headSequence = anchor.map(AuditAnchorEntity::getSequence).orElse(journal.getHeadSequence());
+        byte[] headHash = anchor.map(a -> Numeric.hexStringToByteArray(a.getHeadHash()))
+                .orElseGet(journal::getHeadHash);
+        List<HashChainJournal.Link> links = journal.links(sequence, headSequence);
+
+        return Optional.of(AuditProofResponse.builder()
+                .journalId(journalId)
+                .sequence(entry.sequence())
+                .timestamp(entry.timestamp())
+                .payload(new String(entry.payload(), StandardCharsets.UTF_8))
+                .previousHash(Numeric.toHexStringNoPrefix(entry.previousHash()))
+                .entryHash(Numeric.toHexStringNoPrefix(entry.hash()))
+                .links(links.stream()
+                        .map(link -> AuditLinkResponse.builder()
+                                .sequence(link.sequence())
+                                .timestamp(link.timestamp())
+                                .payloadHash(Numeric.toHexStringNoPrefix(link.payloadHash()))
+                                .build())
+                        .toList())
+                .anchorSequence(headSequence)
+                .anchorHash(Numeric.toHexStringNoPrefix(headHash))
+                .blockchainTxHash(anchor.map(AuditAnchorEntity::getBlockchainTxHash).orElse(null))
+                .chainStatus(anchor.map(AuditAnchorEntity::getChainStatus).orElse(null))
+                .verified(HashChainJournal.verify(entry, links, headHash))
+                .build());
+    }
+
+    public static String anchorCalldata(AuditAnchorEntity anchor) {
+        return "0x" + ANCHOR_TAG
+                + anchor.getJournalId()
+                + String.format("%016x", anchor.getSequence())
+                + anchor.getHeadHash();
+    }
+
+    // Null until the first entry is written
+    private String journalId() {
+        return journal.getFirstHash().map(Numeric::toHexStringNoPrefix).orElse(null);
+    }
+
+    private void append(String type, UUID aggregateId, String detail) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", type);
+        payload.put("aggregateId", aggregateId);
+        payload.put("detail", detail);
+
+        try {
+            journal.append(objectMapper.writeValueAsBytes(payload));
+        } catch (Exception e) {
+            // The mutation itself already committed; losing its audit line must be loud, not fatal
+            log.error("Failed to journal {} {}: {}", type, aggregateId, e.getMessage());
+        }
+    }
+}
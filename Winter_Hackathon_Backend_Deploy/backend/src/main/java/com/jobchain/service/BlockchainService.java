@@ -1,38 +1,66 @@
 package com.jobchain.service;
 
+import com.jobchain.blockchain.ChainUnavailableException;
+import com.jobchain.blockchain.FeeOracleGasProvider;
+import com.jobchain.blockchain.GasBalanceLedger;
+import com.jobchain.blockchain.PipelinedTransactionManager;
+import com.jobchain.blockchain.SignerPool;
+import com.jobchain.blockchain.StuckTransactionWatchdog;
 import com.jobchain.contract.JobChainContract;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.web3j.crypto.Credentials;
-import org.web3j.protocol.Web3j;
-import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.protocol.core.RemoteFunctionCall;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
 import org.web3j.utils.Numeric;
 
 import java.math.BigInteger;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 @Service
 @RequiredArgsConstructor
 public class BlockchainService {
 
+    // Not a contract function: audit heads go out as calldata on a transaction to the signer itself
+    public static final String FUNC_ANCHOR_AUDIT_HEAD = "anchorAuditHead";
+
     private final JobChainContract contract;
-    private final Web3j web3j;
-    private final Credentials credentials;
+    private final SignerPool signerPool;
+    private final FeeOracleGasProvider gasProvider;
+    private final StuckTransactionWatchdog stuckTransactionWatchdog;
+    private final ChainCallGuard chainCallGuard;
+    private final ChainTelemetry chainTelemetry;
+    private final ChainSubmissionRegistry chainSubmissionRegistry;
 
     public TransactionReceipt createVacancyAndReturnReceipt(
             String title,
             int totalPosts,
             String paperHash
     ) throws Exception {
+        return await(createVacancyAsync(title, totalPosts, paperHash));
+    }
 
+    public CompletableFuture<TransactionReceipt> createVacancyAsync(
+            String title,
+            int totalPosts,
+            String paperHash
+    ) {
         byte[] hashBytes = Numeric.hexStringToByteArray("0x" + paperHash);
 
-        return contract.createVacancy(
-                title,
-                BigInteger.valueOf(totalPosts),
-                hashBytes
-        ).send();
+        return submit(
+                JobChainContract.FUNC_CREATEVACANCY,
+                contract.createVacancy(
+                        title,
+                        BigInteger.valueOf(totalPosts),
+                        hashBytes
+                ),
+                null
+        );
     }
 
     public Long extractVacancyId(TransactionReceipt receipt) {
@@ -49,16 +77,21 @@ public class BlockchainService {
 
     public String logApplicationOnChain(Long vacancyId, String appHash)
             throws Exception {
+        return await(logApplicationOnChainAsync(vacancyId, appHash));
+    }
+
+    public CompletableFuture<String> logApplicationOnChainAsync(Long vacancyId, String appHash) {
 
         byte[] hashBytes = Numeric.hexStringToByteArray("0x" + appHash);
 
-        TransactionReceipt receipt =
+        return submit(
+                JobChainContract.FUNC_LOGAPPLICATION,
                 contract.logApplication(
                         BigInteger.valueOf(vacancyId),
                         hashBytes
-                ).send();
-
-        return receipt.getTransactionHash();
+                ),
+                vacancyId
+        ).thenApply(TransactionReceipt::getTransactionHash);
     }
 
     public String recordExamScoreOnChain(
@@ -66,31 +99,44 @@ public class BlockchainService {
             int marks,
             String markingHash
     ) throws Exception {
+        return await(recordExamScoreOnChainAsync(vacancyId, marks, markingHash));
+    }
 
+    public CompletableFuture<String> recordExamScoreOnChainAsync(
+            Long vacancyId,
+            int marks,
+            String markingHash
+    ) {
         byte[] hashBytes = Numeric.hexStringToByteArray("0x" + markingHash);
 
-        TransactionReceipt receipt =
+        return submit(
+                JobChainContract.FUNC_RECORDEXAMSCORE,
                 contract.recordExamScore(
                         BigInteger.valueOf(vacancyId),
                         BigInteger.valueOf(marks),
                         hashBytes
-                ).send();
-
-        return receipt.getTransactionHash();
+                ),
+                vacancyId
+        ).thenApply(TransactionReceipt::getTransactionHash);
     }
 
     public String publishMeritOnChain(Long vacancyId, String meritHash)
             throws Exception {
+        return await(publishMeritOnChainAsync(vacancyId, meritHash));
+    }
+
+    public CompletableFuture<String> publishMeritOnChainAsync(Long vacancyId, String meritHash) {
 
         byte[] hashBytes = Numeric.hexStringToByteArray("0x" + meritHash);
 
-        TransactionReceipt receipt =
+        return submit(
+                JobChainContract.FUNC_PUBLISHMERIT,
                 contract.publishMerit(
                         BigInteger.valueOf(vacancyId),
                         hashBytes
-                ).send();
-
-        return receipt.getTransactionHash();
+                ),
+                vacancyId
+        ).thenApply(TransactionReceipt::getTransactionHash);
     }
 
     public String detectPaperLeakOnChain(
@@ -98,17 +144,25 @@ public class BlockchainService {
             int suspectCount,
             String patternHash
     ) throws Exception {
+        return await(detectPaperLeakOnChainAsync(vacancyId, suspectCount, patternHash));
+    }
 
+    public CompletableFuture<String> detectPaperLeakOnChainAsync(
+            Long vacancyId,
+            int suspectCount,
+            String patternHash
+    ) {
         byte[] hashBytes = Numeric.hexStringToByteArray("0x" + patternHash);
 
-        TransactionReceipt receipt =
+        return submit(
+                JobChainContract.FUNC_DETECTPAPERLEAK,
                 contract.detectPaperLeak(
                         BigInteger.valueOf(vacancyId),
                         BigInteger.valueOf(suspectCount),
                         hashBytes
-                ).send();
-
-        return receipt.getTransactionHash();
+                ),
+                vacancyId
+        ).thenApply(TransactionReceipt::getTransactionHash);
     }
 
     public String distributePaperOnChain(
@@ -116,40 +170,56 @@ public class BlockchainService {
             String setId,
             String paperHash
     ) throws Exception {
+        return await(distributePaperOnChainAsync(blockchainVacancyId, setId, paperHash));
+    }
 
+    public CompletableFuture<String> distributePaperOnChainAsync(
+            Long blockchainVacancyId,
+            String setId,
+            String paperHash
+    ) {
         byte[] hashBytes = Numeric.hexStringToByteArray("0x" + paperHash);
 
-        TransactionReceipt receipt =
+        return submit(
+                JobChainContract.FUNC_DISTRIBUTEPAPER,
                 contract.distributePaper(
                         BigInteger.valueOf(blockchainVacancyId),
                         setId,
                         hashBytes
-                ).send();
-
-        return receipt.getTransactionHash();
+                ),
+                blockchainVacancyId
+        ).thenApply(TransactionReceipt::getTransactionHash);
     }
 
-    public boolean hasEnoughBalanceForPaperSets(
-            int numberOfSets,
-            BigInteger gasPrice,
-            BigInteger gasLimitPerTx
-    ) throws Exception {
-
-        BigInteger balance =
-                web3j.ethGetBalance(
-                        credentials.getAddress(),
-                        DefaultBlockParameterName.LATEST
-                ).send().getBalance();
+    public CompletableFuture<String> lockPaperOnChainAsync(
+            Long blockchainVacancyId,
+            String centerId,
+            String setId
+    ) {
+        return submit(
+                JobChainContract.FUNC_LOCKPAPER,
+                contract.lockPaper(
+                        BigInteger.valueOf(blockchainVacancyId),
+                        centerId,
+                        setId
+                ),
+                blockchainVacancyId
+        ).thenApply(TransactionReceipt::getTransactionHash);
+    }
 
-        BigInteger required =
-                gasPrice
-                        .multiply(gasLimitPerTx)
-                        .multiply(BigInteger.valueOf(numberOfSets));
+    public boolean hasEnoughBalanceForPaperSets(int numberOfSets) {
+        return hasEnoughBalanceFor(JobChainContract.FUNC_DISTRIBUTEPAPER, numberOfSets);
+    }
 
-        return balance.compareTo(required) >= 0;
+    public boolean hasEnoughBalanceFor(String function, int transactions) {
+        return signerPool.canAfford(gasProvider.estimateCost(function, transactions));
     }
 
     public String recordOmrScanOnChain(String omrHash, String qrHash) throws Exception {
+        return await(recordOmrScanOnChainAsync(omrHash, qrHash));
+    }
+
+    public CompletableFuture<String> recordOmrScanOnChainAsync(String omrHash, String qrHash) {
 
         byte[] omrHashBytes = omrHash.startsWith("0x") ?
                 Numeric.hexStringToByteArray(omrHash) :
@@ -159,8 +229,155 @@ public class BlockchainService {
                 Numeric.hexStringToByteArray(qrHash) :
                 Numeric.hexStringToByteArray("0x" + qrHash);
 
-        TransactionReceipt receipt = contract.recordOMRScan(omrHashBytes, qrHashBytes).send();
+        return submit(
+                JobChainContract.FUNC_RECORDOMRSCAN,
+                contract.recordOMRScan(omrHashBytes, qrHashBytes),
+                null
+        ).thenApply(TransactionReceipt::getTransactionHash);
+    }
+
+    public CompletableFuture<String> anchorAuditHeadAsync(String calldata) {
+        return submit(FUNC_ANCHOR_AUDIT_HEAD, null, calldata, null)
+                .thenApply(TransactionReceipt::getTransactionHash);
+    }
+
+    private CompletableFuture<TransactionReceipt> submit(
+            String function,
+            RemoteFunctionCall<TransactionReceipt> call,
+            Long vacancyId
+    ) {
+        return submit(function, contract.getContractAddress(), call.encodeFunctionCall(), vacancyId);
+    }
+
+    // Broadcasts on the guarded bulkhead and hands the tx hash to the shared receipt poller instead of
+    // blocking on it. The worst-case fee stays reserved in the signer's ledger until the receipt arrives.
+    // A null recipient sends the transaction to the signing account itself.
+    private CompletableFuture<TransactionReceipt> submit(
+            String function,
+            String to,
+            String data,
+            Long vacancyId
+    ) {
+        ChainSubmissionRegistry.Submission inFlight;
+        try {
+            inFlight = chainSubmissionRegistry.open(function);
+        } catch (ChainUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        ChainTelemetry.Submission submission = chainTelemetry.start(function);
+
+        return chainCallGuard.execute(function, () -> {
+                    Broadcast broadcast = broadcast(function, to, data, vacancyId);
+                    submission.broadcast(broadcast.gasLimit());
+                    inFlight.broadcast(broadcast.signer().getAddress(),
+                            broadcast.transaction().getNonce().longValue(), broadcast.txHash());
+                    return broadcast;
+                })
+                .thenCompose(broadcast -> awaitReceipt(broadcast, submission))
+                .whenComplete((receipt, error) -> {
+                    inFlight.close();
+                    if (error != null) submission.failed(error);
+                });
+    }
+
+    private Broadcast broadcast(
+            String function,
+            String to,
+            String data,
+            Long vacancyId
+    ) throws Exception {
+        SignerPool.Signer signer = signerPool.select(vacancyId, gasProvider.estimateCost(function, 1));
+        PipelinedTransactionManager transactionManager = signer.getTransactionManager();
+        String recipient = to != null ? to : signer.getAddress();
+
+        GasBalanceLedger.Reservation reservation = null;
+        try {
+            BigInteger gasLimit = gasProvider.estimateGasLimit(
+                    function,
+                    signer.getAddress(),
+                    recipient,
+                    data
+            );
+            BigInteger maxFeePerGas = gasProvider.getMaxFeePerGas(function);
+
+            reservation = signer.getLedger().reserve(gasLimit.multiply(maxFeePerGas));
+
+            RawTransaction transaction = gasProvider.isEIP1559Enabled()
+                    ? transactionManager.nextEIP1559Transaction(
+                            gasProvider.getChainId(),
+                            gasProvider.getMaxPriorityFeePerGas(function),
+                            maxFeePerGas,
+                            gasLimit,
+                            recipient,
+                            data,
+                            BigInteger.ZERO)
+                    : transactionManager.nextTransaction(
+                            gasProvider.getGasPrice(function),
+                            gasLimit,
+                            recipient,
+                            data,
+                            BigInteger.ZERO);
+
+            EthSendTransaction sent = transactionManager.signAndSend(transaction);
+
+            if (sent.hasError()) {
+                signer.onRejected(sent.getError().getMessage());
+                throw new TransactionException(
+                        "Error processing transaction request: " + sent.getError().getMessage());
+            }
+            signer.onSuccess();
+
+            return new Broadcast(function, signer, transaction, sent.getTransactionHash(), gasLimit, reservation);
+        } catch (Exception e) {
+            if (reservation != null) reservation.release();
+            throw e;
+        }
+    }
+
+    private CompletableFuture<TransactionReceipt> awaitReceipt(
+            Broadcast broadcast,
+            ChainTelemetry.Submission submission
+    ) {
+        // The watchdog completes this with whichever same-nonce broadcast is mined
+        return stuckTransactionWatchdog.track(
+                        broadcast.function(),
+                        broadcast.signer(),
+                        broadcast.transaction(),
+                        broadcast.txHash())
+                .whenComplete((receipt, error) -> {
+                    broadcast.reservation().release();
+                    if (receipt != null) submission.mined(receipt);
+                })
+                .thenApply(receipt -> {
+                    if (!receipt.isStatusOK()) {
+                        throw new CompletionException(new TransactionException(
+                                "Transaction " + receipt.getTransactionHash()
+                                        + " has failed with status: " + receipt.getStatus(),
+                                receipt));
+                    }
+                    return receipt;
+                });
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause()
+                    : e.getCause();
+            if (cause instanceof Exception exception) throw exception;
+            throw e;
+        }
+    }
 
-        return receipt.getTransactionHash();
+    private record Broadcast(
+            String function,
+            SignerPool.Signer signer,
+            RawTransaction transaction,
+            String txHash,
+            BigInteger gasLimit,
+            GasBalanceLedger.Reservation reservation
+    ) {
     }
 }
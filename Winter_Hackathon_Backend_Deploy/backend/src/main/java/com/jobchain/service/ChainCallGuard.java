@@ -0,0 +1,179 @@
+package com.jobchain.service;
+
+import com.jobchain.blockchain.ChainUnavailableException;
+import com.jobchain.blockchain.CircuitBreaker;
+import com.jobchain.dto.CircuitBreakerResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs blocking chain calls on a bounded bulkhead pool behind a circuit breaker per
+ * contract function. When a breaker is open or the bulkhead is full the call fails
+ * immediately with {@link ChainUnavailableException} instead of waiting on a socket.
+ */
+@Component
+@Slf4j
+public class ChainCallGuard implements MeterBinder {
+
+    @Value("${blockchain.breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${blockchain.breaker.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    @Value("${blockchain.bulkhead.threads:8}")
+    private int bulkheadThreads;
+
+    @Value("${blockchain.bulkhead.queue-capacity:100}")
+    private int bulkheadQueueCapacity;
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    private ThreadPoolExecutor bulkhead;
+
+    @PostConstruct
+    void startBulkhead() {
+        AtomicInteger threadCount = new AtomicInteger();
+        bulkhead = new ThreadPoolExecutor(
+                bulkheadThreads,
+                bulkheadThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(bulkheadQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "chain-call-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stopBulkhead() {
+        bulkhead.shutdown();
+    }
+
+    public <T> CompletableFuture<T> execute(String function, Callable<T> call) {
+        CircuitBreaker breaker = breaker(function);
+        if (!breaker.tryAcquire()) {
+            rejectedCalls.incrementAndGet();
+            return CompletableFuture.failedFuture(
+                    new ChainUnavailableException("Circuit for " + function + " is open"));
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    T result = call.call();
+                    breaker.onSuccess();
+                    return result;
+                } catch (Exception e) {
+                    if (isConnectivityFailure(e)) {
+                        breaker.onFailure();
+                    } else {
+                        breaker.release();
+                    }
+                    throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+                }
+            }, bulkhead);
+        } catch (RejectedExecutionException e) {
+            breaker.release();
+            rejectedCalls.incrementAndGet();
+            return CompletableFuture.failedFuture(
+                    new ChainUnavailableException("Chain call bulkhead is full"));
+        }
+    }
+
+    public boolean isDegraded() {
+        return breakers.values().stream().anyMatch(b -> b.getState() != CircuitBreaker.State.CLOSED);
+    }
+
+    public List<CircuitBreakerResponse> getBreakers() {
+        return breakers.values().stream()
+                .sorted(Comparator.comparing(CircuitBreaker::getName))
+                .map(breaker -> CircuitBreakerResponse.builder()
+                        .function(breaker.getName())
+                        .state(breaker.getState().name())
+                        .consecutiveFailures(breaker.getConsecutiveFailures())
+                        .openedAt(breaker.getOpenedAt() == null ? null
+                                : LocalDateTime.ofInstant(breaker.getOpenedAt(), ZoneId.systemDefault()))
+                        .build())
+                .toList();
+    }
+
+    public int getActiveCalls() {
+        return bulkhead.getActiveCount();
+    }
+
+    public int getQueuedCalls() {
+        return bulkhead.getQueue().size();
+    }
+
+    public int getCapacity() {
+        return bulkheadThreads + bulkheadQueueCapacity;
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("chain.breaker.open", this,
+                        guard -> guard.breakers.values().stream()
+                                .filter(b -> b.getState() != CircuitBreaker.State.CLOSED)
+                                .count())
+                .description("Contract functions whose circuit is open or half-open")
+                .register(registry);
+        Gauge.builder("chain.bulkhead.active", this, ChainCallGuard::getActiveCalls)
+                .register(registry);
+        Gauge.builder("chain.bulkhead.queued", this, ChainCallGuard::getQueuedCalls)
+                .register(registry);
+        FunctionCounter.builder("chain.bulkhead.rejected", rejectedCalls, AtomicLong::get)
+                .description("Chain calls short-circuited by an open breaker or a full bulkhead")
+                .register(registry);
+    }
+
+    private CircuitBreaker breaker(String function) {
+        return breakers.computeIfAbsent(function,
+                name -> new CircuitBreaker(name, failureThreshold, openDurationMs));
+    }
+
+    // Only an unreachable or unresponsive node trips the breaker; reverts and balance checks do not
+    private static boolean isConnectivityFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException
+                    || cause instanceof TimeoutException
+                    || cause instanceof ClientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,129 @@
+package com.jobchain.service;
+
+import com.jobchain.dto.ChainEventResponse;
+import com.jobchain.dto.ChainIndexerStatusResponse;
+import com.jobchain.dto.ChainVerificationResponse;
+import com.jobchain.entity.ChainEventEntity;
+import com.jobchain.entity.ChainIndexerCheckpointEntity;
+import com.jobchain.entity.enums.ChainEventType;
+import com.jobchain.repository.ChainEventRepository;
+import com.jobchain.repository.ChainIndexerCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ChainEventService {
+
+    private final ChainEventRepository chainEventRepository;
+    private final ChainIndexerCheckpointRepository checkpointRepository;
+
+    public ChainIndexerCheckpointEntity getOrCreateCheckpoint(String contractAddress, long startBlock) {
+        return checkpointRepository.findById(contractAddress)
+                .orElseGet(() -> checkpointRepository.save(ChainIndexerCheckpointEntity.builder()
+                        .contractAddress(contractAddress)
+                        .lastProcessedBlock(startBlock - 1)
+                        .build()));
+    }
+
+    // Events and checkpoint commit together, so a crash mid-range just replays that range
+    public void storeRange(
+            String contractAddress,
+            List<ChainEventEntity> events,
+            long toBlock,
+            String toBlockHash
+    ) {
+        chainEventRepository.saveAll(events);
+
+        ChainIndexerCheckpointEntity checkpoint = checkpointRepository.findById(contractAddress)
+                .orElseThrow(() -> new IllegalStateException("Indexer checkpoint missing for " + contractAddress));
+        checkpoint.setLastProcessedBlock(toBlock);
+        checkpoint.setLastProcessedBlockHash(toBlockHash);
+        checkpointRepository.save(checkpoint);
+    }
+
+    public void rewind(String contractAddress, long toBlock) {
+        int removed = chainEventRepository.deleteAfterBlock(toBlock);
+
+        ChainIndexerCheckpointEntity checkpoint = checkpointRepository.findById(contractAddress)
+                .orElseThrow(() -> new IllegalStateException("Indexer checkpoint missing for " + contractAddress));
+        checkpoint.setLastProcessedBlock(toBlock);
+        checkpoint.setLastProcessedBlockHash(null);
+        checkpointRepository.save(checkpoint);
+
+        log.warn("Indexer rewound to block {} ({} events removed)", toBlock, removed);
+    }
+
+    @Transactional(readOnly = true)
+    public ChainVerificationResponse verifyHash(String hash) {
+        String normalized = normalizeHash(hash);
+
+        List<ChainEventResponse> events = chainEventRepository
+                .findByDataHashOrderByBlockNumberAsc(normalized)
+                .stream()
+                .map(this::toResponse)
+                .toList();
+
+        return ChainVerificationResponse.builder()
+                .hash(normalized)
+                .anchored(!events.isEmpty())
+                .events(events)
+                .indexedThroughBlock(checkpointRepository.findAll().stream()
+                        .map(ChainIndexerCheckpointEntity::getLastProcessedBlock)
+                        .findFirst()
+                        .orElse(null))
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ChainEventResponse> getVacancyEvents(Long chainVacancyId, ChainEventType eventType) {
+        List<ChainEventEntity> events = eventType == null
+                ? chainEventRepository.findByChainVacancyIdOrderByBlockNumberAscLogIndexAsc(chainVacancyId)
+                : chainEventRepository.findByEventTypeAndChainVacancyIdOrderByBlockNumberAscLogIndexAsc(
+                        eventType, chainVacancyId);
+
+        return events.stream().map(this::toResponse).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ChainIndexerStatusResponse> getIndexerStatus() {
+        return checkpointRepository.findAll().stream()
+                .findFirst()
+                .map(checkpoint -> ChainIndexerStatusResponse.builder()
+                        .contractAddress(checkpoint.getContractAddress())
+                        .lastProcessedBlock(checkpoint.getLastProcessedBlock())
+                        .lastProcessedBlockHash(checkpoint.getLastProcessedBlockHash())
+                        .updatedAt(checkpoint.getUpdatedAt())
+                        .build());
+    }
+
+    private String normalizeHash(String hash) {
+        String trimmed = hash.trim().toLowerCase();
+        return trimmed.startsWith("0x") ? trimmed.substring(2) : trimmed;
+    }
+
+    private ChainEventResponse toResponse(ChainEventEntity event) {
+        return ChainEventResponse.builder()
+                .eventType(event.getEventType())
+                .chainVacancyId(event.getChainVacancyId())
+                .dataHash(event.getDataHash())
+                .secondaryHash(event.getSecondaryHash())
+                .candidate(event.getCandidate())
+                .setId(event.getSetId())
+                .centerId(event.getCenterId())
+                .title(event.getTitle())
+                .amount(event.getAmount())
+                .eventTimestamp(event.getEventTimestamp())
+                .blockNumber(event.getBlockNumber())
+                .txHash(event.getTxHash())
+                .logIndex(event.getLogIndex())
+                .build();
+    }
+}
@@ -0,0 +1,245 @@
+package com.jobchain.service;
+
+import com.jobchain.blockchain.ViewCallCache;
+import com.jobchain.contract.JobChainContract;
+import com.jobchain.entity.ChainEventEntity;
+import com.jobchain.entity.ChainIndexerCheckpointEntity;
+import com.jobchain.entity.enums.ChainEventType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.web3j.abi.EventEncoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copies contract events into {@code chain_events} with bounded {@code eth_getLogs}
+ * ranges. Indexing trails the head by {@code confirmations} blocks; if the hash of
+ * the checkpoint block changes anyway, the last {@code reorg-depth} blocks are re-read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChainIndexerService {
+
+    private static final Map<String, ChainEventType> EVENT_TOPICS = Map.of(
+            EventEncoder.encode(JobChainContract.VACANCYCREATED_EVENT), ChainEventType.VACANCY_CREATED,
+            EventEncoder.encode(JobChainContract.APPLICATIONLOGGED_EVENT), ChainEventType.APPLICATION_LOGGED,
+            EventEncoder.encode(JobChainContract.MARKSRECORDED_EVENT), ChainEventType.MARKS_RECORDED,
+            EventEncoder.encode(JobChainContract.MERITPUBLISHED_EVENT), ChainEventType.MERIT_PUBLISHED,
+            EventEncoder.encode(JobChainContract.OMRSCANNED_EVENT), ChainEventType.OMR_SCANNED,
+            EventEncoder.encode(JobChainContract.PAPERDISTRIBUTED_EVENT), ChainEventType.PAPER_DISTRIBUTED,
+            EventEncoder.encode(JobChainContract.PAPERLEAKDETECTED_EVENT), ChainEventType.PAPER_LEAK_DETECTED,
+            EventEncoder.encode(JobChainContract.PAPERLOCKED_EVENT), ChainEventType.PAPER_LOCKED,
+            EventEncoder.encode(JobChainContract.ANSWERKEYRECORDED_EVENT), ChainEventType.ANSWER_KEY_RECORDED
+    );
+
+    private final Web3j web3j;
+    private final JobChainContract contract;
+    private final ChainEventService chainEventService;
+    private final ViewCallCache viewCallCache;
+
+    @Value("${blockchain.indexer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${blockchain.indexer.start-block:0}")
+    private long startBlock;
+
+    @Value("${blockchain.indexer.block-range:2000}")
+    private int blockRange;
+
+    @Value("${blockchain.indexer.max-ranges-per-run:20}")
+    private int maxRangesPerRun;
+
+    @Value("${blockchain.indexer.confirmations:5}")
+    private int confirmations;
+
+    @Value("${blockchain.indexer.reorg-depth:64}")
+    private int reorgDepth;
+
+    @Scheduled(fixedDelayString = "${blockchain.indexer.poll-interval-ms:5000}")
+    public void index() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            String address = contract.getContractAddress().toLowerCase();
+            ChainIndexerCheckpointEntity checkpoint =
+                    chainEventService.getOrCreateCheckpoint(address, startBlock);
+            long lastProcessed = checkpoint.getLastProcessedBlock();
+
+            if (checkpoint.getLastProcessedBlockHash() != null
+                    && !checkpoint.getLastProcessedBlockHash().equals(blockHash(lastProcessed))) {
+                long rewindTo = Math.max(startBlock - 1, lastProcessed - reorgDepth);
+                log.warn("Reorg detected at block {}, re-indexing from block {}", lastProcessed, rewindTo + 1);
+                chainEventService.rewind(address, rewindTo);
+                viewCallCache.invalidateAll();
+                lastProcessed = rewindTo;
+            }
+
+            long safeHead = web3j.ethBlockNumber().send().getBlockNumber().longValue() - confirmations;
+            long from = lastProcessed + 1;
+            int range = blockRange;
+
+            for (int i = 0; i < maxRangesPerRun && from <= safeHead; i++) {
+                long to = Math.min(from + range - 1, safeHead);
+
+                EthLog response = web3j.ethGetLogs(filter(address, from, to)).send();
+                if (response.hasError()) {
+                    // Providers cap eth_getLogs by range or result count; shrink and retry
+                    if (range > 1) {
+                        range = Math.max(1, range / 2);
+                        log.debug("eth_getLogs {}..{} rejected ({}), retrying with range {}",
+                                from, to, response.getError().getMessage(), range);
+                        continue;
+                    }
+                    throw new IOException(response.getError().getMessage());
+                }
+
+                List<ChainEventEntity> events = new ArrayList<>();
+                for (EthLog.LogResult<?> result : response.getLogs()) {
+                    Log eventLog = (Log) result.get();
+                    if (!eventLog.isRemoved()) {
+                        ChainEventEntity event = toEntity(eventLog);
+                        if (event != null) events.add(event);
+                    }
+                }
+
+                chainEventService.storeRange(address, events, to, blockHash(to));
+                events.stream()
+                        .map(ChainEventEntity::getChainVacancyId)
+                        .distinct()
+                        .forEach(viewCallCache::invalidateVacancy);
+                if (!events.isEmpty()) {
+                    log.info("Indexed {} contract events from blocks {}..{}", events.size(), from, to);
+                }
+
+                from = to + 1;
+                range = blockRange;
+            }
+        } catch (Exception e) {
+            log.warn("Chain indexer run failed: {}", e.getMessage());
+        }
+    }
+
+    private EthFilter filter(String address, long from, long to) {
+        EthFilter filter = new EthFilter(
+                DefaultBlockParameter.valueOf(BigInteger.valueOf(from)),
+                DefaultBlockParameter.valueOf(BigInteger.valueOf(to)),
+                address
+        );
+        filter.addOptionalTopics(EVENT_TOPICS.keySet().toArray(String[]::new));
+        return filter;
+    }
+
+    private String blockHash(long blockNumber) throws IOException {
+        EthBlock.Block block = web3j.ethGetBlockByNumber(
+                DefaultBlockParameter.valueOf(BigInteger.valueOf(blockNumber)),
+                false
+        ).send().getBlock();
+
+        if (block == null) {
+            throw new IOException("Block " + blockNumber + " not available");
+        }
+        return block.getHash();
+    }
+
+    private ChainEventEntity toEntity(Log eventLog) {
+        if (eventLog.getTopics().isEmpty()) return null;
+
+        ChainEventType type = EVENT_TOPICS.get(eventLog.getTopics().get(0));
+        if (type == null) return null;
+
+        ChainEventEntity.ChainEventEntityBuilder event = ChainEventEntity.builder()
+                .eventType(type)
+                .blockNumber(eventLog.getBlockNumber().longValue())
+                .blockHash(eventLog.getBlockHash())
+                .txHash(eventLog.getTransactionHash())
+                .logIndex(eventLog.getLogIndex().intValue());
+
+        switch (type) {
+            case VACANCY_CREATED -> {
+                var e = JobChainContract.getVacancyCreatedEventFromLog(eventLog);
+                event.chainVacancyId(e.vacancyId.longValue())
+                        .title(e.title)
+                        .amount(e.totalPosts.longValue())
+                        .dataHash(hex(e.hash))
+                        .eventTimestamp(e.timestamp.longValue());
+            }
+            case APPLICATION_LOGGED -> {
+                var e = JobChainContract.getApplicationLoggedEventFromLog(eventLog);
+                event.chainVacancyId(e.vacancyId.longValue())
+                        .candidate(e.candidate)
+                        .dataHash(hex(e.appHash))
+                        .eventTimestamp(e.timestamp.longValue());
+            }
+            case MARKS_RECORDED -> {
+                var e = JobChainContract.getMarksRecordedEventFromLog(eventLog);
+                event.chainVacancyId(e.vacancyId.longValue())
+                        .candidate(e.candidate)
+                        .amount(e.marks.longValue())
+                        .dataHash(hex(e.markHash))
+                        .eventTimestamp(e.timestamp.longValue());
+            }
+            case MERIT_PUBLISHED -> {
+                var e = JobChainContract.getMeritPublishedEventFromLog(eventLog);
+                event.chainVacancyId(e.vacancyId.longValue())
+                        .dataHash(hex(e.meritHash))
+                        .eventTimestamp(e.timestamp.longValue());
+            }
+            case OMR_SCANNED -> {
+                var e = JobChainContract.getOMRScannedEventFromLog(eventLog);
+                event.candidate(e.candidate)
+                        .dataHash(hex(e.omrHash))
+                        .secondaryHash(hex(e.qrHash))
+                        .eventTimestamp(e.timestamp.longValue());
+            }
+            case PAPER_DISTRIBUTED -> {
+                var e = JobChainContract.getPaperDistributedEventFromLog(eventLog);
+                event.chainVacancyId(e.vacancyId.longValue())
+                        .setId(e.setId)
+                        .dataHash(hex(e.paperHash))
+                        .eventTimestamp(e.timestamp.longValue());
+            }
+            case PAPER_LEAK_DETECTED -> {
+                var e = JobChainContract.getPaperLeakDetectedEventFromLog(eventLog);
+                event.chainVacancyId(e.vacancyId.longValue())
+                        .amount(e.suspectCount.longValue())
+                        .dataHash(hex(e.patternHash))
+                        .eventTimestamp(e.timestamp.longValue());
+            }
+            case PAPER_LOCKED -> {
+                var e = JobChainContract.getPaperLockedEventFromLog(eventLog);
+                event.chainVacancyId(e.vacancyId.longValue())
+                        .centerId(e.centerId)
+                        .setId(e.setId)
+                        .eventTimestamp(e.timestamp.longValue());
+            }
+            case ANSWER_KEY_RECORDED -> {
+                var e = JobChainContract.getAnswerKeyRecordedEventFromLog(eventLog);
+                event.dataHash(hex(e.answerKeyHash))
+                        .eventTimestamp(e.timestamp.longValue());
+            }
+        }
+
+        return event.build();
+    }
+
+    private static String hex(byte[] bytes) {
+        return Numeric.toHexStringNoPrefix(bytes);
+    }
+}
@@ -0,0 +1,296 @@
+package com.jobchain.service;
+
+import com.jobchain.blockchain.ChainUnavailableException;
+import com.jobchain.entity.*;
+import com.jobchain.repository.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains {@code chain_outbox} outside of any request transaction so API threads
+ * never wait for a receipt and no DB connection is held while a transaction is mined.
+ * Receipts are awaited through the shared poller, so in-flight entries cost no threads.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChainOutboxDispatcher {
+
+    private final ChainOutboxService chainOutboxService;
+    private final BlockchainService blockchainService;
+    private final VacancyRepository vacancyRepository;
+    private final ApplicationRepository applicationRepository;
+    private final ExamScoreRepository examScoreRepository;
+    private final MeritListRepository meritListRepository;
+    private final PaperSetRepository paperSetRepository;
+    private final FraudAlertRepository fraudAlertRepository;
+    private final MerkleBatchRepository merkleBatchRepository;
+    private final AuditAnchorRepository auditAnchorRepository;
+    private final ChainSubmissionRegistry chainSubmissionRegistry;
+
+    @Value("${blockchain.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${blockchain.outbox.concurrency:8}")
+    private int concurrency;
+
+    @Value("${blockchain.outbox.max-in-flight:500}")
+    private int maxInFlight;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Claims this instance still waits on; a nonce the watchdog is cancelling can outlive the lease
+    private final Set<UUID> inFlightEntries = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService submitExecutor;
+
+    @PostConstruct
+    void startExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        submitExecutor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "chain-submit-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        submitExecutor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${blockchain.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        // Shutting down: leave the queue for the next instance
+        if (!chainSubmissionRegistry.isAccepting()) {
+            return;
+        }
+
+        int capacity = Math.min(batchSize, maxInFlight - inFlight.get());
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<ChainOutboxEntity> entries = chainOutboxService.claimBatch(capacity);
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        // Nonces are assigned locally, so entries can be sent concurrently and mined in the same block.
+        // Only the broadcast is awaited here; receipts complete later on the shared poller.
+        log.info("Dispatching {} outbox entries ({} already in flight)", entries.size(), inFlight.get());
+        CompletableFuture.allOf(entries.stream()
+                .map(entry -> CompletableFuture.runAsync(() -> dispatch(entry), submitExecutor))
+                .toArray(CompletableFuture[]::new)
+        ).join();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    @Scheduled(fixedDelayString = "${blockchain.outbox.lease-renew-ms:120000}")
+    public void renewLeases() {
+        if (inFlightEntries.isEmpty()) {
+            return;
+        }
+        int renewed = chainOutboxService.renewLeases(List.copyOf(inFlightEntries));
+        log.debug("Renewed the lease of {} in-flight outbox entries", renewed);
+    }
+
+    private void dispatch(ChainOutboxEntity entry) {
+        inFlight.incrementAndGet();
+        inFlightEntries.add(entry.getId());
+
+        CompletableFuture<Void> anchoring;
+        try {
+            // Tags the submission with this entry so a shutdown can journal which row it belongs to
+            anchoring = chainSubmissionRegistry.runAs(
+                    new ChainSubmissionRegistry.Owner(entry.getId(), entry.getAggregateType(), entry.getAggregateId()),
+                    () -> switch (entry.getAggregateType()) {
+                        case VACANCY -> anchorVacancy(entry);
+                        case APPLICATION -> anchorApplication(entry);
+                        case EXAM_SCORE -> anchorExamScore(entry);
+                        case MERIT_LIST -> anchorMeritList(entry);
+                        case PAPER_SET -> anchorPaperSet(entry);
+                        case FRAUD_ALERT -> anchorFraudAlert(entry);
+                        case MERKLE_BATCH -> anchorMerkleBatch(entry);
+                        case OMR_SCAN -> anchorOmrScan(entry);
+                        case AUDIT_HEAD -> anchorAuditHead(entry);
+                    });
+        } catch (Exception e) {
+            anchoring = CompletableFuture.failedFuture(e);
+        }
+
+        anchoring.whenCompleteAsync((ignored, error) -> {
+            inFlight.decrementAndGet();
+            inFlightEntries.remove(entry.getId());
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+                if (cause instanceof ChainUnavailableException) {
+                    // Degraded mode: keep the write queued without spending one of its attempts
+                    log.warn("Chain unavailable, deferring {} {}: {}",
+                            entry.getAggregateType(), entry.getAggregateId(), cause.getMessage());
+                    chainOutboxService.defer(entry.getId(), cause.getMessage());
+                    return;
+                }
+                log.error("Failed to anchor {} {}: {}",
+                        entry.getAggregateType(), entry.getAggregateId(), cause.getMessage());
+                chainOutboxService.markFailed(entry.getId(), cause.getMessage());
+            }
+        }, submitExecutor);
+    }
+
+    private CompletableFuture<Void> anchorVacancy(ChainOutboxEntity entry) {
+        VacancyEntity vacancy = vacancyRepository.findById(entry.getAggregateId())
+                .orElseThrow(() -> new IllegalStateException("Vacancy not found"));
+
+        return blockchainService.createVacancyAsync(
+                vacancy.getTitle(),
+                vacancy.getTotalPosts(),
+                vacancy.getPaperHash()
+        ).thenAcceptAsync(receipt -> chainOutboxService.markVacancyAnchored(
+                entry.getId(),
+                receipt.getTransactionHash(),
+                blockchainService.extractVacancyId(receipt)
+        ), submitExecutor);
+    }
+
+    private CompletableFuture<Void> anchorApplication(ChainOutboxEntity entry) {
+        ApplicationEntity application = applicationRepository.findById(entry.getAggregateId())
+                .orElseThrow(() -> new IllegalStateException("Application not found"));
+
+        Long chainVacancyId = chainVacancyId(entry, application.getVacancyId());
+        if (chainVacancyId == null) return CompletableFuture.completedFuture(null);
+
+        return markAnchoredWhenMined(entry,
+                blockchainService.logApplicationOnChainAsync(chainVacancyId, application.getAppHash()));
+    }
+
+    private CompletableFuture<Void> anchorExamScore(ChainOutboxEntity entry) {
+        ExamScoreEntity score = examScoreRepository.findById(entry.getAggregateId())
+                .orElseThrow(() -> new IllegalStateException("Exam score not found"));
+
+        Long chainVacancyId = chainVacancyId(entry, score.getVacancyId());
+        if (chainVacancyId == null) return CompletableFuture.completedFuture(null);
+
+        return markAnchoredWhenMined(entry, blockchainService.recordExamScoreOnChainAsync(
+                chainVacancyId,
+                (int) score.getMarks(),
+                score.getMarkingHash()
+        ));
+    }
+
+    private CompletableFuture<Void> anchorMeritList(ChainOutboxEntity entry) {
+        MeritListEntity meritList = meritListRepository.findById(entry.getAggregateId())
+                .orElseThrow(() -> new IllegalStateException("Merit list not found"));
+
+        Long chainVacancyId = chainVacancyId(entry, meritList.getVacancyId());
+        if (chainVacancyId == null) return CompletableFuture.completedFuture(null);
+
+        return markAnchoredWhenMined(entry,
+                blockchainService.publishMeritOnChainAsync(chainVacancyId, meritList.getMeritHash()));
+    }
+
+    private CompletableFuture<Void> anchorPaperSet(ChainOutboxEntity entry) {
+        PaperSetEntity paperSet = paperSetRepository.findById(entry.getAggregateId())
+                .orElseThrow(() -> new IllegalStateException("Paper set not found"));
+
+        Long chainVacancyId = chainVacancyId(entry, paperSet.getVacancyId());
+        if (chainVacancyId == null) return CompletableFuture.completedFuture(null);
+
+        return markAnchoredWhenMined(entry, blockchainService.distributePaperOnChainAsync(
+                chainVacancyId,
+                paperSet.getSetId(),
+                paperSet.getPaperHash()
+        ));
+    }
+
+    private CompletableFuture<Void> anchorFraudAlert(ChainOutboxEntity entry) {
+        FraudAlertEntity alert = fraudAlertRepository.findById(entry.getAggregateId())
+                .orElseThrow(() -> new IllegalStateException("Fraud alert not found"));
+
+        Long chainVacancyId = chainVacancyId(entry, alert.getVacancyId());
+        if (chainVacancyId == null) return CompletableFuture.completedFuture(null);
+
+        return markAnchoredWhenMined(entry, blockchainService.detectPaperLeakOnChainAsync(
+                chainVacancyId,
+                alert.getSuspectCount(),
+                alert.getPatternHash()
+        ));
+    }
+
+    private CompletableFuture<Void> anchorMerkleBatch(ChainOutboxEntity entry) {
+        MerkleBatchEntity batch = merkleBatchRepository.findById(entry.getAggregateId())
+                .orElseThrow(() -> new IllegalStateException("Merkle batch not found"));
+
+        Long chainVacancyId = chainVacancyId(entry, batch.getVacancyId());
+        if (chainVacancyId == null) return CompletableFuture.completedFuture(null);
+
+        // The root goes through the same logApplication(vacancyId, bytes32) call as a single application
+        return markAnchoredWhenMined(entry,
+                blockchainService.logApplicationOnChainAsync(chainVacancyId, batch.getRootHash()));
+    }
+
+    private CompletableFuture<Void> anchorOmrScan(ChainOutboxEntity entry) {
+        ApplicationEntity application = applicationRepository.findById(entry.getAggregateId())
+                .orElseThrow(() -> new IllegalStateException("Application not found"));
+
+        return markAnchoredWhenMined(entry, blockchainService.recordOmrScanOnChainAsync(
+                application.getOmrHash(),
+                application.getOmrQrHash()
+        ));
+    }
+
+    private CompletableFuture<Void> anchorAuditHead(ChainOutboxEntity entry) {
+        AuditAnchorEntity anchor = auditAnchorRepository.findById(entry.getAggregateId())
+                .orElseThrow(() -> new IllegalStateException("Audit anchor not found"));
+        if (anchor.getJournalId() == null) {
+            throw new IllegalStateException("Audit anchor " + anchor.getId() + " has no journal id");
+        }
+
+        // Kept off the contract so the head never shows up as an OMR scan or any other event
+        return markAnchoredWhenMined(entry,
+                blockchainService.anchorAuditHeadAsync(AuditJournalService.anchorCalldata(anchor)));
+    }
+
+    private CompletableFuture<Void> markAnchoredWhenMined(
+            ChainOutboxEntity entry,
+            CompletableFuture<String> txHash
+    ) {
+        return txHash.thenAcceptAsync(
+                hash -> chainOutboxService.markAnchored(entry.getId(), hash),
+                submitExecutor
+        );
+    }
+
+    // The claim query already skips entries whose vacancy has no chain id; this only catches
+    // a claim that raced the vacancy's own anchoring, and returns null after deferring it
+    private Long chainVacancyId(ChainOutboxEntity entry, UUID vacancyId) {
+        VacancyEntity vacancy = vacancyRepository.findById(vacancyId)
+                .orElseThrow(() -> new IllegalStateException("Vacancy not found: " + vacancyId));
+
+        if (vacancy.getBlockchainVacancyId() == null) {
+            chainOutboxService.defer(entry.getId(), "Waiting for vacancy " + vacancyId + " to be anchored");
+            return null;
+        }
+
+        return vacancy.getBlockchainVacancyId();
+    }
+}
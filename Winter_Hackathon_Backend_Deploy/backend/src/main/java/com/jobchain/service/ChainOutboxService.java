@@ -0,0 +1,307 @@
+package com.jobchain.service;
+
+import com.jobchain.dto.ChainStatusResponse;
+import com.jobchain.entity.ChainOutboxEntity;
+import com.jobchain.entity.enums.AnchorType;
+import com.jobchain.entity.enums.ChainStatus;
+import com.jobchain.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ChainOutboxService {
+
+    private final ChainOutboxRepository chainOutboxRepository;
+    private final VacancyRepository vacancyRepository;
+    private final ApplicationRepository applicationRepository;
+    private final ExamScoreRepository examScoreRepository;
+    private final MeritListRepository meritListRepository;
+    private final PaperSetRepository paperSetRepository;
+    private final FraudAlertRepository fraudAlertRepository;
+    private final MerkleBatchRepository merkleBatchRepository;
+    private final AuditAnchorRepository auditAnchorRepository;
+
+    @Value("${blockchain.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${blockchain.outbox.retry-delay-ms:10000}")
+    private long retryDelayMs;
+
+    // Live claims are renewed by the dispatcher, so only claims of an instance that died expire
+    @Value("${blockchain.outbox.lease-ms:600000}")
+    private long leaseMs;
+
+    public ChainOutboxEntity enqueue(AnchorType aggregateType, UUID aggregateId) {
+        ChainOutboxEntity entry = ChainOutboxEntity.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .status(ChainStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+
+        log.info("Queued {} {} for anchoring", aggregateType, aggregateId);
+        return chainOutboxRepository.save(entry);
+    }
+
+    public List<ChainOutboxEntity> enqueueAll(AnchorType aggregateType, List<UUID> aggregateIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ChainOutboxEntity> entries = aggregateIds.stream()
+                .map(aggregateId -> ChainOutboxEntity.builder()
+                        .aggregateType(aggregateType)
+                        .aggregateId(aggregateId)
+                        .status(ChainStatus.PENDING)
+                        .nextAttemptAt(now)
+                        .build())
+                .toList();
+
+        log.info("Queued {} {} entries for anchoring", entries.size(), aggregateType);
+        return chainOutboxRepository.saveAll(entries);
+    }
+
+    public List<ChainOutboxEntity> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ChainOutboxEntity> entries = chainOutboxRepository.lockDueEntries(
+                now, now.minus(Duration.ofMillis(leaseMs)), limit);
+
+        for (ChainOutboxEntity entry : entries) {
+            if (entry.getStatus() == ChainStatus.SUBMITTED) {
+                log.warn("Reclaiming {} {} after its lease expired (attempt {})",
+                        entry.getAggregateType(), entry.getAggregateId(), entry.getAttempts());
+            }
+            entry.setStatus(ChainStatus.SUBMITTED);
+            entry.setAttempts(entry.getAttempts() + 1);
+            updateAggregateStatus(entry.getAggregateType(), entry.getAggregateId(),
+                    ChainStatus.SUBMITTED, null);
+        }
+
+        return chainOutboxRepository.saveAll(entries);
+    }
+
+    public int renewLeases(Collection<UUID> entryIds) {
+        return chainOutboxRepository.renewLeases(entryIds);
+    }
+
+    public void markAnchored(UUID entryId, String txHash) {
+        ChainOutboxEntity entry = getEntry(entryId);
+        entry.setStatus(ChainStatus.ANCHORED);
+        entry.setBlockchainTxHash(txHash);
+        entry.setLastError(null);
+        chainOutboxRepository.save(entry);
+
+        updateAggregateStatus(entry.getAggregateType(), entry.getAggregateId(),
+                ChainStatus.ANCHORED, txHash);
+
+        log.info("Anchored {} {}: txHash={}",
+                entry.getAggregateType(), entry.getAggregateId(), txHash);
+    }
+
+    public void markVacancyAnchored(UUID entryId, String txHash, Long blockchainVacancyId) {
+        ChainOutboxEntity entry = getEntry(entryId);
+
+        vacancyRepository.findById(entry.getAggregateId()).ifPresent(vacancy -> {
+            vacancy.setBlockchainVacancyId(blockchainVacancyId);
+            vacancyRepository.save(vacancy);
+        });
+
+        markAnchored(entryId, txHash);
+    }
+
+    public void markFailed(UUID entryId, String error) {
+        ChainOutboxEntity entry = getEntry(entryId);
+        entry.setLastError(truncate(error));
+
+        if (entry.getAttempts() >= maxAttempts) {
+            entry.setStatus(ChainStatus.FAILED);
+            updateAggregateStatus(entry.getAggregateType(), entry.getAggregateId(),
+                    ChainStatus.FAILED, null);
+            log.error("Giving up on {} {} after {} attempts: {}",
+                    entry.getAggregateType(), entry.getAggregateId(), entry.getAttempts(), error);
+        } else {
+            entry.setStatus(ChainStatus.PENDING);
+            entry.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(retryDelayMs)));
+            updateAggregateStatus(entry.getAggregateType(), entry.getAggregateId(),
+                    ChainStatus.PENDING, null);
+            log.warn("Anchoring {} {} failed (attempt {}), will retry: {}",
+                    entry.getAggregateType(), entry.getAggregateId(), entry.getAttempts(), error);
+        }
+
+        chainOutboxRepository.save(entry);
+    }
+
+    // Puts an entry back without counting an attempt, e.g. while its vacancy is still unanchored
+    public void defer(UUID entryId, String reason) {
+        ChainOutboxEntity entry = getEntry(entryId);
+        entry.setStatus(ChainStatus.PENDING);
+        entry.setAttempts(Math.max(0, entry.getAttempts() - 1));
+        entry.setLastError(truncate(reason));
+        entry.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(retryDelayMs)));
+        chainOutboxRepository.save(entry);
+
+        updateAggregateStatus(entry.getAggregateType(), entry.getAggregateId(),
+                ChainStatus.PENDING, null);
+    }
+
+    /**
+     * Sends an aggregate the reconciler found unanchored back through the outbox.
+     * {@code notBefore} spaces re-anchors out so a large repair does not flood the
+     * dispatcher; a hash whose transaction was dropped or reverted is cleared first.
+     */
+    public ChainOutboxEntity requeue(
+            AnchorType aggregateType,
+            UUID aggregateId,
+            LocalDateTime notBefore,
+            boolean clearTxHash
+    ) {
+        if (clearTxHash) {
+            clearTxHash(aggregateType, aggregateId);
+        }
+        chainOutboxRepository.failSubmitted(aggregateType, aggregateId, "Superseded by reconciliation");
+        updateAggregateStatus(aggregateType, aggregateId, ChainStatus.PENDING, null);
+
+        return chainOutboxRepository.save(ChainOutboxEntity.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .status(ChainStatus.PENDING)
+                .nextAttemptAt(notBefore)
+                .build());
+    }
+
+    // The receipt checked out, only the row's status was left behind
+    public void confirmAnchored(AnchorType aggregateType, UUID aggregateId, String txHash) {
+        updateAggregateStatus(aggregateType, aggregateId, ChainStatus.ANCHORED, txHash);
+    }
+
+    @Transactional(readOnly = true)
+    public long countQueued() {
+        return chainOutboxRepository.countByStatus(ChainStatus.PENDING);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ChainStatusResponse> getStatus(AnchorType aggregateType, UUID aggregateId) {
+        return chainOutboxRepository
+                .findFirstByAggregateTypeAndAggregateIdOrderByCreatedAtDesc(aggregateType, aggregateId)
+                .map(entry -> ChainStatusResponse.builder()
+                        .aggregateType(entry.getAggregateType())
+                        .aggregateId(entry.getAggregateId())
+                        .chainStatus(entry.getStatus())
+                        .blockchainTxHash(entry.getBlockchainTxHash())
+                        .attempts(entry.getAttempts())
+                        .lastError(entry.getLastError())
+                        .updatedAt(entry.getUpdatedAt())
+                        .build());
+    }
+
+    private ChainOutboxEntity getEntry(UUID entryId) {
+        return chainOutboxRepository.findById(entryId)
+                .orElseThrow(() -> new IllegalArgumentException("Outbox entry not found: " + entryId));
+    }
+
+    private void updateAggregateStatus(
+            AnchorType aggregateType,
+            UUID aggregateId,
+            ChainStatus status,
+            String txHash
+    ) {
+        switch (aggregateType) {
+            case VACANCY -> vacancyRepository.findById(aggregateId).ifPresent(e -> {
+                e.setChainStatus(status);
+                if (txHash != null) e.setBlockchainTxHash(txHash);
+                vacancyRepository.save(e);
+            });
+            case APPLICATION -> applicationRepository.findById(aggregateId).ifPresent(e -> {
+                e.setChainStatus(status);
+                if (txHash != null) e.setBlockchainTxHash(txHash);
+                applicationRepository.save(e);
+            });
+            case EXAM_SCORE -> examScoreRepository.findById(aggregateId).ifPresent(e -> {
+                e.setChainStatus(status);
+                if (txHash != null) e.setBlockchainTxHash(txHash);
+                examScoreRepository.save(e);
+            });
+            case MERIT_LIST -> meritListRepository.findById(aggregateId).ifPresent(e -> {
+                e.setChainStatus(status);
+                if (txHash != null) e.setBlockchainTxHash(txHash);
+                meritListRepository.save(e);
+            });
+            case PAPER_SET -> paperSetRepository.findById(aggregateId).ifPresent(e -> {
+                e.setChainStatus(status);
+                if (txHash != null) e.setBlockchainTxHash(txHash);
+                paperSetRepository.save(e);
+            });
+            case FRAUD_ALERT -> fraudAlertRepository.findById(aggregateId).ifPresent(e -> {
+                e.setChainStatus(status);
+                if (txHash != null) e.setBlockchainTxHash(txHash);
+                fraudAlertRepository.save(e);
+            });
+            case MERKLE_BATCH -> merkleBatchRepository.findById(aggregateId).ifPresent(e -> {
+                e.setChainStatus(status);
+                if (txHash != null) {
+                    e.setBlockchainTxHash(txHash);
+                    applicationRepository.markAnchoredByMerkleBatchId(aggregateId, txHash);
+                } else {
+                    applicationRepository.updateChainStatusByMerkleBatchId(aggregateId, status);
+                }
+                merkleBatchRepository.save(e);
+            });
+            // OMR anchoring has its own columns so it never clobbers the application's own chain status
+            case OMR_SCAN -> applicationRepository.findById(aggregateId).ifPresent(e -> {
+                if (txHash == null) return;
+                e.setOmrVerified(true);
+                e.setOmrBlockchainTxHash(txHash);
+                e.setOmrVerifiedAt(new Date());
+                applicationRepository.save(e);
+            });
+            case AUDIT_HEAD -> auditAnchorRepository.findById(aggregateId).ifPresent(e -> {
+                e.setChainStatus(status);
+                if (txHash != null) e.setBlockchainTxHash(txHash);
+                auditAnchorRepository.save(e);
+            });
+        }
+    }
+
+    private void clearTxHash(AnchorType aggregateType, UUID aggregateId) {
+        switch (aggregateType) {
+            case APPLICATION -> applicationRepository.findById(aggregateId).ifPresent(e -> {
+                e.setBlockchainTxHash(null);
+                applicationRepository.save(e);
+            });
+            case EXAM_SCORE -> examScoreRepository.findById(aggregateId).ifPresent(e -> {
+                e.setBlockchainTxHash(null);
+                examScoreRepository.save(e);
+            });
+            case MERIT_LIST -> meritListRepository.findById(aggregateId).ifPresent(e -> {
+                e.setBlockchainTxHash(null);
+                meritListRepository.save(e);
+            });
+            case PAPER_SET -> paperSetRepository.findById(aggregateId).ifPresent(e -> {
+                e.setBlockchainTxHash(null);
+                paperSetRepository.save(e);
+            });
+            case MERKLE_BATCH -> merkleBatchRepository.findById(aggregateId).ifPresent(e -> {
+                e.setBlockchainTxHash(null);
+                merkleBatchRepository.save(e);
+            });
+            default -> {
+            }
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null) return null;
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
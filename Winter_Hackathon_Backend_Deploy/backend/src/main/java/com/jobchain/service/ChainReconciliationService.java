@@ -0,0 +1,309 @@
+package com.jobchain.service;
+
+import com.jobchain.blockchain.BatchingReceiptProcessor;
+import com.jobchain.blockchain.StuckTransactionWatchdog;
+import com.jobchain.dto.ChainReconciliationReportResponse;
+import com.jobchain.entity.ChainReconciliationRunEntity;
+import com.jobchain.entity.enums.AnchorType;
+import com.jobchain.entity.enums.ChainStatus;
+import com.jobchain.repository.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Finds rows that a half-finished chain call left without a transaction hash, or with
+ * a hash whose transaction never landed, and sends them back through the outbox.
+ * Rows are read in keyset pages, their receipts are checked in batched JSON-RPC calls,
+ * and re-anchors are spaced {@code requeue-interval-ms} apart. Each run is stored in
+ * {@code chain_reconciliation_runs}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChainReconciliationService {
+
+    private static final UUID FIRST_KEY = new UUID(0, 0);
+
+    private final ApplicationRepository applicationRepository;
+    private final ExamScoreRepository examScoreRepository;
+    private final PaperSetRepository paperSetRepository;
+    private final MeritListRepository meritListRepository;
+    private final ChainReconciliationRunRepository runRepository;
+    private final ChainOutboxService chainOutboxService;
+    private final BatchingReceiptProcessor receiptProcessor;
+    private final StuckTransactionWatchdog stuckTransactionWatchdog;
+
+    @Value("${blockchain.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${blockchain.reconcile.grace-period-ms:1800000}")
+    private long gracePeriodMs;
+
+    @Value("${blockchain.reconcile.page-size:200}")
+    private int pageSize;
+
+    @Value("${blockchain.reconcile.max-requeues-per-run:500}")
+    private int maxRequeuesPerRun;
+
+    @Value("${blockchain.reconcile.requeue-interval-ms:200}")
+    private long requeueIntervalMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private ExecutorService runner;
+
+    @PostConstruct
+    void startRunner() {
+        runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chain-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopRunner() {
+        runner.shutdownNow();
+    }
+
+    private interface CandidatePage {
+        List<Object[]> fetch(UUID after, LocalDateTime cutoff, int limit);
+    }
+
+    private record Source(AnchorType type, CandidatePage page) {
+    }
+
+    // The row's own id, or the Merkle batch that anchors it
+    private record Candidate(UUID id, String txHash, String chainStatus, AnchorType targetType, UUID targetId) {
+    }
+
+    @Scheduled(
+            fixedDelayString = "${blockchain.reconcile.interval-ms:900000}",
+            initialDelayString = "${blockchain.reconcile.initial-delay-ms:120000}"
+    )
+    public void scheduledRun() {
+        if (!enabled || running.get()) {
+            return;
+        }
+        reconcile();
+    }
+
+    public ChainReconciliationReportResponse reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A reconciliation run is already in progress");
+        }
+        return runClaimed();
+    }
+
+    // For on-demand runs: returns at once, the report lands in chain_reconciliation_runs
+    public void startRun() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A reconciliation run is already in progress");
+        }
+        try {
+            runner.execute(this::runClaimed);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            throw new IllegalStateException("Reconciliation runner is shut down", e);
+        }
+    }
+
+    private ChainReconciliationReportResponse runClaimed() {
+        Run run = new Run();
+        try {
+            LocalDateTime cutoff = run.entity.getStartedAt().minus(Duration.ofMillis(gracePeriodMs));
+            Set<String> watched = stuckTransactionWatchdog.getTracked().stream()
+                    .flatMap(tracked -> tracked.txHashes().stream())
+                    .map(String::toLowerCase)
+                    .collect(Collectors.toSet());
+
+            for (Source source : sources()) {
+                UUID after = FIRST_KEY;
+                List<Object[]> rows;
+                do {
+                    rows = source.page().fetch(after, cutoff, pageSize);
+                    if (rows.isEmpty()) break;
+
+                    List<Candidate> page = rows.stream().map(row -> toCandidate(source.type(), row)).toList();
+                    after = page.get(page.size() - 1).id();
+                    run.entity.setScanned(run.entity.getScanned() + page.size());
+
+                    check(page, watched, run);
+                } while (!run.entity.isTruncated() && rows.size() == pageSize);
+
+                if (run.entity.isTruncated()) break;
+            }
+        } catch (Exception e) {
+            log.error("Chain reconciliation run failed: {}", e.getMessage());
+            run.entity.setError(e.getMessage() != null && e.getMessage().length() > 500
+                    ? e.getMessage().substring(0, 500)
+                    : e.getMessage());
+        } finally {
+            run.entity.setFinishedAt(LocalDateTime.now());
+            runRepository.save(run.entity);
+            running.set(false);
+        }
+
+        ChainReconciliationRunEntity result = run.entity;
+        log.info("Chain reconciliation: scanned={}, confirmed={}, repaired={}, missing={}, dropped={}, "
+                        + "reverted={}, requeued={}, skipped={}{}",
+                result.getScanned(), result.getConfirmed(), result.getStatusRepaired(), result.getMissingHash(),
+                result.getDropped(), result.getReverted(), result.getRequeued(), result.getSkipped(),
+                result.isTruncated() ? " (stopped at requeue limit)" : "");
+        return toResponse(result);
+    }
+
+    public List<ChainReconciliationReportResponse> getRecentRuns(int limit) {
+        return runRepository.findAllByOrderByStartedAtDesc(PageRequest.of(0, limit)).stream()
+                .map(ChainReconciliationService::toResponse)
+                .toList();
+    }
+
+    private List<Source> sources() {
+        return List.of(
+                new Source(AnchorType.APPLICATION, applicationRepository::findReconcileCandidates),
+                new Source(AnchorType.EXAM_SCORE, examScoreRepository::findReconcileCandidates),
+                new Source(AnchorType.PAPER_SET, paperSetRepository::findReconcileCandidates),
+                new Source(AnchorType.MERIT_LIST, meritListRepository::findReconcileCandidates)
+        );
+    }
+
+    private void check(List<Candidate> page, Set<String> watched, Run run) throws Exception {
+        List<Candidate> withHash = new ArrayList<>();
+
+        for (Candidate candidate : page) {
+            if (candidate.txHash() == null) {
+                run.entity.setMissingHash(run.entity.getMissingHash() + 1);
+                requeue(candidate, false, run);
+            } else if (watched.contains(candidate.txHash().toLowerCase())) {
+                run.entity.setSkipped(run.entity.getSkipped() + 1);
+            } else {
+                withHash.add(candidate);
+            }
+        }
+
+        if (withHash.isEmpty()) return;
+
+        List<EthGetTransactionReceipt> receipts =
+                receiptProcessor.lookup(withHash.stream().map(Candidate::txHash).toList());
+        List<Candidate> unmined = new ArrayList<>();
+
+        for (int i = 0; i < withHash.size(); i++) {
+            Candidate candidate = withHash.get(i);
+            EthGetTransactionReceipt response = receipts.get(i);
+
+            if (response.hasError()) {
+                run.entity.setSkipped(run.entity.getSkipped() + 1);
+                continue;
+            }
+
+            TransactionReceipt receipt = response.getTransactionReceipt().orElse(null);
+            if (receipt == null) {
+                unmined.add(candidate);
+            } else if (!receipt.isStatusOK()) {
+                run.entity.setReverted(run.entity.getReverted() + 1);
+                requeue(candidate, true, run);
+            } else {
+                run.entity.setConfirmed(run.entity.getConfirmed() + 1);
+                if (!ChainStatus.ANCHORED.name().equals(candidate.chainStatus())) {
+                    chainOutboxService.confirmAnchored(candidate.targetType(), candidate.targetId(),
+                            receipt.getTransactionHash());
+                    run.entity.setStatusRepaired(run.entity.getStatusRepaired() + 1);
+                }
+            }
+        }
+
+        if (unmined.isEmpty()) return;
+
+        // No receipt is not the same as dropped: a transaction still in the mempool, possibly
+        // sent by another instance, would be anchored twice. Only ones the node never saw go back
+        List<EthTransaction> transactions =
+                receiptProcessor.lookupTransactions(unmined.stream().map(Candidate::txHash).toList());
+
+        for (int i = 0; i < unmined.size(); i++) {
+            Candidate candidate = unmined.get(i);
+            EthTransaction response = transactions.get(i);
+
+            if (response.hasError() || response.getTransaction().isPresent()) {
+                run.entity.setSkipped(run.entity.getSkipped() + 1);
+            } else {
+                run.entity.setDropped(run.entity.getDropped() + 1);
+                requeue(candidate, true, run);
+            }
+        }
+    }
+
+    private void requeue(Candidate candidate, boolean clearTxHash, Run run) {
+        // Applications of one Merkle batch share a single re-anchor
+        if (!run.requeuedTargets.add(candidate.targetId())) return;
+
+        if (run.entity.getRequeued() >= maxRequeuesPerRun) {
+            run.entity.setTruncated(true);
+            return;
+        }
+
+        LocalDateTime notBefore = run.entity.getStartedAt()
+                .plus(Duration.ofMillis(requeueIntervalMs * run.entity.getRequeued()));
+        chainOutboxService.requeue(candidate.targetType(), candidate.targetId(), notBefore, clearTxHash);
+        run.entity.setRequeued(run.entity.getRequeued() + 1);
+
+        log.info("Reconciler re-queued {} {} ({})", candidate.targetType(), candidate.targetId(),
+                candidate.txHash() == null ? "no tx hash" : "tx " + candidate.txHash() + " not mined");
+    }
+
+    private static Candidate toCandidate(AnchorType type, Object[] row) {
+        UUID id = (UUID) row[0];
+        UUID batchId = row.length > 3 ? (UUID) row[3] : null;
+        return batchId != null
+                ? new Candidate(id, (String) row[1], (String) row[2], AnchorType.MERKLE_BATCH, batchId)
+                : new Candidate(id, (String) row[1], (String) row[2], type, id);
+    }
+
+    private static ChainReconciliationReportResponse toResponse(ChainReconciliationRunEntity run) {
+        return ChainReconciliationReportResponse.builder()
+                .runId(run.getId())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .scanned(run.getScanned())
+                .confirmed(run.getConfirmed())
+                .statusRepaired(run.getStatusRepaired())
+                .missingHash(run.getMissingHash())
+                .dropped(run.getDropped())
+                .reverted(run.getReverted())
+                .requeued(run.getRequeued())
+                .skipped(run.getSkipped())
+                .truncated(run.isTruncated())
+                .error(run.getError())
+                .build();
+    }
+
+    private static final class Run {
+
+        private final ChainReconciliationRunEntity entity = ChainReconciliationRunEntity.builder()
+                .startedAt(LocalDateTime.now())
+                .build();
+        private final Set<UUID> requeuedTargets = new HashSet<>();
+    }
+}
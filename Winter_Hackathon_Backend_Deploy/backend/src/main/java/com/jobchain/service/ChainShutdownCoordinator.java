@@ -0,0 +1,229 @@
+package com.jobchain.service;
+
+import com.jobchain.blockchain.BatchingReceiptProcessor;
+import com.jobchain.blockchain.StuckTransactionWatchdog;
+import com.jobchain.entity.enums.AnchorType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On shutdown, stops new chain work, waits up to {@code drain-timeout-ms} for the
+ * receipts of everything already broadcast, and journals whatever is still pending.
+ * On startup the journal is replayed: mined transactions settle their outbox entries,
+ * unmined ones are watched again, and entries that never got broadcast are re-queued.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChainShutdownCoordinator implements SmartLifecycle {
+
+    private final ChainSubmissionRegistry chainSubmissionRegistry;
+    private final ChainSubmissionJournal chainSubmissionJournal;
+    private final ChainOutboxService chainOutboxService;
+    private final ChainOutboxDispatcher chainOutboxDispatcher;
+    private final BlockchainService blockchainService;
+    private final BatchingReceiptProcessor receiptProcessor;
+    private final StuckTransactionWatchdog stuckTransactionWatchdog;
+
+    @Value("${blockchain.shutdown.drain-timeout-ms:30000}")
+    private long drainTimeoutMs;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        running = true;
+        replayJournal();
+    }
+
+    @Override
+    public void stop() {
+        chainSubmissionRegistry.stopAccepting();
+        long deadline = System.currentTimeMillis() + drainTimeoutMs;
+
+        log.info("Draining {} chain submissions before shutdown (up to {} ms)",
+                chainSubmissionRegistry.size(), drainTimeoutMs);
+        try {
+            while ((chainSubmissionRegistry.size() > 0 || chainOutboxDispatcher.getInFlightCount() > 0)
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(200);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<ChainSubmissionRegistry.Submission> pending = chainSubmissionRegistry.snapshot();
+        running = false;
+        if (pending.isEmpty()) {
+            log.info("All chain submissions drained");
+            return;
+        }
+
+        List<ChainSubmissionJournal.Entry> entries = toJournalEntries(pending);
+        try {
+            chainSubmissionJournal.write(entries);
+            log.warn("{} chain submissions still unconfirmed at shutdown, journaled to {}",
+                    entries.size(), chainSubmissionJournal.getPath());
+        } catch (Exception e) {
+            // Last resort: the hashes are in the log for manual recovery
+            log.error("Failed to write chain journal ({}), unconfirmed submissions: {}", e.getMessage(), entries);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // After the web server's graceful shutdown (DEFAULT_PHASE - 1024) has let requests finish
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1536;
+    }
+
+    // Retried on a timer when the node was unreachable at startup; a no-op once the journal is gone
+    @Scheduled(fixedDelayString = "${blockchain.shutdown.replay-retry-ms:60000}")
+    public synchronized void replayJournal() {
+        if (!running) return;
+
+        try {
+            List<ChainSubmissionJournal.Entry> entries = chainSubmissionJournal.read();
+            if (entries.isEmpty()) return;
+
+            List<String> hashes = entries.stream().flatMap(entry -> entry.txHashes().stream()).toList();
+            List<EthGetTransactionReceipt> responses = receiptProcessor.lookup(hashes);
+            Map<String, TransactionReceipt> receipts = new HashMap<>();
+            for (int i = 0; i < hashes.size(); i++) {
+                responses.get(i).getTransactionReceipt()
+                        .ifPresent(r -> receipts.put(r.getTransactionHash().toLowerCase(), r));
+            }
+
+            int mined = 0;
+            int watching = 0;
+            int requeued = 0;
+            for (ChainSubmissionJournal.Entry entry : entries) {
+                if (entry.txHashes().isEmpty()) {
+                    if (entry.outboxEntryId() != null) {
+                        chainOutboxService.defer(entry.outboxEntryId(), "Not broadcast before shutdown");
+                    }
+                    requeued++;
+                    continue;
+                }
+
+                TransactionReceipt receipt = entry.txHashes().stream()
+                        .map(hash -> receipts.get(hash.toLowerCase()))
+                        .filter(Objects::nonNull)
+                        .findFirst()
+                        .orElse(null);
+                if (receipt != null) {
+                    settle(entry, receipt);
+                    mined++;
+                } else {
+                    watch(entry);
+                    watching++;
+                }
+            }
+
+            chainSubmissionJournal.clear();
+            log.info("Replayed chain journal: {} mined, {} still pending, {} re-queued", mined, watching, requeued);
+        } catch (Exception e) {
+            log.warn("Chain journal replay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private List<ChainSubmissionJournal.Entry> toJournalEntries(List<ChainSubmissionRegistry.Submission> pending) {
+        // Include every same-nonce replacement the watchdog sent, any of them may be the one mined
+        Map<String, List<String>> replacements = new HashMap<>();
+        for (StuckTransactionWatchdog.Snapshot tracked : stuckTransactionWatchdog.getTracked()) {
+            replacements.put(tracked.from().toLowerCase() + ":" + tracked.nonce(), tracked.txHashes());
+        }
+
+        List<ChainSubmissionJournal.Entry> entries = new ArrayList<>();
+        for (ChainSubmissionRegistry.Submission submission : pending) {
+            List<String> hashes = submission.getTxHash() == null
+                    ? List.of()
+                    : replacements.getOrDefault(
+                            submission.getFrom().toLowerCase() + ":" + submission.getNonce(),
+                            List.of(submission.getTxHash()));
+            ChainSubmissionRegistry.Owner owner = submission.getOwner();
+
+            entries.add(new ChainSubmissionJournal.Entry(
+                    submission.getFunction(),
+                    submission.getFrom(),
+                    submission.getNonce(),
+                    hashes,
+                    owner == null ? null : owner.outboxEntryId(),
+                    owner == null ? null : owner.aggregateType(),
+                    owner == null ? null : owner.aggregateId()
+            ));
+        }
+        return entries;
+    }
+
+    private void watch(ChainSubmissionJournal.Entry entry) {
+        ChainSubmissionRegistry.Owner owner = entry.outboxEntryId() == null ? null
+                : new ChainSubmissionRegistry.Owner(entry.outboxEntryId(), entry.aggregateType(), entry.aggregateId());
+        ChainSubmissionRegistry.Submission submission = chainSubmissionRegistry.adopt(
+                entry.function(), owner, entry.from(), entry.nonce(),
+                entry.txHashes().get(entry.txHashes().size() - 1));
+
+        AtomicBoolean settled = new AtomicBoolean();
+        AtomicInteger remaining = new AtomicInteger(entry.txHashes().size());
+        for (String hash : entry.txHashes()) {
+            CompletableFuture<TransactionReceipt> receipt = receiptProcessor.track(hash);
+            receipt.whenComplete((mined, error) -> {
+                if (mined != null && settled.compareAndSet(false, true)) {
+                    entry.txHashes().stream()
+                            .filter(other -> !other.equalsIgnoreCase(mined.getTransactionHash()))
+                            .forEach(receiptProcessor::untrack);
+                    settle(entry, mined);
+                    submission.close();
+                } else if (error != null && remaining.decrementAndGet() == 0 && settled.compareAndSet(false, true)) {
+                    if (entry.outboxEntryId() != null) {
+                        chainOutboxService.markFailed(entry.outboxEntryId(),
+                                "Journaled transaction never mined: " + error.getMessage());
+                    }
+                    submission.close();
+                }
+            });
+        }
+    }
+
+    private void settle(ChainSubmissionJournal.Entry entry, TransactionReceipt receipt) {
+        if (entry.outboxEntryId() == null) {
+            log.info("Journaled {} tx {} mined with status {}",
+                    entry.function(), receipt.getTransactionHash(), receipt.getStatus());
+            return;
+        }
+
+        try {
+            if (!receipt.isStatusOK()) {
+                chainOutboxService.markFailed(entry.outboxEntryId(),
+                        "Transaction " + receipt.getTransactionHash() + " has failed with status: " + receipt.getStatus());
+            } else if (entry.aggregateType() == AnchorType.VACANCY) {
+                chainOutboxService.markVacancyAnchored(entry.outboxEntryId(), receipt.getTransactionHash(),
+                        blockchainService.extractVacancyId(receipt));
+            } else {
+                chainOutboxService.markAnchored(entry.outboxEntryId(), receipt.getTransactionHash());
+            }
+        } catch (Exception e) {
+            log.error("Failed to settle journaled {} {}: {}",
+                    entry.aggregateType(), entry.aggregateId(), e.getMessage());
+        }
+    }
+}
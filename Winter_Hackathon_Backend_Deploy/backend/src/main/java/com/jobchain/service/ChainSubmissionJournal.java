@@ -0,0 +1,97 @@
+package com.jobchain.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobchain.entity.enums.AnchorType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Local NDJSON file holding the chain transactions that were still unconfirmed when
+ * the process stopped. It is written once at shutdown (temp file, fsync, atomic rename)
+ * and replayed by {@link ChainShutdownCoordinator} on the next start.
+ */
+@Component
+@Slf4j
+public class ChainSubmissionJournal {
+
+    public record Entry(
+            String function,
+            String from,
+            Long nonce,
+            List<String> txHashes,
+            UUID outboxEntryId,
+            AnchorType aggregateType,
+            UUID aggregateId
+    ) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${blockchain.shutdown.journal-path:./data/chain-journal.ndjson}")
+    private Path path;
+
+    public synchronized void write(List<Entry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            clear();
+            return;
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = parent.resolve(path.getFileName() + ".tmp");
+
+        StringBuilder content = new StringBuilder();
+        for (Entry entry : entries) {
+            content.append(objectMapper.writeValueAsString(entry)).append('\n');
+        }
+
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public synchronized List<Entry> read() throws IOException {
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) continue;
+            try {
+                entries.add(objectMapper.readValue(line, Entry.class));
+            } catch (IOException e) {
+                // A torn last line is the only way this happens; everything before it is intact
+                log.warn("Skipping unreadable chain journal line: {}", e.getMessage());
+            }
+        }
+        return entries;
+    }
+
+    public synchronized void clear() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
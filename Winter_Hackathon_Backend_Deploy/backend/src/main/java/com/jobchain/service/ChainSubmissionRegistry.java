@@ -0,0 +1,127 @@
+package com.jobchain.service;
+
+import com.jobchain.blockchain.ChainUnavailableException;
+import com.jobchain.entity.enums.AnchorType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Every chain transaction between submission and receipt, with the outbox entry it
+ * belongs to. This is what a shutdown waits on and what goes into the journal when
+ * the wait runs out. Once closed, new submissions fail with {@link ChainUnavailableException}.
+ */
+@Component
+public class ChainSubmissionRegistry implements MeterBinder {
+
+    public record Owner(UUID outboxEntryId, AnchorType aggregateType, UUID aggregateId) {
+    }
+
+    private static final ThreadLocal<Owner> CURRENT_OWNER = new ThreadLocal<>();
+
+    private final Set<Submission> submissions = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean accepting = true;
+
+    // Submissions opened by this thread inside work() are attributed to owner
+    public <T> T runAs(Owner owner, Supplier<T> work) {
+        CURRENT_OWNER.set(owner);
+        try {
+            return work.get();
+        } finally {
+            CURRENT_OWNER.remove();
+        }
+    }
+
+    public Submission open(String function) {
+        if (!accepting) {
+            throw new ChainUnavailableException("Shutting down, not accepting new chain transactions");
+        }
+        Submission submission = new Submission(function, CURRENT_OWNER.get());
+        submissions.add(submission);
+        return submission;
+    }
+
+    // Re-registers a transaction replayed from the journal so a second shutdown journals it again
+    public Submission adopt(String function, Owner owner, String from, Long nonce, String txHash) {
+        Submission submission = new Submission(function, owner);
+        submission.broadcast(from, nonce, txHash);
+        submissions.add(submission);
+        return submission;
+    }
+
+    public void stopAccepting() {
+        accepting = false;
+    }
+
+    public boolean isAccepting() {
+        return accepting;
+    }
+
+    public int size() {
+        return submissions.size();
+    }
+
+    public List<Submission> snapshot() {
+        return List.copyOf(submissions);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("chain.submissions.in_flight", submissions, Set::size)
+                .description("Chain transactions between submission and receipt")
+                .register(registry);
+    }
+
+    public final class Submission {
+
+        private final String function;
+        private final Owner owner;
+
+        private volatile String from;
+        private volatile Long nonce;
+        private volatile String txHash;
+
+        private Submission(String function, Owner owner) {
+            this.function = function;
+            this.owner = owner;
+        }
+
+        public void broadcast(String from, Long nonce, String txHash) {
+            this.from = from;
+            this.nonce = nonce;
+            this.txHash = txHash;
+        }
+
+        public void close() {
+            submissions.remove(this);
+        }
+
+        public String getFunction() {
+            return function;
+        }
+
+        public Owner getOwner() {
+            return owner;
+        }
+
+        public String getFrom() {
+            return from;
+        }
+
+        public Long getNonce() {
+            return nonce;
+        }
+
+        public String getTxHash() {
+            return txHash;
+        }
+    }
+}
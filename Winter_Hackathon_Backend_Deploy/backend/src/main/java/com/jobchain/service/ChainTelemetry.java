@@ -0,0 +1,223 @@
+package com.jobchain.service;
+
+import com.jobchain.blockchain.BatchingReceiptProcessor;
+import com.jobchain.blockchain.ChainUnavailableException;
+import com.jobchain.dto.ChainFunctionTelemetryResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per contract function: submit-to-broadcast and broadcast-to-mined latency, gas used
+ * against the gas limit, effective gas price, reverts, failures and pending depth.
+ * Everything is published as {@code chain.tx.*} meters tagged with the function name.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChainTelemetry {
+
+    private static final double GWEI = 1_000_000_000d;
+
+    private final MeterRegistry meterRegistry;
+    private final BatchingReceiptProcessor receiptProcessor;
+
+    private final Map<String, FunctionMeters> functions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerPendingReceipts() {
+        Gauge.builder("chain.tx.pending_receipts", receiptProcessor, BatchingReceiptProcessor::getPendingCount)
+                .description("Transactions waiting on the shared receipt poller")
+                .register(meterRegistry);
+    }
+
+    public Submission start(String function) {
+        return new Submission(meters(function));
+    }
+
+    public List<ChainFunctionTelemetryResponse> getSummary() {
+        return functions.values().stream()
+                .sorted(Comparator.comparing(FunctionMeters::function))
+                .map(FunctionMeters::summary)
+                .toList();
+    }
+
+    private FunctionMeters meters(String function) {
+        return functions.computeIfAbsent(function, name -> new FunctionMeters(name, meterRegistry));
+    }
+
+    /**
+     * Tracks one transaction from submission to receipt. Each outcome is recorded once,
+     * whichever stage the transaction ends in.
+     */
+    public static final class Submission {
+
+        private final FunctionMeters meters;
+        private final long submittedAt = System.nanoTime();
+
+        private long broadcastAt;
+        private BigInteger gasLimit;
+        private boolean finished;
+
+        private Submission(FunctionMeters meters) {
+            this.meters = meters;
+        }
+
+        public synchronized void broadcast(BigInteger gasLimit) {
+            broadcastAt = System.nanoTime();
+            this.gasLimit = gasLimit;
+            meters.broadcast.record(broadcastAt - submittedAt, TimeUnit.NANOSECONDS);
+            meters.pending.incrementAndGet();
+        }
+
+        public synchronized void mined(TransactionReceipt receipt) {
+            if (finished) return;
+            finished = true;
+            meters.pending.decrementAndGet();
+            meters.mined.record(System.nanoTime() - broadcastAt, TimeUnit.NANOSECONDS);
+
+            BigInteger gasUsed = receipt.getGasUsed();
+            meters.gasUsed.record(gasUsed.doubleValue());
+            if (gasLimit != null && gasLimit.signum() > 0) {
+                meters.gasUtilization.record(gasUsed.doubleValue() / gasLimit.doubleValue());
+            }
+            if (receipt.getEffectiveGasPrice() != null) {
+                meters.effectiveGasPrice.record(
+                        Numeric.decodeQuantity(receipt.getEffectiveGasPrice()).doubleValue() / GWEI);
+            }
+            if (!receipt.isStatusOK()) {
+                meters.reverted.increment();
+            }
+        }
+
+        public synchronized void failed(Throwable error) {
+            if (finished) return;
+            finished = true;
+
+            if (broadcastAt == 0) {
+                (isRejection(error) ? meters.rejected : meters.broadcastFailed).increment();
+            } else {
+                meters.pending.decrementAndGet();
+                meters.receiptFailed.increment();
+            }
+        }
+
+        private static boolean isRejection(Throwable error) {
+            for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+                if (cause instanceof ChainUnavailableException) return true;
+            }
+            return false;
+        }
+    }
+
+    private record FunctionMeters(
+            String function,
+            Timer broadcast,
+            Timer mined,
+            DistributionSummary gasUsed,
+            DistributionSummary gasUtilization,
+            DistributionSummary effectiveGasPrice,
+            Counter reverted,
+            Counter rejected,
+            Counter broadcastFailed,
+            Counter receiptFailed,
+            AtomicInteger pending
+    ) {
+
+        FunctionMeters(String function, MeterRegistry registry) {
+            this(
+                    function,
+                    Timer.builder("chain.tx.broadcast")
+                            .description("Submit-to-broadcast latency, including bulkhead wait and gas estimation")
+                            .tag("function", function)
+                            .publishPercentiles(0.5, 0.95)
+                            .publishPercentileHistogram()
+                            .minimumExpectedValue(Duration.ofMillis(5))
+                            .maximumExpectedValue(Duration.ofSeconds(60))
+                            .register(registry),
+                    Timer.builder("chain.tx.mined")
+                            .description("Broadcast-to-receipt latency")
+                            .tag("function", function)
+                            .publishPercentiles(0.5, 0.95)
+                            .publishPercentileHistogram()
+                            .minimumExpectedValue(Duration.ofMillis(500))
+                            .maximumExpectedValue(Duration.ofMinutes(10))
+                            .register(registry),
+                    DistributionSummary.builder("chain.tx.gas_used")
+                            .tag("function", function)
+                            .register(registry),
+                    DistributionSummary.builder("chain.tx.gas_utilization")
+                            .description("Gas used divided by the gas limit sent")
+                            .tag("function", function)
+                            .publishPercentiles(0.5, 0.95)
+                            .register(registry),
+                    DistributionSummary.builder("chain.tx.effective_gas_price")
+                            .tag("function", function)
+                            .baseUnit("gwei")
+                            .register(registry),
+                    Counter.builder("chain.tx.reverted").tag("function", function).register(registry),
+                    Counter.builder("chain.tx.failed").tag("function", function).tag("stage", "rejected")
+                            .register(registry),
+                    Counter.builder("chain.tx.failed").tag("function", function).tag("stage", "broadcast")
+                            .register(registry),
+                    Counter.builder("chain.tx.failed").tag("function", function).tag("stage", "receipt")
+                            .register(registry),
+                    new AtomicInteger()
+            );
+            Gauge.builder("chain.tx.pending", pending, AtomicInteger::get)
+                    .description("Broadcast transactions without a receipt yet")
+                    .tag("function", function)
+                    .register(registry);
+        }
+
+        ChainFunctionTelemetryResponse summary() {
+            HistogramSnapshot broadcastSnapshot = broadcast.takeSnapshot();
+            HistogramSnapshot minedSnapshot = mined.takeSnapshot();
+
+            return ChainFunctionTelemetryResponse.builder()
+                    .function(function)
+                    .broadcastCount(broadcast.count())
+                    .minedCount(mined.count())
+                    .broadcastP50Ms(percentileMs(broadcastSnapshot, 0.5))
+                    .broadcastP95Ms(percentileMs(broadcastSnapshot, 0.95))
+                    .minedP50Ms(percentileMs(minedSnapshot, 0.5))
+                    .minedP95Ms(percentileMs(minedSnapshot, 0.95))
+                    .avgGasUsed(gasUsed.mean())
+                    .maxGasUsed(gasUsed.max())
+                    .avgGasUtilization(gasUtilization.mean())
+                    .maxGasUtilization(gasUtilization.max())
+                    .avgEffectiveGasPriceGwei(effectiveGasPrice.mean())
+                    .reverted((long) reverted.count())
+                    .rejected((long) rejected.count())
+                    .failed((long) (broadcastFailed.count() + receiptFailed.count()))
+                    .pending(pending.get())
+                    .build();
+        }
+
+        private static Double percentileMs(HistogramSnapshot snapshot, double percentile) {
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                if (value.percentile() == percentile) {
+                    return value.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.jobchain.service;
+
+import com.jobchain.blockchain.ViewCallCache;
+import com.jobchain.contract.JobChainContract;
+import com.jobchain.dto.OnChainVacancyResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.web3j.tuples.generated.Tuple3;
+import org.web3j.tuples.generated.Tuple5;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Contract state read straight from the chain. Every view call goes through
+ * {@link ViewCallCache}, so repeated verification requests within a block cost no RPC.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChainViewService {
+
+    private final JobChainContract contract;
+    private final ViewCallCache viewCallCache;
+
+    public OnChainVacancyResponse getVacancy(Long chainVacancyId) throws Exception {
+        BigInteger id = BigInteger.valueOf(chainVacancyId);
+
+        Tuple5<BigInteger, String, BigInteger, BigInteger, byte[]> vacancy = viewCallCache.get(
+                ViewCallCache.Key.of(JobChainContract.FUNC_VACANCIES, chainVacancyId, id),
+                contract.vacancies(id));
+
+        if (vacancy.component1().signum() == 0) {
+            throw new IllegalArgumentException("Vacancy not found on chain: " + chainVacancyId);
+        }
+
+        BigInteger applicationCount = viewCallCache.get(
+                ViewCallCache.Key.of(JobChainContract.FUNC_GETAPPLICATIONCOUNT, chainVacancyId, id),
+                contract.getApplicationCount(id));
+
+        BigInteger scoreCount = viewCallCache.get(
+                ViewCallCache.Key.of(JobChainContract.FUNC_GETSCORECOUNT, chainVacancyId, id),
+                contract.getScoreCount(id));
+
+        Tuple3<BigInteger, byte[], BigInteger> merit = viewCallCache.get(
+                ViewCallCache.Key.of(JobChainContract.FUNC_MERITS, chainVacancyId, id),
+                contract.merits(id));
+        boolean meritPublished = merit.component3().signum() > 0;
+
+        return OnChainVacancyResponse.builder()
+                .chainVacancyId(chainVacancyId)
+                .title(vacancy.component2())
+                .totalPosts(vacancy.component3().longValue())
+                .createdAt(toDateTime(vacancy.component4()))
+                .paperHash(Numeric.toHexStringNoPrefix(vacancy.component5()))
+                .applicationCount(applicationCount.longValue())
+                .scoreCount(scoreCount.longValue())
+                .meritHash(meritPublished ? Numeric.toHexStringNoPrefix(merit.component2()) : null)
+                .meritPublishedAt(meritPublished ? toDateTime(merit.component3()) : null)
+                .readAtBlock(viewCallCache.getHead() >= 0 ? viewCallCache.getHead() : null)
+                .build();
+    }
+
+    public long getVacancyCount() throws Exception {
+        return viewCallCache.get(
+                ViewCallCache.Key.of(JobChainContract.FUNC_VACANCYCOUNTER, null),
+                contract.vacancyCounter()
+        ).longValue();
+    }
+
+    private static LocalDateTime toDateTime(BigInteger epochSeconds) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSeconds.longValue()), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,11 @@
+package com.jobchain.service;
+
+/**
+ * The vacancy already has an application from this email address.
+ */
+public class DuplicateApplicationException extends RuntimeException {
+
+    public DuplicateApplicationException(String message) {
+        super(message);
+    }
+}
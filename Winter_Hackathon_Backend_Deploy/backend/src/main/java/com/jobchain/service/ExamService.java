@@ -4,15 +4,14 @@ import com.jobchain.dto.ExamPaperResponse;
 import com.jobchain.dto.OmrSubmitRequest;
 import com.jobchain.dto.QuestionDto;
 import com.jobchain.entity.*;
+import com.jobchain.entity.enums.AnchorType;
+import com.jobchain.entity.enums.ChainStatus;
 import com.jobchain.repository.*;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -38,12 +37,16 @@ public class ExamService {
     private OMRRecordRepository omrRecordRepository ;
 
     @Autowired
-    private BlockchainService blockchainService;
+    private ChainOutboxService chainOutboxService;
 
     @Autowired
     private FraudDetectionService fraudDetectionService;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Autowired
+    private AuditJournalService auditJournalService;
+
+    @Autowired
+    private HashingService hashingService;
 
     @Transactional
     public ExamScoreEntity recordExamScore(
@@ -58,8 +61,10 @@ public class ExamService {
         // Check if marks already recorded
         Optional<ExamScoreEntity> existingScore = examScoreRepository.findByApplicationId(applicationId);
 
-        // If exists AND has blockchainTxHash, don't allow update
-        if (existingScore.isPresent() && existingScore.get().getBlockchainTxHash() != null) {
+        // If exists AND is anchored or queued for anchoring, don't allow update
+        if (existingScore.isPresent() && (existingScore.get().getBlockchainTxHash() != null
+                || existingScore.get().getChainStatus() == ChainStatus.PENDING
+                || existingScore.get().getChainStatus() == ChainStatus.SUBMITTED)) {
             throw new IllegalStateException(
                     "Marks already recorded on blockchain for application: " + applicationId
             );
@@ -72,22 +77,16 @@ public class ExamService {
         ApplicationEntity app = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new RuntimeException("Application not found"));
 
-        VacancyEntity vacancy = vacancyRepository.findById(vacancyId)
-                .orElseThrow(() -> new RuntimeException("Vacancy not found"));
+        if (!vacancyRepository.existsById(vacancyId)) {
+            throw new RuntimeException("Vacancy not found");
+        }
 
         if (markingJson == null || markingJson.isBlank()) {
             markingJson = "{\"type\":\"MANUAL_ADMIN\",\"timestamp\":\"" +
                     new Date().toString() + "\"}";
         }
 
-        String markingHash = sha256(markingJson);
-
-        // Blockchain record - ADMIN can record marks without OMR verification
-        String txHash = blockchainService.recordExamScoreOnChain(
-                vacancy.getBlockchainVacancyId(),
-                (int) marks,
-                markingHash
-        );
+        String markingHash = hashingService.sha256Hex(markingJson);
 
         ExamScoreEntity score;
 
@@ -97,7 +96,7 @@ public class ExamService {
             score.setMarks(marks);
             score.setMarkingJson(markingJson);
             score.setMarkingHash(markingHash);
-            score.setBlockchainTxHash(txHash);
+            score.setChainStatus(ChainStatus.PENDING);
         } else {
             // Create new score
             score = ExamScoreEntity.builder()
@@ -106,14 +105,19 @@ public class ExamService {
                     .marks(marks)
                     .markingJson(markingJson)
                     .markingHash(markingHash)
-                    .blockchainTxHash(txHash)
+                    .chainStatus(ChainStatus.PENDING)
                     .build();
         }
 
-        log.info("Exam score recorded successfully. Application: {}, Marks: {}, TX: {}",
-                applicationId, marks, txHash);
+        // Blockchain record - ADMIN can record marks without OMR verification
+        ExamScoreEntity saved = examScoreRepository.save(score);
+        chainOutboxService.enqueue(AnchorType.EXAM_SCORE, saved.getId());
+        auditJournalService.record("EXAM_SCORE_RECORDED", saved.getId(), saved.getMarkingHash());
+
+        log.info("Exam score recorded successfully. Application: {}, Marks: {}, chainStatus: {}",
+                applicationId, marks, saved.getChainStatus());
 
-        return examScoreRepository.save(score);
+        return saved;
     }
 
     public MeritListEntity publishMerit(UUID vacancyId) {
@@ -162,18 +166,13 @@ public class ExamService {
                 meritData.get(i).put("rank", i + 1);
             }
 
-            String meritJson = objectMapper.writeValueAsString(meritData);
-            String meritHash = sha256(meritJson);
+            HashingService.HashedJson merit = hashingService.canonicalJson(meritData);
+            String meritJson = merit.json();
+            String meritHash = merit.hash();
 
-            VacancyEntity vacancy =
-                    vacancyRepository.findById(vacancyId)
-                            .orElseThrow(() -> new IllegalArgumentException("Vacancy not found"));
-
-            String txHash =
-                    blockchainService.publishMeritOnChain(
-                            vacancy.getBlockchainVacancyId(),
-                            meritHash
-                    );
+            if (!vacancyRepository.existsById(vacancyId)) {
+                throw new IllegalArgumentException("Vacancy not found");
+            }
 
             fraudDetectionService.detectPaperLeak(vacancyId);
             fraudDetectionService.detectMarksAnomaly(vacancyId);
@@ -182,15 +181,17 @@ public class ExamService {
                     .vacancyId(vacancyId)
                     .meritJson(meritJson)
                     .meritHash(meritHash)
-                    .blockchainTxHash(txHash)
+                    .chainStatus(ChainStatus.PENDING)
                     .verified(true)
                     .build();
 
             MeritListEntity saved =
                     meritListRepository.save(meritList);
+            chainOutboxService.enqueue(AnchorType.MERIT_LIST, saved.getId());
+            auditJournalService.record("MERIT_PUBLISHED", saved.getId(), meritHash);
 
-            log.info("Merit list published successfully: id={}, txHash={}",
-                    saved.getId(), txHash);
+            log.info("Merit list published successfully: id={}, chainStatus={}",
+                    saved.getId(), saved.getChainStatus());
 
             return saved;
 
@@ -229,7 +230,7 @@ public class ExamService {
             }
 
             MeritListEntity meritList = meritListOpt.get();
-            String recalculatedHash = sha256(meritList.getMeritJson());
+            String recalculatedHash = hashingService.sha256Hex(meritList.getMeritJson());
             boolean isValid = recalculatedHash.equals(meritList.getMeritHash());
 
             if (isValid) {
@@ -246,22 +247,6 @@ public class ExamService {
         }
     }
 
-    private String sha256(String input) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("Hash calculation failed", e);
-        }
-    }
-
     public boolean isEligible(UUID applicationId) {
         ApplicationEntity app = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new RuntimeException("Application not found"));
@@ -284,8 +269,9 @@ public class ExamService {
         }
 
         try {
-            String omrJson = objectMapper.writeValueAsString(request.getOmrAnswers());
-            String omrHash = sha256(omrJson);
+            HashingService.HashedJson omrDocument = hashingService.canonicalJson(request.getOmrAnswers());
+            String omrJson = omrDocument.json();
+            String omrHash = omrDocument.hash();
 
             OMRRecordEntity omr = OMRRecordEntity.builder()
                     .candidateId(app.getId().toString())
@@ -302,6 +288,7 @@ public class ExamService {
             app.setOmrAnswerJson(omrJson);
             app.setAnswerHash(omrHash);
             applicationRepository.save(app);
+            auditJournalService.record("OMR_SUBMITTED", app.getId(), omrHash);
 
         } catch (Exception e) {
             throw new RuntimeException("OMR submission failed", e);
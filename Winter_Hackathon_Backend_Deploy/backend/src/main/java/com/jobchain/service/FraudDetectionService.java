@@ -2,7 +2,8 @@ package com.jobchain.service;
 
 import com.jobchain.entity.ExamScoreEntity;
 import com.jobchain.entity.FraudAlertEntity;
-import com.jobchain.entity.VacancyEntity;
+import com.jobchain.entity.enums.AnchorType;
+import com.jobchain.entity.enums.ChainStatus;
 import com.jobchain.repository.ExamScoreRepository;
 import com.jobchain.repository.FraudAlertRepository;
 import com.jobchain.repository.VacancyRepository;
@@ -10,8 +11,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -29,7 +28,13 @@ public class FraudDetectionService {
     private FraudAlertRepository fraudAlertRepository;
 
     @Autowired
-    private BlockchainService blockchainService;
+    private ChainOutboxService chainOutboxService;
+
+    @Autowired
+    private HashingService hashingService;
+
+    @Autowired
+    private AuditJournalService auditJournalService;
 
     private static final int PAPER_LEAK_THRESHOLD = 10;
 
@@ -67,32 +72,28 @@ public class FraudDetectionService {
                     log.warn("⚠️ PAPER LEAK DETECTED: {} candidates with identical pattern",
                             suspectCount);
 
-                    // Blockchain proof (immutable)
-                    VacancyEntity vacancy =
-                            vacancyRepository.findById(vacancyId)
-                                    .orElseThrow(() -> new IllegalArgumentException("Vacancy not found"));
-
-                    String txHash =
-                            blockchainService.detectPaperLeakOnChain(
-                                    vacancy.getBlockchainVacancyId(),
-                                    suspectCount,
-                                    patternHash
-                            );
-
+                    if (!vacancyRepository.existsById(vacancyId)) {
+                        throw new IllegalArgumentException("Vacancy not found");
+                    }
 
                     FraudAlertEntity alert = FraudAlertEntity.builder()
                             .vacancyId(vacancyId)
                             .alertType("PAPER_LEAK")
                             .suspectCount(suspectCount)
                             .patternHash(patternHash)
-                            .evidenceHash(sha256(patternHash))
+                            .evidenceHash(hashingService.sha256Hex(patternHash))
+                            .chainStatus(ChainStatus.PENDING)
                             .build();
 
                     FraudAlertEntity saved = fraudAlertRepository.save(alert);
                     fraudAlerts.add(saved);
 
-                    log.error("🚨 Paper leak alert created: id={}, txHash={}",
-                            saved.getId(), txHash);
+                    // Blockchain proof (immutable)
+                    chainOutboxService.enqueue(AnchorType.FRAUD_ALERT, saved.getId());
+                    auditJournalService.record("FRAUD_ALERT", saved.getId(), saved.getEvidenceHash());
+
+                    log.error("🚨 Paper leak alert created: id={}, chainStatus={}",
+                            saved.getId(), saved.getChainStatus());
                 }
             }
 
@@ -194,10 +195,10 @@ public class FraudDetectionService {
                         highScorerPercentage);
 
                 String patternHash =
-                        sha256("MARKS_ANOMALY_" + avgMarks + "_" + highScorerPercentage);
+                        hashingService.sha256Hex("MARKS_ANOMALY_" + avgMarks + "_" + highScorerPercentage);
 
                 String evidenceHash =
-                        sha256("AVG:" + avgMarks + "|HIGH:" + highScorers);
+                        hashingService.sha256Hex("AVG:" + avgMarks + "|HIGH:" + highScorers);
 
                 FraudAlertEntity alert = FraudAlertEntity.builder()
                         .vacancyId(vacancyId)
@@ -209,6 +210,7 @@ public class FraudDetectionService {
 
                 FraudAlertEntity saved = fraudAlertRepository.save(alert);
                 alerts.add(saved);
+                auditJournalService.record("FRAUD_ALERT", saved.getId(), evidenceHash);
 
                 log.error("🚨 Marks anomaly alert created: id={}", saved.getId());
             } else {
@@ -230,7 +232,7 @@ public class FraudDetectionService {
                     .sorted()
                     .collect(Collectors.joining(","));
 
-            return sha256(evidence);
+            return hashingService.sha256Hex(evidence);
 
         } catch (Exception e) {
             log.error("Failed to generate evidence hash: {}", e.getMessage());
@@ -238,23 +240,6 @@ public class FraudDetectionService {
         }
     }
 
-    private String sha256(String input) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            log.error("Failed to calculate SHA-256 hash: {}", e.getMessage());
-            throw new RuntimeException("Hash calculation failed", e);
-        }
-    }
-
     public boolean hasFraudAlert(UUID vacancyId, String alertType) {
         try {
             List<FraudAlertEntity> alerts = fraudAlertRepository.findByVacancyId(vacancyId);
@@ -0,0 +1,131 @@
+package com.jobchain.service;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SHA-256 for everything the services anchor or verify. Digests and buffers are kept
+ * per thread. Documents are written as canonical JSON, with map keys and bean properties
+ * in sorted order, straight through the digest, so the hash no longer depends on HashMap
+ * iteration order and the text is not turned into a String and encoded again to be hashed.
+ */
+@Service
+public class HashingService {
+
+    // JSON text and its hash; the text is exactly the bytes that were hashed
+    public record HashedJson(String json, String hash) {
+    }
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    // Buffers that grew past this for one large document are not kept for the next
+    private static final int RETAINED_BUFFER_BYTES = 1 << 20;
+
+    private final ObjectMapper canonicalMapper = JsonMapper.builder()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(HashingService::newDigest);
+
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    /**
+     * This thread's SHA-256 digest, reset, for code that hashes outside the service
+     * (Merkle trees, the audit journal). Finish it with {@code digest()} before asking again.
+     */
+    public static MessageDigest sha256Digest() {
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        return digest;
+    }
+
+    public byte[] sha256(byte[] input) {
+        return sha256Digest().digest(input);
+    }
+
+    public String sha256Hex(byte[] input) {
+        return toHex(sha256(input));
+    }
+
+    public String sha256Hex(String input) {
+        return sha256Hex(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public HashedJson canonicalJson(Object value) throws IOException {
+        return state.get().write(value);
+    }
+
+    // One thread's digest and buffer serve the whole batch
+    public List<HashedJson> canonicalJsonBatch(List<?> values) throws IOException {
+        State current = state.get();
+        List<HashedJson> hashed = new ArrayList<>(values.size());
+        for (Object value : values) {
+            hashed.add(current.write(value));
+        }
+        return hashed;
+    }
+
+    public static String toHex(byte[] bytes) {
+        byte[] chars = new byte[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX[(bytes[i] >> 4) & 0x0f];
+            chars[2 * i + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private final class State {
+
+        private final MessageDigest digest = newDigest();
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+
+        // Every chunk the generator flushes goes to the digest and the buffer together
+        private final OutputStream tee = new OutputStream() {
+            @Override
+            public void write(int b) {
+                digest.update((byte) b);
+                buffer.write(b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                digest.update(bytes, offset, length);
+                buffer.write(bytes, offset, length);
+            }
+        };
+
+        private HashedJson write(Object value) throws IOException {
+            digest.reset();
+            buffer.reset();
+            try {
+                canonicalMapper.writeValue(tee, value);
+                return new HashedJson(buffer.toString(StandardCharsets.UTF_8), toHex(digest.digest()));
+            } finally {
+                if (buffer.size() > RETAINED_BUFFER_BYTES) {
+                    buffer = new ByteArrayOutputStream(1024);
+                }
+            }
+        }
+    }
+}
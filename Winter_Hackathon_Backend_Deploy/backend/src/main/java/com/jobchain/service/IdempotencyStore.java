@@ -0,0 +1,118 @@
+package com.jobchain.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Results of requests sent with an {@code Idempotency-Key}, kept for {@code ttl-ms}.
+ * A retry gets the stored result without running the request again; a retry that
+ * arrives while the original is still running waits for it. Failed requests are not
+ * stored, so they can be retried. Entries live in this instance only; the database
+ * constraints are what catch duplicates across instances.
+ */
+@Component
+public class IdempotencyStore implements MeterBinder {
+
+    public record Result<T>(T value, boolean replayed) {
+    }
+
+    public static class ConflictException extends RuntimeException {
+
+        private final boolean inProgress;
+
+        public ConflictException(String message, boolean inProgress) {
+            super(message);
+            this.inProgress = inProgress;
+        }
+
+        public boolean isInProgress() {
+            return inProgress;
+        }
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result, long expiresAt) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+
+    @Value("${idempotency.max-entries:200000}")
+    private int maxEntries;
+
+    @Value("${idempotency.wait-ms:10000}")
+    private long waitMs;
+
+    /**
+     * Runs {@code action} once per key. {@code fingerprint} identifies the request body;
+     * reusing a key for a different body is rejected.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String key, String fingerprint, Supplier<T> action) {
+        long now = System.currentTimeMillis();
+        Entry created = new Entry(fingerprint, new CompletableFuture<>(), now + ttlMs);
+        Entry existing = entries.compute(key, (k, current) ->
+                current == null || current.expiresAt() < now ? created : current);
+
+        if (existing != created) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw new ConflictException("Idempotency key was used for a different request", false);
+            }
+            return new Result<>((T) await(existing.result()), true);
+        }
+
+        if (entries.size() > maxEntries) {
+            evictExpired();
+        }
+
+        try {
+            T value = action.get();
+            created.result().complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException e) {
+            entries.remove(key, created);
+            created.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() < now);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("idempotency.entries", entries, Map::size)
+                .description("Stored results of requests sent with an Idempotency-Key")
+                .register(registry);
+    }
+
+    private Object await(CompletableFuture<Object> result) {
+        try {
+            return result.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this idempotency key is still being processed", true);
+        } catch (ExecutionException e) {
+            // The original failed and was dropped; the client's next retry runs it again
+            throw new ConflictException("The original request with this idempotency key failed, retry it", true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for the original request", true);
+        }
+    }
+}
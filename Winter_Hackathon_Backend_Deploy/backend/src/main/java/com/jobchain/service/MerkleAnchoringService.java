@@ -0,0 +1,155 @@
+package com.jobchain.service;
+
+import com.jobchain.dto.MerkleProofResponse;
+import com.jobchain.entity.ApplicationEntity;
+import com.jobchain.entity.MerkleBatchEntity;
+import com.jobchain.entity.enums.AnchorType;
+import com.jobchain.entity.enums.ChainStatus;
+import com.jobchain.repository.ApplicationRepository;
+import com.jobchain.repository.MerkleBatchRepository;
+import com.jobchain.utils.MerkleTree;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.web3j.utils.Numeric;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Collects pending application hashes per vacancy into Merkle batches so only the
+ * root goes through {@code logApplication}. Active when
+ * {@code blockchain.anchoring.application-mode=MERKLE}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class MerkleAnchoringService {
+
+    public static final String MODE_MERKLE = "MERKLE";
+
+    private final ApplicationRepository applicationRepository;
+    private final MerkleBatchRepository merkleBatchRepository;
+    private final ChainOutboxService chainOutboxService;
+
+    @Value("${blockchain.anchoring.application-mode:DIRECT}")
+    private String applicationMode;
+
+    @Value("${blockchain.merkle.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${blockchain.merkle.max-wait-ms:30000}")
+    private long maxWaitMs;
+
+    public boolean isEnabled() {
+        return MODE_MERKLE.equalsIgnoreCase(applicationMode);
+    }
+
+    @Scheduled(fixedDelayString = "${blockchain.merkle.poll-interval-ms:5000}")
+    public void sealDueBatches() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(maxWaitMs));
+
+        for (Object[] row : applicationRepository.findUnbatchedSummaryByVacancy()) {
+            UUID vacancyId = (UUID) row[0];
+            long pending = (Long) row[1];
+            LocalDateTime oldest = (LocalDateTime) row[2];
+
+            if (pending >= maxBatchSize || !oldest.isAfter(cutoff)) {
+                sealBatch(vacancyId);
+            }
+        }
+    }
+
+    public Optional<MerkleBatchEntity> sealBatch(UUID vacancyId) {
+        List<Object[]> rows = applicationRepository.lockUnbatchedByVacancyId(vacancyId, maxBatchSize);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<UUID> ids = new ArrayList<>(rows.size());
+        List<byte[]> leaves = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add((UUID) row[0]);
+            leaves.add(Numeric.hexStringToByteArray((String) row[1]));
+        }
+
+        MerkleTree tree = MerkleTree.build(leaves);
+
+        MerkleBatchEntity batch = merkleBatchRepository.save(MerkleBatchEntity.builder()
+                .vacancyId(vacancyId)
+                .rootHash(Numeric.toHexStringNoPrefix(tree.getRoot()))
+                .leafCount(tree.getLeafCount())
+                .chainStatus(ChainStatus.PENDING)
+                .build());
+
+        Map<UUID, Integer> leafIndexes = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            leafIndexes.put(ids.get(i), i);
+        }
+
+        List<ApplicationEntity> applications = applicationRepository.findAllById(ids);
+        for (ApplicationEntity application : applications) {
+            int leafIndex = leafIndexes.get(application.getId());
+            application.setMerkleBatchId(batch.getId());
+            application.setMerkleLeafIndex(leafIndex);
+            application.setMerkleProof(tree.getProof(leafIndex).stream()
+                    .map(Numeric::toHexStringNoPrefix)
+                    .collect(Collectors.joining(",")));
+        }
+        applicationRepository.saveAll(applications);
+
+        chainOutboxService.enqueue(AnchorType.MERKLE_BATCH, batch.getId());
+
+        log.info("Sealed Merkle batch {} for vacancy {}: {} leaves, root={}",
+                batch.getId(), vacancyId, batch.getLeafCount(), batch.getRootHash());
+        return Optional.of(batch);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<MerkleProofResponse> getInclusionProof(UUID applicationId) {
+        ApplicationEntity application = applicationRepository.findById(applicationId)
+                .orElseThrow(() -> new IllegalArgumentException("Application not found: " + applicationId));
+
+        if (application.getMerkleBatchId() == null) {
+            return Optional.empty();
+        }
+
+        MerkleBatchEntity batch = merkleBatchRepository.findById(application.getMerkleBatchId())
+                .orElseThrow(() -> new IllegalStateException(
+                        "Merkle batch not found: " + application.getMerkleBatchId()));
+
+        List<String> proof = application.getMerkleProof() == null || application.getMerkleProof().isEmpty()
+                ? List.of()
+                : List.of(application.getMerkleProof().split(","));
+
+        boolean verified = MerkleTree.verify(
+                Numeric.hexStringToByteArray(application.getAppHash()),
+                application.getMerkleLeafIndex(),
+                proof.stream().map(Numeric::hexStringToByteArray).collect(Collectors.toList()),
+                Numeric.hexStringToByteArray(batch.getRootHash())
+        );
+
+        return Optional.of(MerkleProofResponse.builder()
+                .applicationId(application.getId())
+                .vacancyId(application.getVacancyId())
+                .batchId(batch.getId())
+                .appHash(application.getAppHash())
+                .leafIndex(application.getMerkleLeafIndex())
+                .proof(proof)
+                .merkleRoot(batch.getRootHash())
+                .blockchainTxHash(batch.getBlockchainTxHash())
+                .chainStatus(batch.getChainStatus())
+                .verified(verified)
+                .build());
+    }
+}
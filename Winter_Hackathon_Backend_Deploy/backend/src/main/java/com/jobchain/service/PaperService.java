@@ -1,19 +1,26 @@
 package com.jobchain.service;
 
+import com.jobchain.contract.JobChainContract;
 import com.jobchain.entity.PaperSetEntity;
 import com.jobchain.entity.VacancyEntity;
+import com.jobchain.entity.enums.AnchorType;
+import com.jobchain.entity.enums.ChainStatus;
 import com.jobchain.repository.PaperSetRepository;
 import com.jobchain.repository.VacancyRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigInteger;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
 
 @Service
 @RequiredArgsConstructor
@@ -21,30 +28,27 @@ import java.util.UUID;
 @Transactional(rollbackFor = Exception.class)
 public class PaperService {
 
-    private static final List<String> PAPER_SETS = List.of("A", "B", "C", "D", "E");
-
-    private static final BigInteger GAS_PRICE =
-            BigInteger.valueOf(30_000_000_000L);
-    private static final BigInteger GAS_LIMIT =
-            BigInteger.valueOf(300_000);
-
     private final PaperSetRepository paperSetRepository;
     private final VacancyRepository vacancyRepository;
     private final BlockchainService blockchainService;
+    private final ChainOutboxService chainOutboxService;
+    private final HashingService hashingService;
+    private final AuditJournalService auditJournalService;
+
+    @Value("${paper.sets-per-vacancy:5}")
+    private int setsPerVacancy;
+
+    @Value("${paper.lock.max-in-flight:100}")
+    private int lockMaxInFlight;
 
     public List<PaperSetEntity> generatePaperSets(UUID vacancyId) throws Exception {
 
-        VacancyEntity vacancy = vacancyRepository.findById(vacancyId)
-                .orElseThrow(() ->
-                        new IllegalArgumentException("Vacancy not found: " + vacancyId)
-                );
+        if (!vacancyRepository.existsById(vacancyId)) {
+            throw new IllegalArgumentException("Vacancy not found: " + vacancyId);
+        }
 
         boolean enoughGas =
-                blockchainService.hasEnoughBalanceForPaperSets(
-                        PAPER_SETS.size(),
-                        GAS_PRICE,
-                        GAS_LIMIT
-                );
+                blockchainService.hasEnoughBalanceForPaperSets(setsPerVacancy);
 
         if (!enoughGas) {
             throw new IllegalStateException(
@@ -52,70 +56,115 @@ public class PaperService {
             );
         }
 
-        List<PaperSetEntity> generatedSets = new ArrayList<>();
+        List<PaperSetEntity> paperSets = new ArrayList<>();
 
-        for (String setId : PAPER_SETS) {
+        for (int i = 0; i < setsPerVacancy; i++) {
 
+            String setId = setLabel(i);
             String paperContent = generatePaperContent(vacancyId, setId);
-            String paperHash = sha256(paperContent);
-
-            String txHash = blockchainService.distributePaperOnChain(
-                    vacancy.getBlockchainVacancyId(),
-                    setId,
-                    paperHash
-            );
+            String paperHash = hashingService.sha256Hex(paperContent);
 
-            PaperSetEntity paperSet = PaperSetEntity.builder()
+            paperSets.add(PaperSetEntity.builder()
                     .vacancyId(vacancyId)
                     .setId(setId)
                     .paperHash(paperHash)
                     .isLocked(false)
                     .timestamp(LocalDateTime.now())
-                    .blockchainTxHash(txHash)
-                    .build();
-
-            generatedSets.add(paperSetRepository.save(paperSet));
+                    .chainStatus(ChainStatus.PENDING)
+                    .build());
         }
 
-        log.info("Generated ALL {} paper sets for vacancy {}", PAPER_SETS.size(), vacancyId);
+        // The outbox dispatcher sends all distributePaper txs concurrently with local nonces
+        List<PaperSetEntity> generatedSets = paperSetRepository.saveAll(paperSets);
+        chainOutboxService.enqueueAll(AnchorType.PAPER_SET,
+                generatedSets.stream().map(PaperSetEntity::getId).toList());
+        generatedSets.forEach(set -> auditJournalService.record("PAPER_SET_GENERATED", set.getId(), set.getPaperHash()));
+
+        log.info("Generated ALL {} paper sets for vacancy {}", generatedSets.size(), vacancyId);
         return generatedSets;
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void lockPaper(UUID vacancyId, String centerId) {
+        lockPapers(vacancyId, List.of(centerId));
+    }
+
+    // Sends lockPaper(vacancy, center, set) for every center/set pair in one pipelined burst,
+    // waits for all receipts, then marks the sets locked with a single UPDATE.
+    // No DB transaction is held while the burst is mined.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int lockPapers(UUID vacancyId, List<String> centerIds) {
+
+        VacancyEntity vacancy = vacancyRepository.findById(vacancyId)
+                .orElseThrow(() -> new IllegalArgumentException("Vacancy not found: " + vacancyId));
+
+        if (vacancy.getBlockchainVacancyId() == null) {
+            throw new IllegalStateException("Vacancy " + vacancyId + " is not anchored on chain yet");
+        }
 
         List<PaperSetEntity> sets = paperSetRepository.findByVacancyId(vacancyId);
+        if (sets.isEmpty()) {
+            throw new IllegalArgumentException("No paper sets generated for vacancy: " + vacancyId);
+        }
 
-        for (PaperSetEntity set : sets) {
-            set.setLocked(true);
-            set.setCenterId(centerId);
+        int transactions = centerIds.size() * sets.size();
+        if (!blockchainService.hasEnoughBalanceFor(JobChainContract.FUNC_LOCKPAPER, transactions)) {
+            throw new IllegalStateException(
+                    "Insufficient balance: cannot lock " + transactions + " paper sets safely");
         }
 
-        paperSetRepository.saveAll(sets);
+        // Bounded so the burst never overflows the chain call bulkhead
+        Semaphore inFlight = new Semaphore(lockMaxInFlight);
+        List<CompletableFuture<String>> locks = new ArrayList<>(transactions);
+
+        for (String centerId : centerIds) {
+            for (PaperSetEntity set : sets) {
+                inFlight.acquireUninterruptibly();
+                locks.add(blockchainService.lockPaperOnChainAsync(
+                        vacancy.getBlockchainVacancyId(),
+                        centerId,
+                        set.getSetId()
+                ).whenComplete((txHash, error) -> inFlight.release()));
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(locks.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            long failed = locks.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IllegalStateException(
+                    failed + " of " + transactions + " lockPaper transactions failed: " + cause.getMessage(), cause);
+        }
+
+        int updated = paperSetRepository.lockAllByVacancyId(
+                vacancyId,
+                centerIds.size() == 1 ? centerIds.get(0) : null
+        );
+
+        auditJournalService.record("PAPERS_LOCKED", vacancyId, String.join(",", centerIds));
+
+        log.info("Locked {} paper sets on chain for {} centers of vacancy {} ({} txs)",
+                updated, centerIds.size(), vacancyId, transactions);
+        return transactions;
     }
 
     public List<PaperSetEntity> getPaperSets(UUID vacancyId) {
         return paperSetRepository.findByVacancyId(vacancyId);
     }
 
+    // A..Z, then AA, AB, ... like spreadsheet columns
+    private static String setLabel(int index) {
+        StringBuilder label = new StringBuilder();
+        for (int i = index; i >= 0; i = i / 26 - 1) {
+            label.insert(0, (char) ('A' + i % 26));
+        }
+        return label.toString();
+    }
+
     private String generatePaperContent(UUID vacancyId, String setId) {
         return "VACANCY=" + vacancyId +
                 "|SET=" + setId +
                 "|TIME=" + System.nanoTime();
     }
-
-    private String sha256(String input) {
-        try {
-            var digest = java.security.MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(input.getBytes());
-            return bytesToHex(hash);
-        } catch (Exception e) {
-            throw new RuntimeException("Hash generation failed", e);
-        }
-    }
-
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) sb.append(String.format("%02x", b));
-        return sb.toString();
-    }
 }
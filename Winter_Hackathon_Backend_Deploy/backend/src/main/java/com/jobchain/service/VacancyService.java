@@ -1,12 +1,13 @@
 package com.jobchain.service;
 
 import com.jobchain.entity.VacancyEntity;
+import com.jobchain.entity.enums.AnchorType;
+import com.jobchain.entity.enums.ChainStatus;
 import com.jobchain.repository.VacancyRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.web3j.protocol.core.methods.response.TransactionReceipt;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,29 +22,25 @@ public class VacancyService {
     private VacancyRepository vacancyRepository;
 
     @Autowired
-    private BlockchainService blockchainService;
+    private ChainOutboxService chainOutboxService;
 
-    public VacancyEntity createVacancy(String title, int totalPosts, String paperHash) throws Exception {
-
-        TransactionReceipt receipt =
-                blockchainService.createVacancyAndReturnReceipt(
-                        title,
-                        totalPosts,
-                        paperHash
-                );
+    @Autowired
+    private AuditJournalService auditJournalService;
 
-        Long blockchainVacancyId =
-                blockchainService.extractVacancyId(receipt);
+    public VacancyEntity createVacancy(String title, int totalPosts, String paperHash) throws Exception {
 
         VacancyEntity vacancy = VacancyEntity.builder()
-                .blockchainVacancyId(blockchainVacancyId)
                 .title(title)
                 .totalPosts(totalPosts)
                 .paperHash(paperHash)
-                .blockchainTxHash(receipt.getTransactionHash())
+                .chainStatus(ChainStatus.PENDING)
                 .build();
 
-        return vacancyRepository.save(vacancy);
+        VacancyEntity saved = vacancyRepository.save(vacancy);
+        chainOutboxService.enqueue(AnchorType.VACANCY, saved.getId());
+        auditJournalService.record("VACANCY_CREATED", saved.getId(), paperHash);
+
+        return saved;
     }
 
 
@@ -84,6 +81,7 @@ public class VacancyService {
             }
 
             vacancyRepository.deleteById(id);
+            auditJournalService.record("VACANCY_DELETED", id, null);
             log.info("Vacancy deleted successfully: {}", id);
 
         } catch (Exception e) {
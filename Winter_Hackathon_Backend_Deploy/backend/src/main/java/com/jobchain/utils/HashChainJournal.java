@@ -0,0 +1,321 @@
+package com.jobchain.utils;
+
+import com.jobchain.service.HashingService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Append-only, memory-mapped journal where every entry commits to the one before it:
+ * hash = sha256(previousHash || sequence || timestamp || sha256(payload)).
+ * Changing or dropping any entry breaks every hash after it, so anchoring the head
+ * hash somewhere immutable vouches for the whole prefix.
+ * <p>
+ * Record layout: length (int), sequence (long), timestamp (long), previous hash (32),
+ * hash (32), payload. The length is written last, so a record torn by a crash reads
+ * as the end of the journal. Pages are only forced periodically, so a crash can also
+ * leave the tail with a length but garbled contents; such records are cut off on load.
+ */
+@Slf4j
+public final class HashChainJournal implements AutoCloseable {
+
+    public static final int HASH_LENGTH = 32;
+
+    private static final byte[] MAGIC = "JCAUDIT1".getBytes(StandardCharsets.US_ASCII);
+    private static final int RECORD_HEADER = 4 + 8 + 8 + HASH_LENGTH + HASH_LENGTH;
+
+    public record Entry(long sequence, long timestamp, byte[] previousHash, byte[] hash, byte[] payload) {
+    }
+
+    // What a verifier needs to walk from one entry's hash to the next
+    public record Link(long sequence, long timestamp, byte[] payloadHash) {
+    }
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    private long[] offsets = new long[1024];
+    private long headSequence;
+    private byte[] headHash = new byte[HASH_LENGTH];
+    private int writePosition = MAGIC.length;
+    private boolean closed;
+
+    private HashChainJournal(FileChannel channel, int capacity) throws IOException {
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    public static HashChainJournal open(Path path, int initialCapacity) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Journal " + path + " is larger than a single mapping");
+        }
+
+        HashChainJournal journal = new HashChainJournal(channel,
+                Math.max((int) size, Math.max(initialCapacity, MAGIC.length + RECORD_HEADER)));
+        try {
+            if (size == 0) {
+                journal.buffer.put(0, MAGIC);
+            } else {
+                journal.load(path);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    public synchronized Entry append(byte[] payload) throws IOException {
+        ensureOpen();
+
+        int length = RECORD_HEADER + payload.length;
+        ensureCapacity(writePosition + length);
+
+        long sequence = headSequence + 1;
+        long timestamp = System.currentTimeMillis();
+        byte[] previousHash = headHash;
+        byte[] hash = hashEntry(previousHash, sequence, timestamp, payloadHash(payload));
+
+        int position = writePosition;
+        buffer.putLong(position + 4, sequence);
+        buffer.putLong(position + 12, timestamp);
+        buffer.put(position + 20, previousHash);
+        buffer.put(position + 20 + HASH_LENGTH, hash);
+        buffer.put(position + RECORD_HEADER, payload);
+        buffer.putInt(position, length);
+
+        index(sequence, position);
+        writePosition += length;
+        headSequence = sequence;
+        headHash = hash;
+        return new Entry(sequence, timestamp, previousHash, hash, payload);
+    }
+
+    public synchronized Optional<Entry> get(long sequence) {
+        if (sequence < 1 || sequence > headSequence) {
+            return Optional.empty();
+        }
+        return Optional.of(read((int) offsets[(int) (sequence - 1)]));
+    }
+
+    // Links for (fromSequence, toSequence]: enough to recompute toSequence's hash from fromSequence's
+    public synchronized List<Link> links(long fromSequence, long toSequence) {
+        if (fromSequence < 0 || toSequence > headSequence || fromSequence > toSequence) {
+            throw new IllegalArgumentException("Sequence range out of bounds: " + fromSequence + ".." + toSequence);
+        }
+
+        List<Link> links = new ArrayList<>((int) (toSequence - fromSequence));
+        for (long sequence = fromSequence + 1; sequence <= toSequence; sequence++) {
+            Entry entry = read((int) offsets[(int) (sequence - 1)]);
+            links.add(new Link(entry.sequence(), entry.timestamp(), payloadHash(entry.payload())));
+        }
+        return links;
+    }
+
+    public synchronized long getHeadSequence() {
+        return headSequence;
+    }
+
+    public synchronized byte[] getHeadHash() {
+        return headHash.clone();
+    }
+
+    // The first entry's hash covers its timestamp, so it tells this journal apart from any other
+    public synchronized Optional<byte[]> getFirstHash() {
+        return get(1).map(Entry::hash);
+    }
+
+    public synchronized void force() {
+        if (!closed) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        buffer.force();
+        closed = true;
+        channel.close();
+    }
+
+    public static byte[] payloadHash(byte[] payload) {
+        return HashingService.sha256Digest().digest(payload);
+    }
+
+    public static byte[] hashEntry(byte[] previousHash, long sequence, long timestamp, byte[] payloadHash) {
+        MessageDigest digest = HashingService.sha256Digest();
+        digest.update(previousHash);
+        digest.update(longBytes(sequence));
+        digest.update(longBytes(timestamp));
+        digest.update(payloadHash);
+        return digest.digest();
+    }
+
+    /**
+     * Recomputes the entry's hash from its payload, then follows the links forward
+     * and checks that they end at {@code expectedHead}.
+     */
+    public static boolean verify(Entry entry, List<Link> links, byte[] expectedHead) {
+        byte[] hash = hashEntry(entry.previousHash(), entry.sequence(), entry.timestamp(),
+                payloadHash(entry.payload()));
+        if (!MessageDigest.isEqual(hash, entry.hash())) {
+            return false;
+        }
+
+        long expectedSequence = entry.sequence() + 1;
+        for (Link link : links) {
+            if (link.sequence() != expectedSequence++) {
+                return false;
+            }
+            hash = hashEntry(hash, link.sequence(), link.timestamp(), link.payloadHash());
+        }
+        return MessageDigest.isEqual(hash, expectedHead);
+    }
+
+    private void load(Path path) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException(path + " is not an audit journal");
+        }
+
+        int position = MAGIC.length;
+        while (position + RECORD_HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length == 0) break;
+
+            boolean intact = wellFormed(position);
+            if (intact) {
+                Entry entry = read(position);
+                byte[] expected = hashEntry(headHash, entry.sequence(), entry.timestamp(), payloadHash(entry.payload()));
+                intact = entry.sequence() == headSequence + 1
+                        && MessageDigest.isEqual(entry.previousHash(), headHash)
+                        && MessageDigest.isEqual(entry.hash(), expected);
+            }
+            if (!intact) {
+                discardTail(path, position);
+                break;
+            }
+
+            Entry entry = read(position);
+            index(entry.sequence(), position);
+            headSequence = entry.sequence();
+            headHash = entry.hash();
+            position += length;
+        }
+        writePosition = position;
+    }
+
+    /**
+     * A bad record followed by a record that is consistent in itself means the chain was
+     * altered in the middle, which must not be papered over. Otherwise it is the tail of a
+     * write the crash interrupted: everything from it on is zeroed so appends start clean.
+     * Cutting a tail that was already anchored still shows, as the anchored head is gone.
+     */
+    private void discardTail(Path path, int position) throws IOException {
+        int next = position;
+        while (wellFormed(next)) {
+            next += buffer.getInt(next);
+            if (wellFormed(next) && selfConsistent(next)) {
+                throw new IOException("Audit journal " + path + " fails verification at sequence "
+                        + (headSequence + 1) + " with intact records after it");
+            }
+        }
+
+        int end = position;
+        for (int i = buffer.capacity() - 1; i >= position; i--) {
+            if (buffer.get(i) != 0) {
+                end = i + 1;
+                break;
+            }
+        }
+        log.warn("Audit journal {} has a torn record after sequence {}: discarding {} bytes at offset {}",
+                path, headSequence, end - position, position);
+
+        byte[] zeros = new byte[Math.min(end - position, 1 << 16)];
+        for (int offset = position; offset < end; offset += zeros.length) {
+            buffer.put(offset, zeros, 0, Math.min(zeros.length, end - offset));
+        }
+        buffer.force();
+    }
+
+    private boolean wellFormed(int position) {
+        if (position + RECORD_HEADER > buffer.capacity()) return false;
+        int length = buffer.getInt(position);
+        return length >= RECORD_HEADER && position + length <= buffer.capacity();
+    }
+
+    private boolean selfConsistent(int position) {
+        Entry entry = read(position);
+        return MessageDigest.isEqual(entry.hash(),
+                hashEntry(entry.previousHash(), entry.sequence(), entry.timestamp(), payloadHash(entry.payload())));
+    }
+
+    private Entry read(int position) {
+        int length = buffer.getInt(position);
+        byte[] previousHash = new byte[HASH_LENGTH];
+        byte[] hash = new byte[HASH_LENGTH];
+        byte[] payload = new byte[length - RECORD_HEADER];
+        buffer.get(position + 20, previousHash);
+        buffer.get(position + 20 + HASH_LENGTH, hash);
+        buffer.get(position + RECORD_HEADER, payload);
+        return new Entry(buffer.getLong(position + 4), buffer.getLong(position + 12), previousHash, hash, payload);
+    }
+
+    private void index(long sequence, int position) {
+        int slot = (int) (sequence - 1);
+        if (slot == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[slot] = position;
+    }
+
+    // Remaps at double the size; the old mapping is released once it is garbage collected
+    private void ensureCapacity(long required) throws IOException {
+        if (required <= buffer.capacity()) return;
+        if (required > Integer.MAX_VALUE) {
+            throw new IOException("Audit journal is full");
+        }
+
+        long capacity = buffer.capacity();
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(capacity, Integer.MAX_VALUE));
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Audit journal is closed");
+        }
+    }
+
+    private static byte[] longBytes(long value) {
+        byte[] bytes = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,100 @@
+package com.jobchain.utils;
+
+import com.jobchain.service.HashingService;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary SHA-256 Merkle tree over application hashes.
+ * Leaves are hashed as sha256(0x00 || leaf) and inner nodes as sha256(0x01 || left || right);
+ * an odd node at the end of a level is paired with itself.
+ */
+public final class MerkleTree {
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+
+    private final List<List<byte[]>> levels = new ArrayList<>();
+
+    private MerkleTree(List<byte[]> leaves) {
+        if (leaves.isEmpty()) {
+            throw new IllegalArgumentException("Merkle tree needs at least one leaf");
+        }
+
+        List<byte[]> level = new ArrayList<>(leaves.size());
+        for (byte[] leaf : leaves) {
+            level.add(hashLeaf(leaf));
+        }
+        levels.add(level);
+
+        while (level.size() > 1) {
+            List<byte[]> parent = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i < level.size(); i += 2) {
+                byte[] left = level.get(i);
+                byte[] right = i + 1 < level.size() ? level.get(i + 1) : left;
+                parent.add(hashNode(left, right));
+            }
+            levels.add(parent);
+            level = parent;
+        }
+    }
+
+    public static MerkleTree build(List<byte[]> leaves) {
+        return new MerkleTree(leaves);
+    }
+
+    public byte[] getRoot() {
+        return levels.get(levels.size() - 1).get(0);
+    }
+
+    public int getLeafCount() {
+        return levels.get(0).size();
+    }
+
+    public List<byte[]> getProof(int leafIndex) {
+        if (leafIndex < 0 || leafIndex >= getLeafCount()) {
+            throw new IllegalArgumentException("Leaf index out of range: " + leafIndex);
+        }
+
+        List<byte[]> proof = new ArrayList<>(levels.size() - 1);
+        int index = leafIndex;
+        for (int depth = 0; depth < levels.size() - 1; depth++) {
+            List<byte[]> level = levels.get(depth);
+            int sibling = index ^ 1;
+            proof.add(sibling < level.size() ? level.get(sibling) : level.get(index));
+            index >>= 1;
+        }
+        return proof;
+    }
+
+    public static byte[] computeRoot(byte[] leaf, int leafIndex, List<byte[]> proof) {
+        byte[] hash = hashLeaf(leaf);
+        int index = leafIndex;
+        for (byte[] sibling : proof) {
+            hash = (index & 1) == 0 ? hashNode(hash, sibling) : hashNode(sibling, hash);
+            index >>= 1;
+        }
+        return hash;
+    }
+
+    public static boolean verify(byte[] leaf, int leafIndex, List<byte[]> proof, byte[] root) {
+        return MessageDigest.isEqual(computeRoot(leaf, leafIndex, proof), root);
+    }
+
+    private static byte[] hashLeaf(byte[] leaf) {
+        MessageDigest digest = HashingService.sha256Digest();
+        digest.update(LEAF_PREFIX);
+        digest.update(leaf);
+        return digest.digest();
+    }
+
+    private static byte[] hashNode(byte[] left, byte[] right) {
+        MessageDigest digest = HashingService.sha256Digest();
+        digest.update(NODE_PREFIX);
+        digest.update(left);
+        digest.update(right);
+        return digest.digest();
+    }
+}
@@ -0,0 +1,113 @@
+package com.jobchain.blockchain;
+
+import org.openjdk.jmh.annotations.*;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.tx.RawTransactionManager;
+import org.web3j.utils.Convert;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broadcast throughput of one signer against the simulated chain, with the local nonce
+ * counter ({@code pipelined}) and with a nonce read from the node before every send
+ * ({@code node-nonce}, sends serialised as they must be without a local counter).
+ * Rejected sends are reported as the {@code rejected} secondary result.
+ *
+ * <pre>mvn -Pbenchmark verify -Dbenchmark=PipelinedTransactionManagerBenchmark</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(32)
+public class PipelinedTransactionManagerBenchmark {
+
+    private static final long CHAIN_ID = 80002;
+    private static final String CONTRACT = "0x" + "1".repeat(40);
+    private static final BigInteger GAS_LIMIT = BigInteger.valueOf(100_000);
+    private static final BigInteger MAX_FEE = Convert.toWei("50", Convert.Unit.GWEI).toBigInteger();
+    private static final BigInteger TIP = Convert.toWei("2", Convert.Unit.GWEI).toBigInteger();
+
+    @State(Scope.Benchmark)
+    public static class Chain {
+
+        @Param({"pipelined", "node-nonce"})
+        public String nonces;
+
+        @Param({"20"})
+        public double latencyMeanMs;
+
+        SimulatedChainService service;
+        Web3j web3j;
+        Credentials credentials;
+        PipelinedTransactionManager pipelined;
+        RawTransactionManager nodeNonce;
+
+        @Setup(Level.Trial)
+        public void start() throws Exception {
+            credentials = Credentials.create(Keys.createEcKeyPair());
+            service = SimulatedChainService.builder()
+                    .chainId(CHAIN_ID)
+                    .contractAddress(CONTRACT)
+                    .admins(List.of(credentials.getAddress()))
+                    .adminBalance(Convert.toWei(BigDecimal.valueOf(1_000_000_000), Convert.Unit.ETHER).toBigInteger())
+                    .initialBaseFee(Convert.toWei("1", Convert.Unit.GWEI).toBigInteger())
+                    .maxTransactionsPerBlock(10_000)
+                    .blockTimeMs(500)
+                    .latencyMinMs(5)
+                    .latencyMeanMs(latencyMeanMs)
+                    .build();
+            web3j = Web3j.build(service);
+            pipelined = new PipelinedTransactionManager(web3j, credentials, CHAIN_ID);
+            nodeNonce = new RawTransactionManager(web3j, credentials, CHAIN_ID);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            web3j.shutdown();
+        }
+
+        EthSendTransaction send() throws Exception {
+            if ("pipelined".equals(nonces)) {
+                RawTransaction transaction = pipelined.nextEIP1559Transaction(
+                        CHAIN_ID, TIP, MAX_FEE, GAS_LIMIT, CONTRACT, "0x", BigInteger.ZERO);
+                return pipelined.signAndSend(transaction);
+            }
+            synchronized (this) {
+                BigInteger nonce = web3j.ethGetTransactionCount(
+                        credentials.getAddress(), DefaultBlockParameterName.PENDING).send().getTransactionCount();
+                return nodeNonce.signAndSend(RawTransaction.createTransaction(
+                        CHAIN_ID, nonce, GAS_LIMIT, CONTRACT, BigInteger.ZERO, "0x", TIP, MAX_FEE));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcome {
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rejected = 0;
+        }
+    }
+
+    @Benchmark
+    public EthSendTransaction broadcast(Chain chain, Outcome outcome) throws Exception {
+        EthSendTransaction sent = chain.send();
+        if (sent.hasError()) {
+            outcome.rejected++;
+        }
+        return sent;
+    }
+}
@@ -0,0 +1,154 @@
+package com.jobchain.blockchain;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.utils.Convert;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A nonce held past max age must never be released while its transaction can still be
+ * mined. The anchor is sent below the base fee, so it sits in the pool until the base fee
+ * decays over a few empty blocks.
+ */
+class StuckTransactionWatchdogTest {
+
+    private static final long CHAIN_ID = 80002;
+    private static final String CONTRACT = "0x" + "1".repeat(40);
+    private static final String ANCHOR = "0x4a43415544495431" + "ab".repeat(40);
+    private static final BigInteger ANCHOR_MAX_FEE = gwei(30);
+    private static final BigInteger ANCHOR_TIP = gwei(2);
+
+    private SimulatedChainService service;
+    private Web3j web3j;
+    private BatchingReceiptProcessor receiptProcessor;
+    private SignerPool.Signer signer;
+
+    @BeforeEach
+    void start() throws Exception {
+        Credentials credentials = Credentials.create(Keys.createEcKeyPair());
+        service = SimulatedChainService.builder()
+                .chainId(CHAIN_ID)
+                .contractAddress(CONTRACT)
+                .admins(List.of(credentials.getAddress()))
+                .adminBalance(Convert.toWei(BigDecimal.valueOf(1_000), Convert.Unit.ETHER).toBigInteger())
+                .initialBaseFee(gwei(100))
+                .maxTransactionsPerBlock(100)
+                .blockTimeMs(200)
+                .build();
+        web3j = Web3j.build(service);
+        receiptProcessor = new BatchingReceiptProcessor(web3j, 50, 10_000, 100);
+        signer = new SignerPool(web3j, List.of(credentials), CHAIN_ID, receiptProcessor,
+                SignerPool.Routing.ROUND_ROBIN, BigInteger.ZERO, 3, 1000).primary();
+    }
+
+    @AfterEach
+    void stop() {
+        receiptProcessor.shutdown();
+        web3j.shutdown();
+    }
+
+    @Test
+    void keepsWatchingAnOverdueNonceThatCannotBeCancelled() throws Exception {
+        // The cap leaves no room for a cancel, so the only way out is the anchor itself being mined
+        StuckTransactionWatchdog watchdog = watchdog(ANCHOR_MAX_FEE);
+        RawTransaction anchor = signer.getTransactionManager().nextEIP1559Transaction(
+                CHAIN_ID, ANCHOR_TIP, ANCHOR_MAX_FEE, BigInteger.valueOf(30_000), signer.getAddress(), ANCHOR,
+                BigInteger.ZERO);
+        CompletableFuture<TransactionReceipt> result = track(watchdog, anchor);
+
+        Thread.sleep(5);
+        watchdog.check();
+
+        assertThat(result).isNotDone();
+        assertThat(watchdog.getOverdueCount()).isEqualTo(1);
+
+        TransactionReceipt receipt = result.get(30, TimeUnit.SECONDS);
+        assertThat(watchdog.getTracked()).isEmpty();
+        assertThat(countMined(ANCHOR)).isEqualTo(1);
+        assertThat(receipt.getTransactionHash()).isEqualTo(minedHash(ANCHOR));
+    }
+
+    @Test
+    void failsTheWriteOnlyOnceTheCancelIsMined() throws Exception {
+        StuckTransactionWatchdog watchdog = watchdog(gwei(500));
+        RawTransaction anchor = signer.getTransactionManager().nextEIP1559Transaction(
+                CHAIN_ID, ANCHOR_TIP, ANCHOR_MAX_FEE, BigInteger.valueOf(30_000), signer.getAddress(), ANCHOR,
+                BigInteger.ZERO);
+        CompletableFuture<TransactionReceipt> result = track(watchdog, anchor);
+
+        Thread.sleep(5);
+        watchdog.check();
+
+        assertThatThrownBy(() -> result.get(30, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOf(TransactionException.class)
+                .hasMessageContaining("cancelled");
+        assertThat(countMined(ANCHOR)).isZero();
+        assertThat(web3j.ethGetTransactionCount(signer.getAddress(), DefaultBlockParameterName.LATEST)
+                .send().getTransactionCount()).isEqualTo(BigInteger.ONE);
+    }
+
+    private StuckTransactionWatchdog watchdog(BigInteger maxFeeCap) {
+        FeeOracleGasProvider gasProvider = new FeeOracleGasProvider(web3j, CHAIN_ID, true,
+                BigInteger.valueOf(100_000), 1.2, 10, 50, ANCHOR_TIP, gwei(300));
+        // Past max age from the first check on; nothing is replaced for being merely slow
+        return new StuckTransactionWatchdog(web3j, receiptProcessor, gasProvider, 0, 0, 15, maxFeeCap);
+    }
+
+    private CompletableFuture<TransactionReceipt> track(StuckTransactionWatchdog watchdog, RawTransaction anchor)
+            throws Exception {
+        EthSendTransaction sent = signer.getTransactionManager().signAndSend(anchor);
+        assertThat(sent.hasError()).isFalse();
+        return watchdog.track("anchorAuditHead", signer, anchor, sent.getTransactionHash());
+    }
+
+    private long countMined(String input) throws Exception {
+        return minedWith(input).size();
+    }
+
+    private String minedHash(String input) throws Exception {
+        return minedWith(input).get(0).getHash();
+    }
+
+    private List<EthBlock.TransactionObject> minedWith(String input) throws Exception {
+        long head = web3j.ethBlockNumber().send().getBlockNumber().longValue();
+        List<EthBlock.TransactionObject> mined = new ArrayList<>();
+        for (long number = 1; number <= head; number++) {
+            EthBlock.Block block = web3j.ethGetBlockByNumber(DefaultBlockParameter.valueOf(BigInteger.valueOf(number)),
+                    true).send().getBlock();
+            for (EthBlock.TransactionResult<?> transaction : block.getTransactions()) {
+                EthBlock.TransactionObject tx = (EthBlock.TransactionObject) transaction.get();
+                if (input.equalsIgnoreCase(tx.getInput())) {
+                    mined.add(tx);
+                }
+            }
+        }
+        return mined;
+    }
+
+    private static BigInteger gwei(long amount) {
+        return Convert.toWei(BigDecimal.valueOf(amount), Convert.Unit.GWEI).toBigInteger();
+    }
+}
@@ -0,0 +1,93 @@
+package com.jobchain.service;
+
+import com.jobchain.dto.ApplicationResponse;
+import com.jobchain.entity.ApplicationEntity;
+import com.jobchain.entity.ExamScoreEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The applications-by-vacancy listing must stay a single statement however many
+ * applications the vacancy has; a per-row score lookup would show up as N + 1.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(ApplicationService.class)
+class ApplicationServiceQueryCountTest {
+
+    private static final int APPLICATIONS = 25;
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ChainOutboxService chainOutboxService;
+
+    @MockitoBean
+    private MerkleAnchoringService merkleAnchoringService;
+
+    @MockitoBean
+    private AuditJournalService auditJournalService;
+
+    @MockitoBean
+    private HashingService hashingService;
+
+    @Test
+    void listsApplicationsWithMarksInOneStatement() {
+        UUID vacancyId = UUID.randomUUID();
+        for (int i = 0; i < APPLICATIONS; i++) {
+            ApplicationEntity application = ApplicationEntity.builder()
+                    .vacancyId(vacancyId)
+                    .candidateName("Candidate " + i)
+                    .email("candidate" + i + "@example.com")
+                    .category("UR")
+                    .marks10(80)
+                    .marks12(75)
+                    .appHash("0".repeat(64))
+                    .build();
+            entityManager.persist(application);
+            // Every other candidate has sat the exam
+            if (i % 2 == 0) {
+                entityManager.persist(ExamScoreEntity.builder()
+                        .vacancyId(vacancyId)
+                        .applicationId(application.getId())
+                        .marks(i)
+                        .markingHash("1".repeat(64))
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ApplicationResponse> responses = applicationService
+                .getApplicationPage(vacancyId, null, null, null, null, APPLICATIONS)
+                .getItems();
+
+        assertThat(responses).hasSize(APPLICATIONS);
+        assertThat(responses).filteredOn(response -> response.getMarks() != null).hasSize((APPLICATIONS + 1) / 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
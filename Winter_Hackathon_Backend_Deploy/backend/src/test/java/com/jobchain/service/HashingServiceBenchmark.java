@@ -0,0 +1,108 @@
+package com.jobchain.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HashingService} against the per-service hashing it replaced: a new digest per
+ * call, the document written to a String and encoded again, and hex built with
+ * {@code Integer.toHexString}. Documents are shaped like an application's app_json;
+ * the batch is one import chunk. Add {@code -prof gc} to the JMH arguments for allocation.
+ *
+ * <pre>mvn -Pbenchmark verify -Dbenchmark=HashingServiceBenchmark</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HashingServiceBenchmark {
+
+    private static final int BATCH_SIZE = 2000;
+
+    private final HashingService hashingService = new HashingService();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Map<String, Object> document;
+    private List<Map<String, Object>> batch;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void prepare() throws Exception {
+        document = document(0);
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(document(i));
+        }
+        text = objectMapper.writeValueAsString(document);
+    }
+
+    @Benchmark
+    public String hexLegacy() throws Exception {
+        return legacySha256(text);
+    }
+
+    @Benchmark
+    public String hex() {
+        return hashingService.sha256Hex(text);
+    }
+
+    @Benchmark
+    public String documentLegacy() throws Exception {
+        return legacySha256(objectMapper.writeValueAsString(document));
+    }
+
+    @Benchmark
+    public HashingService.HashedJson document() throws Exception {
+        return hashingService.canonicalJson(document);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<String> batchLegacy() throws Exception {
+        List<String> hashes = new ArrayList<>(batch.size());
+        for (Map<String, Object> value : batch) {
+            hashes.add(legacySha256(objectMapper.writeValueAsString(value)));
+        }
+        return hashes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<HashingService.HashedJson> batch() throws Exception {
+        return hashingService.canonicalJsonBatch(batch);
+    }
+
+    private static Map<String, Object> document(int i) {
+        Map<String, Object> appData = new HashMap<>();
+        appData.put("candidateName", "Candidate " + i);
+        appData.put("email", "candidate" + i + "@example.com");
+        appData.put("category", "OBC");
+        appData.put("marks10", 80.0 + i % 20);
+        appData.put("marks12", 70.0 + i % 30);
+        appData.put("timestamp", "Sat Oct 17 05:10:48 UTC 2026");
+        return appData;
+    }
+
+    // As ApplicationService, ExamService and FraudDetectionService hashed before HashingService
+    private static String legacySha256(String input) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) hexString.append('0');
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+}
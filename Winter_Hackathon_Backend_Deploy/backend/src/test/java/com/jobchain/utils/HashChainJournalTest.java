@@ -0,0 +1,164 @@
+package com.jobchain.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HashChainJournalTest {
+
+    private static final int CAPACITY = 4096;
+    // Magic, then length, sequence and timestamp ahead of both hashes
+    private static final int FIRST_RECORD = 8;
+    private static final int RECORD_HEADER = 4 + 8 + 8 + 2 * HashChainJournal.HASH_LENGTH;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void chainsEveryEntryToTheOneBefore() throws IOException {
+        try (HashChainJournal journal = HashChainJournal.open(directory.resolve("journal.bin"), CAPACITY)) {
+            HashChainJournal.Entry first = journal.append(payload(1));
+            HashChainJournal.Entry second = journal.append(payload(2));
+
+            assertThat(first.sequence()).isEqualTo(1);
+            assertThat(first.previousHash()).isEqualTo(new byte[HashChainJournal.HASH_LENGTH]);
+            assertThat(second.previousHash()).isEqualTo(first.hash());
+            assertThat(second.hash()).isEqualTo(HashChainJournal.hashEntry(first.hash(), 2, second.timestamp(),
+                    HashChainJournal.payloadHash(payload(2))));
+            assertThat(journal.getHeadHash()).isEqualTo(second.hash());
+            assertThat(journal.getFirstHash()).contains(first.hash());
+        }
+    }
+
+    @Test
+    void reloadsTheSameChain() throws IOException {
+        Path path = directory.resolve("journal.bin");
+        byte[] head;
+        try (HashChainJournal journal = HashChainJournal.open(path, CAPACITY)) {
+            for (int i = 1; i <= 3; i++) {
+                journal.append(payload(i));
+            }
+            head = journal.getHeadHash();
+        }
+
+        try (HashChainJournal journal = HashChainJournal.open(path, CAPACITY)) {
+            assertThat(journal.getHeadSequence()).isEqualTo(3);
+            assertThat(journal.getHeadHash()).isEqualTo(head);
+            assertThat(journal.get(2).orElseThrow().payload()).isEqualTo(payload(2));
+
+            // Appends continue the loaded chain
+            assertThat(journal.append(payload(4)).previousHash()).isEqualTo(head);
+        }
+    }
+
+    @Test
+    void grows() throws IOException {
+        try (HashChainJournal journal = HashChainJournal.open(directory.resolve("journal.bin"), 128)) {
+            for (int i = 1; i <= 200; i++) {
+                journal.append(payload(i));
+            }
+            assertThat(journal.getHeadSequence()).isEqualTo(200);
+            assertThat(journal.get(137).orElseThrow().payload()).isEqualTo(payload(137));
+        }
+    }
+
+    @Test
+    void provesInclusionUpToAHead() throws IOException {
+        try (HashChainJournal journal = HashChainJournal.open(directory.resolve("journal.bin"), CAPACITY)) {
+            for (int i = 1; i <= 5; i++) {
+                journal.append(payload(i));
+            }
+            byte[] head = journal.getHeadHash();
+            HashChainJournal.Entry entry = journal.get(2).orElseThrow();
+            List<HashChainJournal.Link> links = journal.links(2, 5);
+
+            assertThat(links).extracting(HashChainJournal.Link::sequence).containsExactly(3L, 4L, 5L);
+            assertThat(HashChainJournal.verify(entry, links, head)).isTrue();
+
+            HashChainJournal.Entry altered = new HashChainJournal.Entry(entry.sequence(), entry.timestamp(),
+                    entry.previousHash(), entry.hash(), payload(9));
+            assertThat(HashChainJournal.verify(altered, links, head)).isFalse();
+            assertThat(HashChainJournal.verify(entry, links.subList(1, 3), head)).isFalse();
+            assertThat(HashChainJournal.verify(entry, links, entry.hash())).isFalse();
+        }
+    }
+
+    @Test
+    void cutsOffATornTail() throws IOException {
+        Path path = directory.resolve("journal.bin");
+        byte[] second;
+        try (HashChainJournal journal = HashChainJournal.open(path, CAPACITY)) {
+            journal.append(payload(1));
+            second = journal.append(payload(2)).hash();
+            journal.append(payload(3));
+        }
+        // Length made it to disk, the payload of the last record did not
+        corrupt(path, recordOffset(2) + RECORD_HEADER, new byte[payload(3).length]);
+
+        try (HashChainJournal journal = HashChainJournal.open(path, CAPACITY)) {
+            assertThat(journal.getHeadSequence()).isEqualTo(2);
+            assertThat(journal.getHeadHash()).isEqualTo(second);
+            journal.append(payload(4));
+            journal.append(payload(5));
+        }
+
+        try (HashChainJournal journal = HashChainJournal.open(path, CAPACITY)) {
+            assertThat(journal.getHeadSequence()).isEqualTo(4);
+            assertThat(journal.get(3).orElseThrow().payload()).isEqualTo(payload(4));
+        }
+    }
+
+    @Test
+    void cutsOffATailWithAGarbledLength() throws IOException {
+        Path path = directory.resolve("journal.bin");
+        try (HashChainJournal journal = HashChainJournal.open(path, CAPACITY)) {
+            journal.append(payload(1));
+            journal.append(payload(2));
+        }
+        corrupt(path, recordOffset(1), ByteBuffer.allocate(4).putInt(CAPACITY * 2).array());
+
+        try (HashChainJournal journal = HashChainJournal.open(path, CAPACITY)) {
+            assertThat(journal.getHeadSequence()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void refusesATamperedMiddle() throws IOException {
+        Path path = directory.resolve("journal.bin");
+        try (HashChainJournal journal = HashChainJournal.open(path, CAPACITY)) {
+            for (int i = 1; i <= 3; i++) {
+                journal.append(payload(i));
+            }
+        }
+        corrupt(path, recordOffset(1) + RECORD_HEADER, payload(7));
+
+        assertThatThrownBy(() -> HashChainJournal.open(path, CAPACITY))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("fails verification at sequence 2");
+    }
+
+    private static byte[] payload(int i) {
+        return ("{\"event\":\"STATUS\",\"n\":" + i + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Every test payload has the same length, so records sit at fixed offsets
+    private static int recordOffset(int index) {
+        return FIRST_RECORD + index * (RECORD_HEADER + payload(1).length);
+    }
+
+    private static void corrupt(Path path, int offset, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), offset);
+        }
+    }
+}